@@ -0,0 +1,48 @@
+package com.windschief.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Loads the Spotify responses in {@code src/jmh/resources/fixtures}: a page of
+ * an artist's albums and a page of an album's tracks, in the shape returned by
+ * the Web API.
+ */
+public final class SpotifyFixtures {
+    public static final String ARTIST_ALBUMS = "artist-albums.json";
+    public static final String ALBUM_TRACKS = "album-tracks.json";
+
+    private SpotifyFixtures() {
+    }
+
+    /**
+     * An object mapper configured like the one of the REST client, which
+     * ignores unknown properties.
+     */
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public static byte[] load(String fixture) {
+        try (InputStream in = SpotifyFixtures.class.getResourceAsStream("/fixtures/" + fixture)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown fixture: " + fixture);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static <T> T decode(String fixture, Class<T> type) {
+        try {
+            return objectMapper().readValue(load(fixture), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.windschief.benchmark;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import com.windschief.client.HttpClientService;
+
+/**
+ * Serves the pages following the first one from a {@link SyntheticCatalogue}.
+ */
+public class StubHttpClientService implements HttpClientService {
+    private final SyntheticCatalogue catalogue;
+
+    public StubHttpClientService(SyntheticCatalogue catalogue) {
+        this.catalogue = catalogue;
+    }
+
+    @Override
+    public <T> T get(String url, String bearerToken, Class<T> responseType) {
+        return catalogue.page(url, responseType);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, String bearerToken, Class<T> responseType) {
+        return CompletableFuture.completedFuture(catalogue.page(url, responseType));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> sendAsync(Supplier<? extends CompletionStage<T>> request) {
+        return request.get().toCompletableFuture();
+    }
+}
@@ -0,0 +1,94 @@
+package com.windschief.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.windschief.spotify.SpotifyApi;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.AlbumTracksSummary;
+import com.windschief.spotify.model.AlbumsResponse;
+import com.windschief.spotify.model.FollowingResponse;
+import com.windschief.spotify.model.PlaylistAddItemsRequest;
+import com.windschief.spotify.model.SearchResponse;
+import com.windschief.spotify.model.SeveralAlbumsResponse;
+import com.windschief.spotify.model.SpotifyUser;
+import com.windschief.spotify.model.TokenResponse;
+import com.windschief.spotify.model.TrackSummariesResponse;
+import com.windschief.spotify.model.TracksResponse;
+
+/**
+ * Serves the endpoints used by the release radar from a
+ * {@link SyntheticCatalogue} without any network round trip.
+ */
+public class StubSpotifyApi implements SpotifyApi {
+    private final SyntheticCatalogue catalogue;
+    private final LongAdder addedItems = new LongAdder();
+
+    public StubSpotifyApi(SyntheticCatalogue catalogue) {
+        this.catalogue = catalogue;
+    }
+
+    public long getAddedItems() {
+        return addedItems.sum();
+    }
+
+    @Override
+    public CompletionStage<AlbumSummariesResponse> getArtistAlbumsAsync(String authHeader, String artistId,
+            String includeGroups, int limit, int offset) {
+        return CompletableFuture.completedFuture(catalogue.artistAlbumsPage(artistId, offset));
+    }
+
+    @Override
+    public CompletionStage<TrackSummariesResponse> getAlbumTracksAsync(String authHeader, String albumId, int limit,
+            int offset) {
+        return CompletableFuture.completedFuture(catalogue.albumTracksPage(albumId, offset));
+    }
+
+    @Override
+    public CompletionStage<SeveralAlbumsResponse> getSeveralAlbumsAsync(String authHeader, String albumIds) {
+        final List<AlbumTracksSummary> albums = Arrays.stream(albumIds.split(","))
+                .map(albumId -> new AlbumTracksSummary(albumId, catalogue.albumTracksPage(albumId, 0)))
+                .toList();
+        return CompletableFuture.completedFuture(new SeveralAlbumsResponse(albums));
+    }
+
+    @Override
+    public void addToPlaylist(String authHeader, String playlistId, PlaylistAddItemsRequest request) {
+        addedItems.add(request.uris().size());
+    }
+
+    @Override
+    public SpotifyUser getCurrentUser(String authHeader) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FollowingResponse getFollowing(String authHeader) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AlbumsResponse getArtistAlbums(String authHeader, String artistId, String includeGroups, int limit,
+            int offset) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TracksResponse getAlbumTracks(String authHeader, String albumId, int limit, int offset) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SearchResponse search(String authHeader, String query, String type, String market, int limit, int offset,
+            String includeExternal) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TokenResponse refreshToken(String basicAuth, String grantType, String refreshToken, String clientId) {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,100 @@
+package com.windschief.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.AlbumSummary;
+import com.windschief.spotify.model.TrackSummariesResponse;
+import com.windschief.spotify.model.TrackSummary;
+
+/**
+ * A Spotify catalogue of a configurable size, built from the releases and
+ * tracks of the recorded fixtures. The first {@code newReleasesPerArtist}
+ * releases of every artist are released on or after {@link #CHECK_FROM}, all
+ * others before.
+ */
+public class SyntheticCatalogue {
+    public static final LocalDate CHECK_FROM = LocalDate.of(2025, 1, 1);
+    public static final int PAGE_SIZE = 50;
+    private static final String API_URL = "https://api.spotify.com/v1";
+
+    private final Map<String, Object> pagesByUrl = new HashMap<>();
+    private final List<String> artistIds = new ArrayList<>();
+
+    public SyntheticCatalogue(int artistCount, int releasesPerArtist, int newReleasesPerArtist, int tracksPerRelease) {
+        final List<AlbumSummary> albumTemplates = SpotifyFixtures
+                .decode(SpotifyFixtures.ARTIST_ALBUMS, AlbumSummariesResponse.class).items();
+        final List<TrackSummary> trackTemplates = SpotifyFixtures
+                .decode(SpotifyFixtures.ALBUM_TRACKS, TrackSummariesResponse.class).items();
+
+        for (int artist = 0; artist < artistCount; artist++) {
+            final String artistId = "artist" + artist;
+            artistIds.add(artistId);
+
+            final List<AlbumSummary> releases = new ArrayList<>();
+            for (int release = 0; release < releasesPerArtist; release++) {
+                final AlbumSummary template = albumTemplates.get(release % albumTemplates.size());
+                final String albumId = artistId + "album" + release;
+                releases.add(release < newReleasesPerArtist
+                        ? new AlbumSummary(albumId, "spotify:album:" + albumId,
+                                CHECK_FROM.plusDays(release).toString(), "day", template.album_group())
+                        : new AlbumSummary(albumId, "spotify:album:" + albumId, template.release_date(),
+                                template.release_date_precision(), template.album_group()));
+
+                final List<TrackSummary> tracks = new ArrayList<>();
+                for (int track = 0; track < tracksPerRelease; track++) {
+                    final String trackId = albumId + "track" + trackTemplates.get(track % trackTemplates.size()).id();
+                    tracks.add(new TrackSummary(trackId, "spotify:track:" + trackId));
+                }
+                addPages(API_URL + "/albums/" + albumId + "/tracks?offset=%d&limit=%d", tracks,
+                        (next, offset, items) -> new TrackSummariesResponse(PAGE_SIZE, next, offset, tracks.size(),
+                                items));
+            }
+            addPages(API_URL + "/artists/" + artistId + "/albums?offset=%d&limit=%d&include_groups=album,single",
+                    releases, (next, offset, items) -> new AlbumSummariesResponse(PAGE_SIZE, next, offset,
+                            releases.size(), items));
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageFactory<T> {
+        Object create(String next, int offset, List<T> items);
+    }
+
+    public List<String> getArtistIds() {
+        return artistIds;
+    }
+
+    public AlbumSummariesResponse artistAlbumsPage(String artistId, int offset) {
+        return page(API_URL + "/artists/" + artistId + "/albums?offset=" + offset + "&limit=" + PAGE_SIZE
+                + "&include_groups=album,single", AlbumSummariesResponse.class);
+    }
+
+    public TrackSummariesResponse albumTracksPage(String albumId, int offset) {
+        return page(API_URL + "/albums/" + albumId + "/tracks?offset=" + offset + "&limit=" + PAGE_SIZE,
+                TrackSummariesResponse.class);
+    }
+
+    public <T> T page(String url, Class<T> type) {
+        final Object page = pagesByUrl.get(url);
+        if (page == null) {
+            throw new IllegalArgumentException("Unknown page: " + url);
+        }
+        return type.cast(page);
+    }
+
+    private <T> void addPages(String urlFormat, List<T> items, PageFactory<T> pageFactory) {
+        int offset = 0;
+        do {
+            final int end = Math.min(offset + PAGE_SIZE, items.size());
+            final String next = end < items.size() ? String.format(urlFormat, end, PAGE_SIZE) : null;
+            pagesByUrl.put(String.format(urlFormat, offset, PAGE_SIZE),
+                    pageFactory.create(next, offset, List.copyOf(items.subList(offset, end))));
+            offset = end;
+        } while (offset < items.size());
+    }
+}
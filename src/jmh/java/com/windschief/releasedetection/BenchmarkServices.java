@@ -0,0 +1,90 @@
+package com.windschief.releasedetection;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import com.windschief.auth.SpotifyTokenException;
+import com.windschief.auth.SpotifyTokenService;
+import com.windschief.benchmark.StubHttpClientService;
+import com.windschief.benchmark.StubSpotifyApi;
+import com.windschief.benchmark.SyntheticCatalogue;
+import com.windschief.task.Platform;
+import com.windschief.task.Task;
+import com.windschief.task.TaskRepository;
+import com.windschief.task.added_item.AddedItemRepository;
+import com.windschief.task.item.TaskItem;
+import com.windschief.task.item.TaskItemRepository;
+import com.windschief.task.item.TaskItemType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Wires the release radar services against a {@link SyntheticCatalogue}. The
+ * Spotify API is stubbed by hand, as it is called on the measured path, while
+ * the database is mocked, as it is only called a few times per task.
+ */
+class BenchmarkServices {
+    static final long TASK_ID = 1L;
+    static final String TOKEN = "Bearer benchmark";
+
+    final StubSpotifyApi spotifyApi;
+    final Task task;
+    final ReleaseDetectionService releaseDetectionService;
+    final PlaylistWriter playlistWriter;
+    final ReleaseRadarService releaseRadarService;
+
+    BenchmarkServices(SyntheticCatalogue catalogue) {
+        spotifyApi = new StubSpotifyApi(catalogue);
+        final StubHttpClientService httpClientService = new StubHttpClientService(catalogue);
+
+        task = new Task();
+        task.setId(TASK_ID);
+        task.setUserId("userId");
+        task.setPlaylistId("playlistId");
+        task.setPlatform(Platform.SPOTIFY);
+        task.setCheckFrom(SyntheticCatalogue.CHECK_FROM);
+        for (String artistId : catalogue.getArtistIds()) {
+            final TaskItem item = new TaskItem();
+            item.setItemType(TaskItemType.ARTIST);
+            item.setExternalId(artistId);
+            task.addTaskItem(item);
+        }
+
+        final TaskRepository taskRepository = mock(TaskRepository.class);
+        when(taskRepository.findById(TASK_ID)).thenReturn(task);
+        final AddedItemRepository addedItemRepository = mock(AddedItemRepository.class);
+        when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
+        final SpotifyTokenService spotifyTokenService = mock(SpotifyTokenService.class);
+        try {
+            when(spotifyTokenService.getValidBearerAccessToken(anyString())).thenReturn(TOKEN);
+        } catch (SpotifyTokenException e) {
+            throw new IllegalStateException(e);
+        }
+
+        final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+        when(releaseRadarConfig.artistAlbumCache().ttl()).thenReturn(Optional.empty());
+        when(releaseRadarConfig.lease().owner()).thenReturn(Optional.of("benchmark"));
+        when(releaseRadarConfig.lease().duration()).thenReturn(Duration.ofMinutes(5));
+        when(releaseRadarConfig.albumTracksCache().enabled()).thenReturn(false);
+        when(releaseRadarConfig.journal().maxAge()).thenReturn(Duration.ofDays(7));
+        when(releaseRadarConfig.detectionMode()).thenReturn(ReleaseRadarConfig.DetectionMode.TASK);
+
+        final ArtistAlbumCache artistAlbumCache = new ArtistAlbumCache(releaseRadarConfig, new SimpleMeterRegistry());
+        releaseDetectionService = new ReleaseDetectionService(spotifyApi, addedItemRepository, spotifyTokenService,
+                httpClientService, taskRepository, mock(TaskItemRepository.class), artistAlbumCache,
+                mock(DiscographyScanner.class));
+        playlistWriter = new PlaylistWriter(spotifyApi, new SimpleMeterRegistry());
+        releaseRadarService = new ReleaseRadarService(releaseDetectionService, taskRepository, spotifyTokenService,
+                spotifyApi, addedItemRepository, httpClientService, artistAlbumCache,
+                new AlbumTracksCache(mock(AlbumTracksRepository.class), releaseRadarConfig, new SimpleMeterRegistry()),
+                playlistWriter, mock(TaskExecutionJournalRepository.class), null,
+                new TaskLeaseManager(taskRepository, releaseRadarConfig), releaseRadarConfig);
+    }
+}
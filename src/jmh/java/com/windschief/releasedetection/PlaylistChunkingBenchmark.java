@@ -0,0 +1,51 @@
+package com.windschief.releasedetection;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.windschief.benchmark.SyntheticCatalogue;
+
+/**
+ * Splits new tracks into playlist insertion requests against a Spotify API
+ * that answers immediately, so only the chunking itself is measured.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.jboss.logging.provider=jdk")
+@State(Scope.Benchmark)
+public class PlaylistChunkingBenchmark {
+    @Param({ "100", "1000", "10000" })
+    int trackCount;
+
+    BenchmarkServices services;
+    List<String> trackUris;
+
+    @Setup
+    public void setup() {
+        services = new BenchmarkServices(new SyntheticCatalogue(1, 1, 1, 1));
+        trackUris = IntStream.range(0, trackCount)
+                .mapToObj(i -> "spotify:track:track" + i)
+                .toList();
+    }
+
+    @Benchmark
+    public long addTracksToPlaylist() throws PlaylistWriteException {
+        services.playlistWriter.append(BenchmarkServices.TOKEN, services.task.getPlaylistId(), trackUris);
+        return services.spotifyApi.getAddedItems();
+    }
+}
@@ -0,0 +1,88 @@
+package com.windschief.releasedetection;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.windschief.benchmark.SpotifyFixtures;
+import com.windschief.benchmark.SyntheticCatalogue;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.AlbumSummary;
+
+/**
+ * Filters the releases of a discography by their release date, as done for
+ * every followed artist of every task.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReleaseDateFilterBenchmark {
+    @Param({ "50", "500" })
+    int albumCount;
+
+    List<AlbumSummary> albums;
+
+    @Setup
+    public void setup() {
+        final List<AlbumSummary> fixture = SpotifyFixtures
+                .decode(SpotifyFixtures.ARTIST_ALBUMS, AlbumSummariesResponse.class).items();
+        albums = new ArrayList<>(albumCount);
+        for (int i = 0; i < albumCount; i++) {
+            albums.add(fixture.get(i % fixture.size()));
+        }
+    }
+
+    /**
+     * Baseline: parses every release date into a {@link LocalDate}.
+     */
+    @Benchmark
+    public int parsing() {
+        final LocalDate date = SyntheticCatalogue.CHECK_FROM.minusYears(3);
+        int released = 0;
+        for (AlbumSummary album : albums) {
+            if (!latestReleaseDate(album).isBefore(date)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    @Benchmark
+    public int precomputedCutoff() {
+        final ReleaseDateFilter filter = ReleaseDateFilter.onOrAfter(SyntheticCatalogue.CHECK_FROM.minusYears(3));
+        int released = 0;
+        for (AlbumSummary album : albums) {
+            if (filter.test(album)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    private static LocalDate latestReleaseDate(AlbumSummary album) {
+        return switch (album.release_date_precision()) {
+            case "day" -> LocalDate.parse(album.release_date());
+            case "month" -> YearMonth.parse(album.release_date()).atEndOfMonth();
+            case "year" -> Year.parse(album.release_date()).atDay(Year.parse(album.release_date()).length());
+            default -> throw new IllegalArgumentException("Unknown date precision: " + album.release_date_precision());
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.windschief.releasedetection;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.windschief.auth.SpotifyTokenException;
+import com.windschief.benchmark.SyntheticCatalogue;
+import com.windschief.spotify.model.AlbumSummary;
+import com.windschief.spotify.model.TrackSummary;
+
+/**
+ * Runs the stages of a task execution for a task following
+ * {@code artistCount} artists with {@code releasesPerArtist} releases each,
+ * two of which are new. Spotify is served from memory, so the numbers show
+ * the processing overhead of the service rather than network latency.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.jboss.logging.provider=jdk")
+@State(Scope.Benchmark)
+public class TaskExecutionBenchmark {
+    private static final int NEW_RELEASES_PER_ARTIST = 2;
+    private static final int TRACKS_PER_RELEASE = 12;
+
+    @Param({ "10", "100" })
+    int artistCount;
+
+    @Param({ "20", "200" })
+    int releasesPerArtist;
+
+    BenchmarkServices services;
+    List<AlbumSummary> newReleases;
+
+    @Setup
+    public void setup() throws Exception {
+        // one log line per task execution would dominate the measurement
+        Logger.getLogger("com.windschief").setLevel(Level.WARNING);
+
+        services = new BenchmarkServices(new SyntheticCatalogue(artistCount, releasesPerArtist,
+                NEW_RELEASES_PER_ARTIST, TRACKS_PER_RELEASE));
+        newReleases = services.releaseDetectionService.detectNewAlbumReleases(BenchmarkServices.TASK_ID);
+    }
+
+    @Benchmark
+    public List<AlbumSummary> detectNewAlbumReleases()
+            throws IOException, InterruptedException, SpotifyTokenException {
+        return services.releaseDetectionService.detectNewAlbumReleases(BenchmarkServices.TASK_ID);
+    }
+
+    @Benchmark
+    public List<TrackSummary> fetchTracksFromAlbums() throws IOException, InterruptedException {
+        return services.releaseRadarService.fetchTracksFromAlbums(BenchmarkServices.TOKEN, newReleases);
+    }
+
+    @Benchmark
+    public long execute() {
+        services.releaseRadarService.execute(services.task, null);
+        return services.spotifyApi.getAddedItems();
+    }
+}
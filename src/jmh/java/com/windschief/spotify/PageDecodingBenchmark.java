@@ -0,0 +1,65 @@
+package com.windschief.spotify;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windschief.benchmark.SpotifyFixtures;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.AlbumsResponse;
+import com.windschief.spotify.model.TrackSummariesResponse;
+import com.windschief.spotify.model.TracksResponse;
+
+/**
+ * Decodes full pages of 50 albums and 50 tracks, into the complete models and
+ * into the slim summaries used by release detection.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageDecodingBenchmark {
+    ObjectMapper objectMapper;
+    byte[] artistAlbums;
+    byte[] albumTracks;
+
+    @Setup
+    public void setup() {
+        objectMapper = SpotifyFixtures.objectMapper();
+        artistAlbums = SpotifyFixtures.load(SpotifyFixtures.ARTIST_ALBUMS);
+        albumTracks = SpotifyFixtures.load(SpotifyFixtures.ALBUM_TRACKS);
+    }
+
+    @Benchmark
+    public AlbumsResponse albums() throws IOException {
+        return objectMapper.readValue(artistAlbums, AlbumsResponse.class);
+    }
+
+    @Benchmark
+    public AlbumSummariesResponse albumSummaries() throws IOException {
+        return objectMapper.readValue(artistAlbums, AlbumSummariesResponse.class);
+    }
+
+    @Benchmark
+    public TracksResponse tracks() throws IOException {
+        return objectMapper.readValue(albumTracks, TracksResponse.class);
+    }
+
+    @Benchmark
+    public TrackSummariesResponse trackSummaries() throws IOException {
+        return objectMapper.readValue(albumTracks, TrackSummariesResponse.class);
+    }
+}
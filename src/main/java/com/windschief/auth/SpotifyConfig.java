@@ -1,10 +1,94 @@
 package com.windschief.auth;
 
+import java.time.Duration;
+
 import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
 
 @ConfigMapping(prefix = "spotify")
 public interface SpotifyConfig {
     String clientId();
 
     String clientSecret();
+
+    RateLimit rateLimit();
+
+    IdentityCache identityCache();
+
+    ETagCache etagCache();
+
+    interface RateLimit {
+        /**
+         * Requests per second allowed right after startup.
+         */
+        @WithDefault("10")
+        double initialRate();
+
+        /**
+         * Lower bound the request rate is decreased to when Spotify throttles us.
+         */
+        @WithDefault("1")
+        double minRate();
+
+        /**
+         * Upper bound the request rate is increased to while requests succeed.
+         */
+        @WithDefault("30")
+        double maxRate();
+
+        /**
+         * Requests per second added to the rate for every successful request.
+         */
+        @WithDefault("0.05")
+        double increaseStep();
+
+        /**
+         * Factor the rate is multiplied with when Spotify responds with 429.
+         */
+        @WithDefault("0.5")
+        double decreaseFactor();
+
+        /**
+         * Number of unused permits that can be saved up for bursts.
+         */
+        @WithDefault("10")
+        int burst();
+    }
+
+    interface IdentityCache {
+        /**
+         * How long a validated bearer token is trusted without asking Spotify
+         * again. A token revoked at Spotify is still accepted for up to this time.
+         */
+        @WithDefault("5m")
+        Duration ttl();
+
+        /**
+         * How long a bearer token rejected by Spotify is remembered as invalid.
+         */
+        @WithDefault("30s")
+        Duration negativeTtl();
+
+        /**
+         * Maximum number of cached tokens. The least recently used tokens are
+         * evicted first.
+         */
+        @WithDefault("10000")
+        int maxSize();
+    }
+
+    interface ETagCache {
+        /**
+         * How long a stored page is used for conditional requests. Pages are
+         * stored again whenever Spotify sends them with a new ETag.
+         */
+        @WithDefault("30d")
+        Duration maxAge();
+
+        /**
+         * How often pages older than the maximum age are deleted.
+         */
+        @WithDefault("1h")
+        Duration purgeInterval();
+    }
 }
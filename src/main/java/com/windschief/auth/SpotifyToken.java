@@ -15,6 +15,9 @@ public class SpotifyToken {
     @Column(length = 2048)
     private String refreshToken;
     private Instant expiresAt;
+    private Instant refreshFailedAt;
+    @Column(length = 1024)
+    private String refreshError;
 
     protected SpotifyToken() {
     }
@@ -62,4 +65,20 @@ public class SpotifyToken {
         this.expiresAt = expiresAt;
     }
 
-}
\ No newline at end of file
+    public Instant getRefreshFailedAt() {
+        return refreshFailedAt;
+    }
+
+    public String getRefreshError() {
+        return refreshError;
+    }
+
+    public boolean isRefreshFailed() {
+        return refreshFailedAt != null;
+    }
+
+    public void setRefreshFailed(Instant refreshFailedAt, String refreshError) {
+        this.refreshFailedAt = refreshFailedAt;
+        this.refreshError = refreshError;
+    }
+}
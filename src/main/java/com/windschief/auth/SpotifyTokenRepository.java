@@ -1,6 +1,11 @@
 package com.windschief.auth;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -11,7 +16,44 @@ public class SpotifyTokenRepository implements PanacheRepository<SpotifyToken> {
         return find("userId", userId).firstResultOptional();
     }
 
+    /**
+     * Returns the ids of users whose access token expires before
+     * {@code expiresBefore} and who have an active task due before
+     * {@code dueBefore}, ordered by user id. Tokens that could not be refreshed
+     * are left out. Pass the last user id of the previous page to get the
+     * following page, or {@code null} for the first one.
+     */
+    public List<String> findUserIdsToRefresh(Instant expiresBefore, Instant dueBefore, String afterUserId,
+            int limit) {
+        return getEntityManager()
+                .createQuery("select t.userId from SpotifyToken t "
+                        + "where t.refreshToken is not null and t.refreshFailedAt is null and t.expiresAt < ?1 "
+                        + "and t.userId > ?2 and exists (select 1 from Task task "
+                        + "where task.userId = t.userId and task.active = true and task.nextRunAt < ?3) "
+                        + "order by t.userId", String.class)
+                .setParameter(1, expiresBefore)
+                .setParameter(2, afterUserId != null ? afterUserId : "")
+                .setParameter(3, dueBefore)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Returns those of the given users whose refresh token has been rejected
+     * by Spotify.
+     */
+    public Set<String> findUserIdsWithFailedRefresh(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(getEntityManager()
+                .createQuery("select t.userId from SpotifyToken t "
+                        + "where t.userId in ?1 and t.refreshFailedAt is not null", String.class)
+                .setParameter(1, userIds)
+                .getResultList());
+    }
+
     public long deleteByUserId(String userId) {
         return delete("userId", userId);
     }
-}
\ No newline at end of file
+}
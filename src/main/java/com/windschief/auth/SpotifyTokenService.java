@@ -2,7 +2,13 @@ package com.windschief.auth;
 
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
@@ -21,12 +27,20 @@ import jakarta.ws.rs.core.Response;
 
 @ApplicationScoped
 public class SpotifyTokenService implements SpotifyTokenApi {
+    private static final int MAX_REFRESH_ERROR_LENGTH = 1024;
+    private static final String INVALID_GRANT = "invalid_grant";
+
     private final SpotifyTokenRepository tokenRepository;
     private final SpotifyConfig spotifyConfig;
     private final SpotifyAccountsApi spotifyAccountsApi;
     private final SecurityIdentity securityIdentity;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // valid access tokens by user id, so that the database is only read when a token expires
+    private final ConcurrentMap<String, AccessToken> accessTokens = new ConcurrentHashMap<>();
+    // loads in progress by user id, concurrent callers for the same user wait for the same load
+    private final ConcurrentMap<String, CompletableFuture<AccessToken>> pendingLoads = new ConcurrentHashMap<>();
+
     @Inject
     public SpotifyTokenService(SpotifyTokenRepository tokenRepository, SpotifyConfig spotifyConfig,
             @RestClient SpotifyAccountsApi spotifyAccountsApi, SecurityIdentity securityIdentity) {
@@ -49,25 +63,100 @@ public class SpotifyTokenService implements SpotifyTokenApi {
         }
 
         storedToken.get().setRefreshToken(refreshToken);
+        storedToken.get().setRefreshFailed(null, null);
+        invalidateAccessToken(userId);
         return Response.ok().build();
     }
 
-    @Transactional
+    /**
+     * Returns a valid access token of the user, refreshing it if it has
+     * expired. Tokens are cached until they expire, and concurrent calls for
+     * the same user share a single refresh.
+     */
     public String getValidBearerAccessToken(String userId) throws WebApplicationException, SpotifyTokenException {
+        return getAccessToken(userId, Instant.now()).bearerToken();
+    }
+
+    /**
+     * Refreshes the access token of the user ahead of time if it expires
+     * before the given instant.
+     */
+    public void refreshAccessTokenIfExpiring(String userId, Instant validUntil)
+            throws WebApplicationException, SpotifyTokenException {
+        getAccessToken(userId, validUntil);
+    }
+
+    /**
+     * Returns those of the given users whose refresh token has been rejected
+     * by Spotify. Their tasks cannot be executed until a new refresh token is
+     * stored.
+     */
+    @Transactional
+    public Set<String> findUsersWithFailedRefresh(Collection<String> userIds) {
+        return tokenRepository.findUserIdsWithFailedRefresh(userIds);
+    }
+
+    private AccessToken getAccessToken(String userId, Instant validUntil)
+            throws WebApplicationException, SpotifyTokenException {
+        final AccessToken cachedToken = accessTokens.get(userId);
+        if (cachedToken != null && cachedToken.isValidAt(validUntil)) {
+            return cachedToken;
+        }
+
+        final CompletableFuture<AccessToken> load = new CompletableFuture<>();
+        final CompletableFuture<AccessToken> pendingLoad = pendingLoads.putIfAbsent(userId, load);
+        if (pendingLoad != null) {
+            return awaitLoad(pendingLoad);
+        }
+
+        try {
+            final AccessToken accessToken = loadAccessToken(userId, validUntil);
+            accessTokens.put(userId, accessToken);
+            load.complete(accessToken);
+            return accessToken;
+        } catch (SpotifyTokenException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingLoads.remove(userId, load);
+        }
+    }
+
+    /**
+     * Drops the cached access token of the user, e.g. after the refresh token
+     * has been replaced or the user has been deleted.
+     */
+    public void invalidateAccessToken(String userId) {
+        accessTokens.remove(userId);
+    }
+
+    /**
+     * Reads the token of the user and refreshes it if it expires before the
+     * given instant. The database is only written when the token has actually
+     * been refreshed, or when Spotify rejects the refresh token. A rejected
+     * refresh token is not sent to Spotify again.
+     */
+    @Transactional
+    protected AccessToken loadAccessToken(String userId, Instant validUntil)
+            throws WebApplicationException, SpotifyTokenException {
         Optional<SpotifyToken> token = tokenRepository.findByUserId(userId);
         if (token.isEmpty() || token.get().getRefreshToken() == null) {
             throw new SpotifyTokenException("No refresh token found for user " + userId);
         }
+        if (token.get().isRefreshFailed()) {
+            throw new SpotifyTokenException(String.format("Refresh token of user %s has been rejected: %s",
+                    userId, token.get().getRefreshError()));
+        }
 
-        if (token.get().getExpiresAt().isBefore(Instant.now())) {
-            final TokenResponse tokenResponse = refreshToken(token.get());
+        if (token.get().getExpiresAt().isBefore(validUntil)) {
+            final TokenResponse tokenResponse = refreshTokenOrRecordFailure(token.get());
             final Instant expiresAt = Instant.now().plusSeconds(tokenResponse.expires_in() - 60);
 
             token.get().setAccessToken(tokenResponse.access_token());
             token.get().setExpiresAt(expiresAt);
         }
 
-        return "Bearer " + token.get().getAccessToken();
+        return new AccessToken("Bearer " + token.get().getAccessToken(), token.get().getExpiresAt());
     }
 
     public boolean hasRefreshToken(String userId) {
@@ -75,7 +164,17 @@ public class SpotifyTokenService implements SpotifyTokenApi {
         return token.isPresent() && token.get().getRefreshToken() != null;
     }
 
-    private TokenResponse refreshToken(SpotifyToken token) throws WebApplicationException {
+    /**
+     * Refreshes the token. If Spotify rejects the refresh token with
+     * {@code invalid_grant}, e.g. because the user revoked the access, the
+     * failure is stored with the token. Other errors, such as
+     * {@code invalid_client} after a misconfigured deployment, say nothing
+     * about the refresh token and are rethrown, so that the next run tries
+     * again. The checked exception keeps the surrounding transaction from
+     * rolling back.
+     */
+    private TokenResponse refreshTokenOrRecordFailure(SpotifyToken token)
+            throws WebApplicationException, SpotifyTokenException {
         final String basicAuth = "Basic " + Base64.getEncoder()
                 .encodeToString((spotifyConfig.clientId() + ":" + spotifyConfig.clientSecret()).getBytes());
 
@@ -86,18 +185,50 @@ public class SpotifyTokenService implements SpotifyTokenApi {
                 token.getRefreshToken(),
                 spotifyConfig.clientId());
         } catch (WebApplicationException e) {
-            String errorBody = e.getResponse().readEntity(String.class);
-            try {
-                SpotifyAuthError authError = objectMapper.readValue(errorBody, SpotifyAuthError.class);
-                throw new WebApplicationException(
-                        String.format("Spotify refresh token error: %s - %s",
-                                authError.error(),
-                                authError.error_description()),
-                        e.getResponse().getStatus());
-            } catch (JsonProcessingException parseException) {
-                throw new WebApplicationException("Spotify refresh token error: " + errorBody,
-                        e.getResponse().getStatus());
+            final String errorBody = e.getResponse().readEntity(String.class);
+            final SpotifyAuthError authError = parseAuthError(errorBody);
+            final String error = authError != null
+                    ? String.format("Spotify refresh token error: %s - %s", authError.error(),
+                            authError.error_description())
+                    : "Spotify refresh token error: " + errorBody;
+            if (authError == null || !INVALID_GRANT.equals(authError.error())) {
+                throw new WebApplicationException(error, e.getResponse().getStatus());
+            }
+            token.setRefreshFailed(Instant.now(),
+                    error.length() > MAX_REFRESH_ERROR_LENGTH ? error.substring(0, MAX_REFRESH_ERROR_LENGTH) : error);
+            throw new SpotifyTokenException(String.format("Refresh token of user %s has been rejected: %s",
+                    token.getUserId(), error));
+        }
+    }
+
+    private SpotifyAuthError parseAuthError(String errorBody) {
+        if (errorBody == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(errorBody, SpotifyAuthError.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static AccessToken awaitLoad(CompletableFuture<AccessToken> load) throws SpotifyTokenException {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SpotifyTokenException tokenException) {
+                throw tokenException;
             }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    protected record AccessToken(String bearerToken, Instant expiresAt) {
+        boolean isValidAt(Instant instant) {
+            return expiresAt.isAfter(instant);
         }
     }
 }
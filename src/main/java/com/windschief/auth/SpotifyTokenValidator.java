@@ -1,33 +1,139 @@
 package com.windschief.auth;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import io.smallrye.mutiny.Uni;
 import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 import com.windschief.spotify.SpotifyApi;
 import com.windschief.spotify.model.SpotifyUser;
 
+/**
+ * Validates bearer tokens against Spotify. Results are cached by the SHA-256
+ * hash of the token, so that repeated requests with the same token do not call
+ * Spotify again. Tokens rejected by Spotify are cached for a shorter time.
+ */
 @ApplicationScoped
 public class SpotifyTokenValidator {
 
     private final SpotifyApi spotifyApi;
+    private final LongSupplier nanoClock;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    // guarded by itself, in access order so that the least recently used entry is evicted first
+    private final Map<String, Validation> validations;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer validationTimer;
 
     @Inject
-    public SpotifyTokenValidator(@RestClient SpotifyApi spotifyApi) {
+    public SpotifyTokenValidator(@RestClient SpotifyApi spotifyApi, SpotifyConfig spotifyConfig,
+            MeterRegistry meterRegistry) {
+        this(spotifyApi, spotifyConfig, meterRegistry, System::nanoTime);
+    }
+
+    SpotifyTokenValidator(SpotifyApi spotifyApi, SpotifyConfig spotifyConfig, MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        final SpotifyConfig.IdentityCache identityCache = spotifyConfig.identityCache();
         this.spotifyApi = spotifyApi;
+        this.nanoClock = nanoClock;
+        this.ttlNanos = identityCache.ttl().toNanos();
+        this.negativeTtlNanos = identityCache.negativeTtl().toNanos();
+
+        final int maxSize = identityCache.maxSize();
+        this.validations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Validation> eldest) {
+                return size() > maxSize;
+            }
+        };
+
+        this.hits = meterRegistry.counter("spotify.identity.cache.hits");
+        this.misses = meterRegistry.counter("spotify.identity.cache.misses");
+        this.validationTimer = Timer.builder("spotify.token.validation.duration")
+                .description("Time taken to validate bearer tokens against Spotify")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("spotify.identity.cache.size", Tags.empty(), validations);
     }
 
+    /**
+     * Returns the Spotify user the token belongs to, or {@code null} if the
+     * token is invalid.
+     */
     public Uni<SpotifyUser> validateToken(String token) {
+        final String key = hash(token);
+        final Validation cachedValidation = getCached(key);
+        if (cachedValidation != null) {
+            hits.increment();
+            return Uni.createFrom().item(cachedValidation.user());
+        }
+
+        misses.increment();
         return Uni.createFrom().item(() -> {
+            final Timer.Sample sample = Timer.start();
             try {
-                return spotifyApi.getCurrentUser("Bearer " + token);
+                final SpotifyUser user = spotifyApi.getCurrentUser("Bearer " + token);
+                cache(key, user, ttlNanos);
+                return user;
             } catch (WebApplicationException e) {
+                // only cache definite rejections, not throttling or outages
+                if (e.getResponse().getStatus() == Response.Status.UNAUTHORIZED.getStatusCode()) {
+                    cache(key, null, negativeTtlNanos);
+                }
                 return null;
+            } finally {
+                sample.stop(validationTimer);
             }
         }).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
     }
-}
\ No newline at end of file
+
+    private Validation getCached(String key) {
+        synchronized (validations) {
+            final Validation validation = validations.get(key);
+            if (validation == null) {
+                return null;
+            }
+            if (validation.expiresAtNanos() - nanoClock.getAsLong() <= 0) {
+                validations.remove(key);
+                return null;
+            }
+            return validation;
+        }
+    }
+
+    private void cache(String key, SpotifyUser user, long ttl) {
+        synchronized (validations) {
+            validations.put(key, new Validation(user, nanoClock.getAsLong() + ttl));
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Validation(SpotifyUser user, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.windschief.client;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+
+/**
+ * A decoded catalog page as JSON, together with the ETag Spotify sent it
+ * with. Only the fields of the page type are stored, not the raw response.
+ */
+@Entity
+@IdClass(ETagPage.Key.class)
+public class ETagPage {
+    @Id
+    private String url;
+    @Id
+    private String etag;
+    private String pageType;
+    @Column(columnDefinition = "text")
+    private String page;
+    private Instant storedAt;
+
+    protected ETagPage() {
+    }
+
+    public ETagPage(String url, String etag, String pageType, String page, Instant storedAt) {
+        this.url = url;
+        this.etag = etag;
+        this.pageType = pageType;
+        this.page = page;
+        this.storedAt = storedAt;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getPageType() {
+        return pageType;
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public Instant getStoredAt() {
+        return storedAt;
+    }
+
+    public static class Key implements Serializable {
+        private String url;
+        private String etag;
+
+        public Key() {
+        }
+
+        public Key(String url, String etag) {
+            this.url = url;
+            this.etag = etag;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && Objects.equals(url, key.url) && Objects.equals(etag, key.etag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, etag);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.windschief.client;
+
+import java.time.Instant;
+import java.util.List;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class ETagPageRepository implements PanacheRepositoryBase<ETagPage, ETagPage.Key> {
+    /**
+     * Returns the most recently stored variants of the page.
+     */
+    public List<ETagPage> findByUrl(String url, String pageType, Instant storedAfter, int limit) {
+        return find("url = ?1 and pageType = ?2 and storedAt > ?3 order by storedAt desc", url, pageType,
+                storedAfter)
+                .page(0, limit)
+                .list();
+    }
+
+    /**
+     * Inserts or replaces the variant of the page.
+     */
+    public void save(ETagPage page) {
+        getEntityManager().merge(page);
+    }
+
+    public long deleteStoredBefore(Instant storedBefore) {
+        return delete("storedAt < ?1", storedBefore);
+    }
+}
@@ -0,0 +1,185 @@
+package com.windschief.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windschief.auth.SpotifyConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Remembers the ETag and decoded page of responses by request URL in the
+ * database, so that a page can be requested with If-None-Match and served
+ * locally when Spotify responds with 304 Not Modified, also in the next run.
+ * Only responses that do not depend on the requesting user may be stored.
+ * Catalog pages may still differ by market, so a URL keeps a variant per
+ * ETag, and all of them are sent with the request. Pages are read and written
+ * on virtual threads, so that callers on I/O threads are not blocked.
+ */
+@ApplicationScoped
+public class ETagStore {
+    private static final int MAX_VARIANTS = 4;
+
+    private final ETagPageRepository etagPageRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration maxAge;
+    private final Executor executor;
+    private final Counter notModified;
+
+    @Inject
+    public ETagStore(ETagPageRepository etagPageRepository, SpotifyConfig spotifyConfig,
+            MeterRegistry meterRegistry) {
+        this(etagPageRepository, spotifyConfig, meterRegistry, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ETagStore(ETagPageRepository etagPageRepository, SpotifyConfig spotifyConfig, MeterRegistry meterRegistry,
+            Executor executor) {
+        this.etagPageRepository = etagPageRepository;
+        this.maxAge = spotifyConfig.etagCache().maxAge();
+        this.executor = executor;
+        this.notModified = Counter.builder("spotify.http.not.modified")
+                .description("Number of Spotify requests served from the ETag store after a 304 response")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells whether responses for the URI are the same for all users. Only
+     * artist and album catalog pages are stored.
+     */
+    public static boolean isStorable(URI uri) {
+        final String path = uri.getPath();
+        return path.startsWith("/v1/artists/") || path.startsWith("/v1/albums/");
+    }
+
+    /**
+     * Returns the stored variants of the page, most recent first. Pages that
+     * cannot be read are requested from Spotify as usual.
+     */
+    public CompletableFuture<List<Entry>> findAsync(String url, Class<?> pageType) {
+        return CompletableFuture.supplyAsync(() -> find(url, pageType), executor);
+    }
+
+    /**
+     * Blocking variant of {@link #findAsync(String, Class)}.
+     */
+    public List<Entry> find(String url, Class<?> pageType) {
+        try {
+            return findStored(url, pageType.getName()).stream()
+                    .map(page -> new Entry(page.getEtag(), page.getPage()))
+                    .toList();
+        } catch (RuntimeException e) {
+            Log.warn(String.format("Failed to load stored page [url=%s]: %s", url, e.getMessage()));
+            return List.of();
+        }
+    }
+
+    /**
+     * Stores the decoded page in the background.
+     */
+    public void put(String url, String etag, Object page) {
+        final String json;
+        try {
+            json = objectMapper.writeValueAsString(page);
+        } catch (JsonProcessingException e) {
+            Log.warn(String.format("Failed to encode page [url=%s]: %s", url, e.getMessage()));
+            return;
+        }
+        final ETagPage etagPage = new ETagPage(url, etag, page.getClass().getName(), json, Instant.now());
+        CompletableFuture.runAsync(() -> savePage(etagPage), executor)
+                .exceptionally(e -> {
+                    // another node may have stored the page concurrently
+                    Log.warn(String.format("Failed to store page [url=%s]: %s", url, e.getMessage()));
+                    return null;
+                });
+    }
+
+    public <T> T read(Entry entry, Class<T> pageType) {
+        try {
+            return objectMapper.readValue(entry.page(), pageType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void recordNotModified() {
+        notModified.increment();
+    }
+
+    /**
+     * Removes pages that have not been stored again within the maximum age,
+     * e.g. of artists no task follows anymore.
+     */
+    @Scheduled(every = "${spotify.etag-cache.purge-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    public void purgeExpiredPages() {
+        final long deleted = deleteStoredBefore(Instant.now().minus(maxAge));
+        if (deleted > 0) {
+            Log.info(String.format("Purged %d expired pages from the ETag store", deleted));
+        }
+    }
+
+    @Transactional
+    protected List<ETagPage> findStored(String url, String pageType) {
+        return etagPageRepository.findByUrl(url, pageType, Instant.now().minus(maxAge), MAX_VARIANTS);
+    }
+
+    @Transactional
+    protected void savePage(ETagPage page) {
+        etagPageRepository.save(page);
+    }
+
+    @Transactional
+    protected long deleteStoredBefore(Instant storedBefore) {
+        return etagPageRepository.deleteStoredBefore(storedBefore);
+    }
+
+    /**
+     * Returns the If-None-Match header value for the variants.
+     */
+    public static String ifNoneMatch(List<Entry> entries) {
+        return entries.stream().map(Entry::etag).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Returns the variant a 304 response refers to: the only variant sent, or
+     * the one with the ETag of the response.
+     */
+    public static Entry select(List<Entry> entries, String etag) {
+        if (entries.size() == 1) {
+            return entries.getFirst();
+        }
+        if (etag == null) {
+            return null;
+        }
+        return entries.stream()
+                .filter(entry -> opaqueTag(entry.etag()).equals(opaqueTag(etag)))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * @param page the decoded page as JSON
+     */
+    public record Entry(String etag, String page) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.windschief.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+public final class Futures {
+    private Futures() {
+    }
+
+    /**
+     * Waits for the future and rethrows its failure the way the equivalent
+     * blocking call would have thrown it.
+     */
+    public static <T> T await(Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Unwraps the {@link CompletionException}s added by completion stage
+     * chains.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static IOException rethrow(Throwable throwable) throws IOException, InterruptedException {
+        final Throwable cause = unwrap(throwable);
+        if (cause instanceof UncheckedIOException uncheckedIOException) {
+            throw uncheckedIOException.getCause();
+        }
+        if (cause instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (cause instanceof InterruptedException interruptedException) {
+            throw interruptedException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException(cause);
+    }
+}
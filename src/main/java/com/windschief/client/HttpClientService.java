@@ -1,7 +1,27 @@
 package com.windschief.client;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
 
 public interface HttpClientService {
     <T> T get(String url, String bearerToken, Class<T> responseType) throws IOException, InterruptedException;
+
+    /**
+     * Non-blocking variant of {@link #get(String, String, Class)}. Failures
+     * complete the future exceptionally with the exception {@code get} would
+     * have thrown.
+     */
+    <T> CompletableFuture<T> getAsync(String url, String bearerToken, Class<T> responseType);
+
+    /**
+     * Sends a non-blocking request of the Spotify REST client with the rate
+     * limiting and retry policy of {@link #getAsync(String, String, Class)}.
+     * The supplier is called for every attempt, so that each retry sends a
+     * new request. Non-blocking Spotify requests should always be sent through
+     * this method: called directly, they block the caller for a permit and are
+     * not retried.
+     */
+    <T> CompletableFuture<T> sendAsync(Supplier<? extends CompletionStage<T>> request);
 }
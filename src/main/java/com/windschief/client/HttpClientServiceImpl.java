@@ -1,28 +1,175 @@
 package com.windschief.client;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windschief.spotify.SpotifyRateLimiter;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 
 @ApplicationScoped
 public class HttpClientServiceImpl implements HttpClientService {
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    // responses are decoded while their body streams in, which blocks the completing thread
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SpotifyRateLimiter rateLimiter;
+    private final ETagStore etagStore;
+
+    @Inject
+    public HttpClientServiceImpl(SpotifyRateLimiter rateLimiter, ETagStore etagStore) {
+        this.rateLimiter = rateLimiter;
+        this.etagStore = etagStore;
+    }
 
     @Override
     public <T> T get(String url, String bearerToken, Class<T> responseType) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
+        final List<ETagStore.Entry> storedPages = findStoredPages(url, responseType);
+        final HttpRequest request = createRequest(url, bearerToken, storedPages);
+
+        for (int attempt = 1;; attempt++) {
+            rateLimiter.acquire();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+            if (isRetryable(response, attempt)) {
+                continue;
+            }
+            return readResponse(request, response, responseType, storedPages);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, String bearerToken, Class<T> responseType) {
+        final CompletableFuture<List<ETagStore.Entry>> storedPages = isStorable(url)
+                ? etagStore.findAsync(url, responseType)
+                : CompletableFuture.completedFuture(List.of());
+        return storedPages.thenCompose(pages -> getAsync(createRequest(url, bearerToken, pages), responseType,
+                pages, 1));
+    }
+
+    private <T> CompletableFuture<T> getAsync(HttpRequest request, Class<T> responseType,
+            List<ETagStore.Entry> storedPages, int attempt) {
+        return rateLimiter.acquireAsync()
+                .thenCompose(ignored -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()))
+                .thenCompose(response -> {
+                    try {
+                        if (isRetryable(response, attempt)) {
+                            return getAsync(request, responseType, storedPages, attempt + 1);
+                        }
+                        return CompletableFuture.completedFuture(
+                                readResponse(request, response, responseType, storedPages));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> sendAsync(Supplier<? extends CompletionStage<T>> request) {
+        return sendAsync(request, 1);
+    }
+
+    private <T> CompletableFuture<T> sendAsync(Supplier<? extends CompletionStage<T>> request, int attempt) {
+        return rateLimiter.acquireAsync()
+                .thenCompose(ignored -> rateLimiter.sendWithPermit(request))
+                .handle((result, failure) -> {
+                    if (failure == null) {
+                        rateLimiter.onSuccess();
+                        return CompletableFuture.completedFuture(result);
+                    }
+
+                    final Throwable cause = Futures.unwrap(failure);
+                    if (cause instanceof WebApplicationException e && e.getResponse().getStatus() == 429
+                            && rateLimiter.onThrottled(e.getResponse().getHeaderString("Retry-After"), attempt)) {
+                        return sendAsync(request, attempt + 1);
+                    }
+                    return CompletableFuture.<T>failedFuture(cause);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Returns the variants of the page stored for the URL with the requested
+     * type.
+     */
+    private List<ETagStore.Entry> findStoredPages(String url, Class<?> responseType) {
+        return isStorable(url) ? etagStore.find(url, responseType) : List.of();
+    }
+
+    private static boolean isStorable(String url) {
+        return ETagStore.isStorable(URI.create(url));
+    }
+
+    private static HttpRequest createRequest(String url, String bearerToken, List<ETagStore.Entry> storedPages) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .header("Authorization", bearerToken)
-                .build();
+                .header("Authorization", bearerToken);
+        if (!storedPages.isEmpty()) {
+            builder.header("If-None-Match", ETagStore.ifNoneMatch(storedPages));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reports a 429 to the rate limiter and tells whether the request should
+     * be sent again. The body of the last 429 is left open, so that it can be
+     * read into the error.
+     */
+    private boolean isRetryable(HttpResponse<InputStream> response, int attempt) throws IOException {
+        if (response.statusCode() != 429
+                || !rateLimiter.onThrottled(response.headers().firstValue("Retry-After").orElse(null), attempt)) {
+            return false;
+        }
+        response.body().close();
+        return true;
+    }
+
+    /**
+     * Decodes the body straight from the byte stream, without buffering it as a
+     * string first. A 304 response is served from the stored page.
+     */
+    private <T> T readResponse(HttpRequest request, HttpResponse<InputStream> response, Class<T> responseType,
+            List<ETagStore.Entry> storedPages) throws IOException {
+        final String url = request.uri().toString();
+        try (InputStream body = response.body()) {
+            final ETagStore.Entry storedPage = response.statusCode() == 304
+                    ? ETagStore.select(storedPages, response.headers().firstValue("ETag").orElse(null))
+                    : null;
+            if (storedPage != null) {
+                rateLimiter.onSuccess();
+                etagStore.recordNotModified();
+                return etagStore.read(storedPage, responseType);
+            }
+            // a 304 for a page that is not stored anymore cannot be served either
+            if (response.statusCode() >= 300) {
+                throw new WebApplicationException("Request to " + url + " failed: "
+                        + new String(body.readAllBytes(), StandardCharsets.UTF_8), response.statusCode());
+            }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        return objectMapper.readValue(response.body(), responseType);
+            rateLimiter.onSuccess();
+            final T page = objectMapper.readValue(body, responseType);
+            final Optional<String> etag = response.headers().firstValue("ETag");
+            if (etag.isPresent() && ETagStore.isStorable(request.uri())) {
+                etagStore.put(url, etag.get(), page);
+            }
+            return page;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package com.windschief.releasedetection;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.windschief.spotify.model.AlbumSummary;
+
+import jakarta.persistence.Converter;
+
+@Converter
+public class AlbumSummaryListConverter extends JsonListConverter<AlbumSummary> {
+    public AlbumSummaryListConverter() {
+        super(new TypeReference<List<AlbumSummary>>() {
+        }, "albums");
+    }
+}
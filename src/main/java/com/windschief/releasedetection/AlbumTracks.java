@@ -0,0 +1,79 @@
+package com.windschief.releasedetection;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.windschief.spotify.model.TrackSummary;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * The tracks of an album as fetched at {@code fetchedAt}. Only the comma
+ * separated track ids are stored, the URIs follow from them.
+ */
+@Entity
+public class AlbumTracks {
+    private static final String TRACK_URI_PREFIX = "spotify:track:";
+    private static final char SEPARATOR = ',';
+
+    @Id
+    private String albumId;
+    @Column(columnDefinition = "text")
+    private String trackIds;
+    private Instant fetchedAt;
+
+    protected AlbumTracks() {
+    }
+
+    private AlbumTracks(String albumId, String trackIds, Instant fetchedAt) {
+        this.albumId = albumId;
+        this.trackIds = trackIds;
+        this.fetchedAt = fetchedAt;
+    }
+
+    /**
+     * Returns the tracks in their stored form, or an empty optional if a track
+     * cannot be restored from its id alone.
+     */
+    public static Optional<AlbumTracks> of(String albumId, List<TrackSummary> tracks, Instant fetchedAt) {
+        final StringBuilder trackIds = new StringBuilder(tracks.size() * 23);
+        for (TrackSummary track : tracks) {
+            if (track.id() == null || track.id().indexOf(SEPARATOR) >= 0
+                    || !(TRACK_URI_PREFIX + track.id()).equals(track.uri())) {
+                return Optional.empty();
+            }
+            if (!trackIds.isEmpty()) {
+                trackIds.append(SEPARATOR);
+            }
+            trackIds.append(track.id());
+        }
+        return Optional.of(new AlbumTracks(albumId, trackIds.toString(), fetchedAt));
+    }
+
+    public String getAlbumId() {
+        return albumId;
+    }
+
+    public List<TrackSummary> getTracks() {
+        final List<TrackSummary> tracks = new ArrayList<>();
+        int from = 0;
+        while (from < trackIds.length()) {
+            int to = trackIds.indexOf(SEPARATOR, from);
+            if (to < 0) {
+                to = trackIds.length();
+            }
+            final String trackId = trackIds.substring(from, to);
+            tracks.add(new TrackSummary(trackId, TRACK_URI_PREFIX + trackId));
+            from = to + 1;
+        }
+        return tracks;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,194 @@
+package com.windschief.releasedetection;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import com.windschief.client.Futures;
+import com.windschief.spotify.model.TrackSummary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Stores the tracks of fetched albums in the database, so that a release
+ * detected by many tasks is only paged through by the first of them. Track
+ * lists hardly change once an album is released, so entries live long.
+ * Albums being fetched are shared with concurrent callers as well.
+ */
+@ApplicationScoped
+public class AlbumTracksCache {
+    private final AlbumTracksRepository albumTracksRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final ConcurrentMap<String, CompletableFuture<List<TrackSummary>>> inFlight = new ConcurrentHashMap<>();
+    private final Executor tracksWriter = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter hits;
+    private final Counter misses;
+
+    @Inject
+    public AlbumTracksCache(AlbumTracksRepository albumTracksRepository, ReleaseRadarConfig releaseRadarConfig,
+            MeterRegistry meterRegistry) {
+        this.albumTracksRepository = albumTracksRepository;
+        this.enabled = releaseRadarConfig.albumTracksCache().enabled();
+        this.ttl = releaseRadarConfig.albumTracksCache().ttl();
+        this.hits = meterRegistry.counter("spotify.tracks.cache.hits");
+        this.misses = meterRegistry.counter("spotify.tracks.cache.misses");
+    }
+
+    /**
+     * Returns the tracks of each album. The loader is invoked once, with the
+     * albums that are neither stored nor being fetched by another caller, and
+     * returns the tracks of each of them.
+     */
+    public Map<String, CompletableFuture<List<TrackSummary>>> getAllAsync(Collection<String> albumIds,
+            Function<List<String>, Map<String, CompletableFuture<List<TrackSummary>>>> loader) {
+        if (!enabled) {
+            return load(List.copyOf(new LinkedHashSet<>(albumIds)), loader);
+        }
+
+        final Map<String, CompletableFuture<List<TrackSummary>>> tracks = new HashMap<>();
+        final List<String> unknownAlbumIds = new ArrayList<>();
+        for (String albumId : new LinkedHashSet<>(albumIds)) {
+            final CompletableFuture<List<TrackSummary>> fetching = inFlight.get(albumId);
+            if (fetching != null) {
+                hits.increment();
+                tracks.put(albumId, fetching);
+            } else {
+                unknownAlbumIds.add(albumId);
+            }
+        }
+        if (unknownAlbumIds.isEmpty()) {
+            return tracks;
+        }
+
+        for (AlbumTracks stored : readTracks(unknownAlbumIds)) {
+            hits.increment();
+            tracks.put(stored.getAlbumId(), CompletableFuture.completedFuture(stored.getTracks()));
+        }
+
+        final Map<String, CompletableFuture<List<TrackSummary>>> fetches = new HashMap<>();
+        for (String albumId : unknownAlbumIds) {
+            if (tracks.containsKey(albumId)) {
+                continue;
+            }
+            final CompletableFuture<List<TrackSummary>> fetch = new CompletableFuture<>();
+            final CompletableFuture<List<TrackSummary>> fetching = inFlight.putIfAbsent(albumId, fetch);
+            if (fetching != null) {
+                hits.increment();
+                tracks.put(albumId, fetching);
+            } else {
+                misses.increment();
+                fetches.put(albumId, fetch);
+                tracks.put(albumId, fetch);
+            }
+        }
+        if (!fetches.isEmpty()) {
+            final Map<String, CompletableFuture<List<TrackSummary>>> loaded = load(List.copyOf(fetches.keySet()),
+                    loader);
+            fetches.forEach((albumId, fetch) -> complete(albumId, fetch, loaded.get(albumId)));
+        }
+        return tracks;
+    }
+
+    /**
+     * Removes album tracks that are older than the TTL. They would be fetched
+     * again anyway, e.g. for albums no task detects anymore.
+     */
+    @Scheduled(every = "${release-radar.album-tracks-cache.purge-interval}",
+            concurrentExecution = ConcurrentExecution.SKIP)
+    public void purgeExpiredTracks() {
+        final long deleted = deleteFetchedBefore(Instant.now().minus(ttl));
+        if (deleted > 0) {
+            Log.info(String.format("Purged %d expired album tracks", deleted));
+        }
+    }
+
+    @Transactional
+    protected List<AlbumTracks> findStored(Collection<String> albumIds) {
+        return albumTracksRepository.findFetchedAfter(albumIds, Instant.now().minus(ttl));
+    }
+
+    @Transactional
+    protected void saveTracks(AlbumTracks albumTracks) {
+        albumTracksRepository.save(albumTracks);
+    }
+
+    @Transactional
+    protected long deleteFetchedBefore(Instant fetchedBefore) {
+        return albumTracksRepository.deleteFetchedBefore(fetchedBefore);
+    }
+
+    private void complete(String albumId, CompletableFuture<List<TrackSummary>> fetch,
+            CompletableFuture<List<TrackSummary>> loaded) {
+        if (loaded == null) {
+            loaded = CompletableFuture.failedFuture(
+                    new IllegalStateException("No tracks loaded for album " + albumId));
+        }
+        loaded.whenComplete((result, failure) -> {
+            if (failure != null) {
+                inFlight.remove(albumId, fetch);
+                fetch.completeExceptionally(Futures.unwrap(failure));
+                return;
+            }
+            final List<TrackSummary> albumTracks = List.copyOf(result);
+            fetch.complete(albumTracks);
+            // the album stays in flight until it is stored, so that it is not fetched again meanwhile
+            CompletableFuture.runAsync(() -> writeTracks(albumId, albumTracks), tracksWriter)
+                    .whenComplete((ignored, writeFailure) -> inFlight.remove(albumId, fetch));
+        });
+    }
+
+    private List<AlbumTracks> readTracks(Collection<String> albumIds) {
+        try {
+            return findStored(albumIds);
+        } catch (RuntimeException e) {
+            // the albums are fetched from Spotify instead
+            Log.warn(String.format("Failed to load stored album tracks [albums=%d]: %s", albumIds.size(),
+                    e.getMessage()));
+            return List.of();
+        }
+    }
+
+    private void writeTracks(String albumId, List<TrackSummary> tracks) {
+        final AlbumTracks albumTracks = AlbumTracks.of(albumId, tracks, Instant.now()).orElse(null);
+        if (albumTracks == null) {
+            Log.debug(String.format("Album tracks cannot be stored by id [albumId=%s]", albumId));
+            return;
+        }
+        try {
+            saveTracks(albumTracks);
+        } catch (RuntimeException e) {
+            // another node may have stored the album concurrently
+            Log.warn(String.format("Failed to store album tracks [albumId=%s]: %s", albumId, e.getMessage()));
+        }
+    }
+
+    private static Map<String, CompletableFuture<List<TrackSummary>>> load(List<String> albumIds,
+            Function<List<String>, Map<String, CompletableFuture<List<TrackSummary>>>> loader) {
+        try {
+            return loader.apply(albumIds);
+        } catch (RuntimeException e) {
+            final Map<String, CompletableFuture<List<TrackSummary>>> failed = new HashMap<>();
+            albumIds.forEach(albumId -> failed.put(albumId, CompletableFuture.failedFuture(e)));
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.windschief.releasedetection;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class AlbumTracksRepository implements PanacheRepositoryBase<AlbumTracks, String> {
+    public List<AlbumTracks> findFetchedAfter(Collection<String> albumIds, Instant fetchedAfter) {
+        return list("albumId in ?1 and fetchedAt > ?2", albumIds, fetchedAfter);
+    }
+
+    /**
+     * Inserts or replaces the tracks of the album.
+     */
+    public void save(AlbumTracks albumTracks) {
+        getEntityManager().merge(albumTracks);
+    }
+
+    public long deleteFetchedBefore(Instant fetchedBefore) {
+        return delete("fetchedAt < ?1", fetchedBefore);
+    }
+}
@@ -0,0 +1,174 @@
+package com.windschief.releasedetection;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.windschief.client.Futures;
+import com.windschief.spotify.model.AlbumSummary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Caches artist discographies so that an artist followed by many tasks is only
+ * paged through once per release radar run. Without a configured TTL the cache
+ * is only active between {@link #beginRun()} and {@link #endRun(long)}, and
+ * each entry belongs to the latest run that was active when it was created.
+ * Ending a run evicts its entries even if other runs are still active.
+ */
+@ApplicationScoped
+public class ArtistAlbumCache {
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong runSequence = new AtomicLong();
+    private final NavigableSet<Long> activeRuns = new ConcurrentSkipListSet<>();
+    private final Optional<Duration> ttl;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Inject
+    public ArtistAlbumCache(ReleaseRadarConfig releaseRadarConfig, MeterRegistry meterRegistry) {
+        this.ttl = releaseRadarConfig.artistAlbumCache().ttl();
+        this.hits = meterRegistry.counter("spotify.albums.cache.hits");
+        this.misses = meterRegistry.counter("spotify.albums.cache.misses");
+        this.evictions = meterRegistry.counter("spotify.albums.cache.evictions");
+    }
+
+    /**
+     * Starts a run and returns its id, which has to be passed to
+     * {@link #endRun(long)}.
+     */
+    public long beginRun() {
+        final long runId = runSequence.incrementAndGet();
+        activeRuns.add(runId);
+        return runId;
+    }
+
+    public void endRun(long runId) {
+        activeRuns.remove(runId);
+        entries.entrySet().removeIf(entry -> {
+            if (isExpired(entry.getValue()) || isOrphaned(entry.getValue())) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Returns the discography of the artist. The loader is only invoked if no
+     * other caller is already fetching the artist, and a failed load is not
+     * cached.
+     */
+    public CompletableFuture<List<AlbumSummary>> getAsync(String artistId, String includeGroups,
+            Supplier<CompletableFuture<List<AlbumSummary>>> loader) {
+        return getAsync(artistId, includeGroups, null, loader);
+    }
+
+    /**
+     * Variant of {@link #getAsync(String, String, Supplier)} for discographies
+     * that only hold the releases on or after {@code horizon}. Pass
+     * {@code null} for complete discographies.
+     */
+    public CompletableFuture<List<AlbumSummary>> getAsync(String artistId, String includeGroups, LocalDate horizon,
+            Supplier<CompletableFuture<List<AlbumSummary>>> loader) {
+        if (activeRuns.isEmpty() && ttl.isEmpty()) {
+            return loader.get();
+        }
+
+        final Key key = new Key(artistId, includeGroups, horizon);
+        final Lookup lookup = lookup(key);
+        final CompletableFuture<List<AlbumSummary>> albums = lookup.entry().albums();
+        if (!lookup.created()) {
+            return albums;
+        }
+
+        CompletableFuture<List<AlbumSummary>> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((result, failure) -> {
+            if (failure == null) {
+                albums.complete(List.copyOf(result));
+            } else {
+                entries.remove(key, lookup.entry());
+                albums.completeExceptionally(Futures.unwrap(failure));
+            }
+        });
+        return albums;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttl.isPresent() && entry.fetchedAt().plus(ttl.get()).isBefore(Instant.now());
+    }
+
+    /**
+     * Without a TTL an entry is only valid while the run that created it is
+     * active.
+     */
+    private boolean isOrphaned(Entry entry) {
+        return ttl.isEmpty() && !activeRuns.contains(entry.runId());
+    }
+
+    /**
+     * Returns the latest active run, or 0 if no run is active.
+     */
+    private long currentRun() {
+        final Iterator<Long> runs = activeRuns.descendingIterator();
+        return runs.hasNext() ? runs.next() : 0;
+    }
+
+    /**
+     * Returns the live entry for the key, registering a new one if there is
+     * none. Only the caller that created the entry has to load it.
+     */
+    private Lookup lookup(Key key) {
+        while (true) {
+            final Entry existing = entries.get(key);
+            if (existing != null && (isExpired(existing) || isOrphaned(existing))) {
+                if (entries.remove(key, existing)) {
+                    evictions.increment();
+                }
+                continue;
+            }
+            if (existing != null) {
+                hits.increment();
+                return new Lookup(existing, false);
+            }
+
+            final Entry created = new Entry(new CompletableFuture<>(), Instant.now(), currentRun());
+            if (entries.putIfAbsent(key, created) == null) {
+                misses.increment();
+                return new Lookup(created, true);
+            }
+        }
+    }
+
+    private record Key(String artistId, String includeGroups, LocalDate horizon) {
+    }
+
+    private record Entry(CompletableFuture<List<AlbumSummary>> albums, Instant fetchedAt, long runId) {
+    }
+
+    private record Lookup(Entry entry, boolean created) {
+    }
+}
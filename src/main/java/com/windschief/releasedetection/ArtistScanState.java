@@ -0,0 +1,72 @@
+package com.windschief.releasedetection;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.windschief.spotify.model.AlbumSummary;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * What is known about the discography of an artist since the last scan: the
+ * total number of albums and singles, how many of them are albums (Spotify
+ * lists albums before singles), and the releases on or after
+ * {@code coveredFrom}.
+ */
+@Entity
+public class ArtistScanState {
+    @Id
+    private String artistId;
+    private int total;
+    private int albumCount;
+    private LocalDate coveredFrom;
+    @Convert(converter = AlbumSummaryListConverter.class)
+    @Column(columnDefinition = "text")
+    private List<AlbumSummary> recentAlbums;
+    private Instant fullScanAt;
+
+    protected ArtistScanState() {
+    }
+
+    public ArtistScanState(String artistId, int total, int albumCount, LocalDate coveredFrom,
+            List<AlbumSummary> recentAlbums, Instant fullScanAt) {
+        this.artistId = artistId;
+        this.total = total;
+        this.albumCount = albumCount;
+        this.coveredFrom = coveredFrom;
+        this.recentAlbums = List.copyOf(recentAlbums);
+        this.fullScanAt = fullScanAt;
+    }
+
+    public ArtistScanState withNewReleases(int newTotal, int newAlbumCount, List<AlbumSummary> newRecentAlbums) {
+        return new ArtistScanState(artistId, newTotal, newAlbumCount, coveredFrom, newRecentAlbums, fullScanAt);
+    }
+
+    public String getArtistId() {
+        return artistId;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getAlbumCount() {
+        return albumCount;
+    }
+
+    public LocalDate getCoveredFrom() {
+        return coveredFrom;
+    }
+
+    public List<AlbumSummary> getRecentAlbums() {
+        return recentAlbums;
+    }
+
+    public Instant getFullScanAt() {
+        return fullScanAt;
+    }
+}
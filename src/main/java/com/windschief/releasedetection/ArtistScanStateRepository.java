@@ -0,0 +1,14 @@
+package com.windschief.releasedetection;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class ArtistScanStateRepository implements PanacheRepositoryBase<ArtistScanState, String> {
+    /**
+     * Inserts or replaces the state of the artist.
+     */
+    public void save(ArtistScanState state) {
+        getEntityManager().merge(state);
+    }
+}
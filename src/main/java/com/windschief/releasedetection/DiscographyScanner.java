@@ -0,0 +1,239 @@
+package com.windschief.releasedetection;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import com.windschief.client.HttpClientService;
+import com.windschief.spotify.SpotifyApi;
+import com.windschief.spotify.SpotifyPagination;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.AlbumSummary;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Scans artist discographies incrementally. Spotify lists the albums of an
+ * artist before the singles, each group newest first, so releases added since
+ * the previous scan show up at the start of either group. The first page
+ * tells whether the total has changed: if not, it is the only request, and
+ * otherwise only the pages around the start of the singles are fetched in
+ * addition. Scans return the releases on or after the requested horizon.
+ */
+@ApplicationScoped
+public class DiscographyScanner {
+    static final String INCLUDE_GROUPS = "album,single";
+    private static final int PAGE_SIZE = 50;
+    private static final String ALBUM_GROUP = "album";
+
+    private final SpotifyApi spotifyApi;
+    private final HttpClientService httpClientService;
+    private final ArtistScanStateRepository artistScanStateRepository;
+    private final boolean enabled;
+    private final Duration fullScanInterval;
+    private final Executor stateWriter = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter fullScans;
+    private final Counter incrementalScans;
+    private final Counter unchangedScans;
+
+    @Inject
+    public DiscographyScanner(@RestClient SpotifyApi spotifyApi, HttpClientService httpClientService,
+            ArtistScanStateRepository artistScanStateRepository, ReleaseRadarConfig releaseRadarConfig,
+            MeterRegistry meterRegistry) {
+        this.spotifyApi = spotifyApi;
+        this.httpClientService = httpClientService;
+        this.artistScanStateRepository = artistScanStateRepository;
+        this.enabled = releaseRadarConfig.incrementalScan().enabled();
+        this.fullScanInterval = releaseRadarConfig.incrementalScan().fullScanInterval();
+
+        this.fullScans = scanCounter(meterRegistry, "full");
+        this.incrementalScans = scanCounter(meterRegistry, "incremental");
+        this.unchangedScans = scanCounter(meterRegistry, "unchanged");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the releases of the artist on or after {@code horizon}. The
+     * complete discography is fetched if the artist has not been scanned
+     * since the last full scan interval, or not as far back as the horizon.
+     */
+    public CompletableFuture<List<AlbumSummary>> scan(String token, String artistId, LocalDate horizon) {
+        final Optional<ArtistScanState> state = findState(artistId);
+        return httpClientService
+                .sendAsync(() -> spotifyApi.getArtistAlbumsAsync(token, artistId, INCLUDE_GROUPS, PAGE_SIZE, 0))
+                .thenCompose(firstPage -> state
+                        .filter(known -> canScanIncrementally(known, firstPage, horizon))
+                        .map(known -> scanIncrementally(token, known, firstPage))
+                        .orElseGet(() -> scanFully(token, artistId, firstPage, horizon)));
+    }
+
+    @Transactional
+    protected Optional<ArtistScanState> findState(String artistId) {
+        return artistScanStateRepository.findByIdOptional(artistId);
+    }
+
+    @Transactional
+    protected void saveState(ArtistScanState state) {
+        artistScanStateRepository.save(state);
+    }
+
+    private boolean canScanIncrementally(ArtistScanState state, AlbumSummariesResponse firstPage, LocalDate horizon) {
+        final int added = firstPage.total() - state.getTotal();
+        // new albums have to fit on the first page
+        return added >= 0 && added < firstPage.limit()
+                && firstPage.offset() == 0
+                && state.getCoveredFrom() != null && !state.getCoveredFrom().isAfter(horizon)
+                && state.getFullScanAt() != null && state.getFullScanAt().plus(fullScanInterval).isAfter(Instant.now());
+    }
+
+    private CompletableFuture<List<AlbumSummary>> scanFully(String token, String artistId,
+            AlbumSummariesResponse firstPage, LocalDate horizon) {
+        fullScans.increment();
+        return SpotifyPagination.fetchAll(firstPage, url -> fetchPage(url, token))
+                .thenApplyAsync(albums -> {
+                    final int albumCount = (int) albums.stream()
+                            .filter(album -> ALBUM_GROUP.equals(album.album_group()))
+                            .count();
+                    writeState(new ArtistScanState(artistId, firstPage.total(), albumCount, horizon,
+                            mergeReleases(List.of(), albums, horizon), Instant.now()));
+                    return albums;
+                }, stateWriter);
+    }
+
+    private CompletableFuture<List<AlbumSummary>> scanIncrementally(String token, ArtistScanState state,
+            AlbumSummariesResponse firstPage) {
+        final int added = firstPage.total() - state.getTotal();
+        if (added == 0) {
+            unchangedScans.increment();
+            return CompletableFuture.completedFuture(
+                    mergeReleases(state.getRecentAlbums(), firstPage.items(), state.getCoveredFrom()));
+        }
+
+        // the singles start within this range, preceded by the new albums and followed by the new singles
+        final int from = state.getAlbumCount();
+        final int to = Math.min(firstPage.total(), from + added + 1);
+        final List<String> urls = SpotifyPagination.pageUrls(firstPage, from, to);
+        if (urls.isEmpty() && to > firstPage.offset() + firstPage.items().size()) {
+            return scanFully(token, state.getArtistId(), firstPage, state.getCoveredFrom());
+        }
+
+        final List<CompletableFuture<AlbumSummariesResponse>> pages = urls.stream()
+                .map(url -> fetchPage(url, token))
+                .toList();
+        return CompletableFuture.allOf(pages.toArray(CompletableFuture[]::new)).thenCompose(ignored -> {
+            final List<AlbumSummariesResponse> fetched = new ArrayList<>();
+            fetched.add(firstPage);
+            pages.forEach(page -> fetched.add(page.join()));
+
+            final Optional<Integer> albumCount = findSinglesStart(fetched, from, to, firstPage.total());
+            if (albumCount.isEmpty() || fetched.stream().anyMatch(page -> page.total() != firstPage.total())) {
+                Log.debug(String.format("Discography changed unexpectedly, scanning it completely [artistId=%s]",
+                        state.getArtistId()));
+                return scanFully(token, state.getArtistId(), firstPage, state.getCoveredFrom());
+            }
+
+            incrementalScans.increment();
+            final List<AlbumSummary> newItems = fetched.stream().flatMap(page -> page.items().stream()).toList();
+            final List<AlbumSummary> releases = mergeReleases(state.getRecentAlbums(), newItems,
+                    state.getCoveredFrom());
+            return CompletableFuture.supplyAsync(() -> {
+                writeState(state.withNewReleases(firstPage.total(), albumCount.get(), releases));
+                return releases;
+            }, stateWriter);
+        });
+    }
+
+    /**
+     * Returns the offset of the first single within the given range. If there
+     * is none, the range has to reach the end of a discography without singles.
+     */
+    private static Optional<Integer> findSinglesStart(List<AlbumSummariesResponse> pages, int from, int to,
+            int total) {
+        final TreeMap<Integer, AlbumSummary> itemsByOffset = new TreeMap<>();
+        for (AlbumSummariesResponse page : pages) {
+            for (int i = 0; i < page.items().size(); i++) {
+                itemsByOffset.put(page.offset() + i, page.items().get(i));
+            }
+        }
+
+        for (int offset = from; offset < to; offset++) {
+            final AlbumSummary album = itemsByOffset.get(offset);
+            if (album == null) {
+                return Optional.empty();
+            }
+            if (!ALBUM_GROUP.equals(album.album_group())) {
+                return Optional.of(offset);
+            }
+        }
+        return to == total ? Optional.of(total) : Optional.empty();
+    }
+
+    /**
+     * Combines the known releases with the given albums, keeping only those
+     * released on or after the horizon. Albums with an unknown release date
+     * are kept, so that detection reports them.
+     */
+    private static List<AlbumSummary> mergeReleases(List<AlbumSummary> known, Collection<AlbumSummary> albums,
+            LocalDate horizon) {
+        final ReleaseDateFilter releaseDateFilter = ReleaseDateFilter.onOrAfter(horizon);
+        final Map<String, AlbumSummary> releases = new LinkedHashMap<>();
+        for (AlbumSummary album : albums) {
+            if (!releases.containsKey(album.id()) && isReleasedOnOrAfter(album, releaseDateFilter)) {
+                releases.put(album.id(), album);
+            }
+        }
+        known.forEach(album -> releases.putIfAbsent(album.id(), album));
+        return List.copyOf(releases.values());
+    }
+
+    private static boolean isReleasedOnOrAfter(AlbumSummary album, ReleaseDateFilter releaseDateFilter) {
+        try {
+            return releaseDateFilter.test(album);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return true;
+        }
+    }
+
+    private void writeState(ArtistScanState state) {
+        try {
+            saveState(state);
+        } catch (RuntimeException e) {
+            // another node may have stored the artist concurrently, the next scan catches up
+            Log.warn(String.format("Failed to store discography scan state [artistId=%s]: %s",
+                    state.getArtistId(), e.getMessage()));
+        }
+    }
+
+    private CompletableFuture<AlbumSummariesResponse> fetchPage(String url, String token) {
+        return httpClientService.getAsync(url, token, AlbumSummariesResponse.class);
+    }
+
+    private static Counter scanCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("spotify.albums.scan")
+                .description("Number of artist discography scans")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.windschief.releasedetection;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Stores a list as a JSON array in a text column. A {@code null} column is
+ * read as an empty list.
+ */
+public abstract class JsonListConverter<T> implements AttributeConverter<List<T>, String> {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final TypeReference<List<T>> listType;
+    private final String itemName;
+
+    protected JsonListConverter(TypeReference<List<T>> listType, String itemName) {
+        this.listType = listType;
+        this.itemName = itemName;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(List<T> items) {
+        try {
+            return items == null ? null : OBJECT_MAPPER.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize " + itemName, e);
+        }
+    }
+
+    @Override
+    public List<T> convertToEntityAttribute(String json) {
+        try {
+            return json == null ? List.of() : OBJECT_MAPPER.readValue(json, listType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to deserialize " + itemName, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.windschief.releasedetection;
+
+/**
+ * Thrown if items could only partially be added to a playlist. The items
+ * before {@link #getWrittenItems()} have been added.
+ */
+public class PlaylistWriteException extends Exception {
+    private final int writtenItems;
+
+    public PlaylistWriteException(String message, int writtenItems, Throwable cause) {
+        super(message, cause);
+        this.writtenItems = writtenItems;
+    }
+
+    public int getWrittenItems() {
+        return writtenItems;
+    }
+}
@@ -0,0 +1,82 @@
+package com.windschief.releasedetection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import com.windschief.spotify.SpotifyApi;
+import com.windschief.spotify.model.PlaylistAddItemsRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * Appends items to playlists in chunks of the maximum size Spotify accepts
+ * per request. Spotify applies insertions in the order they arrive and
+ * rejects positions beyond the end of a playlist, so chunks are written one
+ * after another: sending them concurrently would shuffle them.
+ */
+@ApplicationScoped
+public class PlaylistWriter {
+    static final int CHUNK_SIZE = 100;
+
+    private final SpotifyApi spotifyApi;
+    private final Counter writtenChunks;
+    private final Counter failedChunks;
+
+    @Inject
+    public PlaylistWriter(@RestClient SpotifyApi spotifyApi, MeterRegistry meterRegistry) {
+        this.spotifyApi = spotifyApi;
+        this.writtenChunks = meterRegistry.counter("spotify.playlist.chunks", "result", "written");
+        this.failedChunks = meterRegistry.counter("spotify.playlist.chunks", "result", "failed");
+    }
+
+    /**
+     * Appends the items to the playlist, keeping their order. If a chunk is
+     * rejected, the chunks before it stay in the playlist and the remaining
+     * ones are not sent.
+     *
+     * @throws PlaylistWriteException holding the number of items added before
+     *                                the rejected chunk.
+     */
+    public void append(String token, String playlistId, List<String> uris) throws PlaylistWriteException {
+        append(token, playlistId, uris, writtenItems -> {
+        });
+    }
+
+    /**
+     * Variant of {@link #append(String, String, List)} that reports the number
+     * of items added so far after every chunk, so that progress can be
+     * recorded.
+     */
+    public void append(String token, String playlistId, List<String> uris, IntConsumer onChunkWritten)
+            throws PlaylistWriteException {
+        int writtenItems = 0;
+        for (List<String> chunk : partition(uris)) {
+            try {
+                spotifyApi.addToPlaylist(token, playlistId, new PlaylistAddItemsRequest(chunk, null));
+            } catch (WebApplicationException | ProcessingException e) {
+                failedChunks.increment();
+                throw new PlaylistWriteException(String.format("Failed to add items %d to %d of %d to playlist %s",
+                        writtenItems, writtenItems + chunk.size(), uris.size(), playlistId), writtenItems, e);
+            }
+            writtenChunks.increment();
+            writtenItems += chunk.size();
+            onChunkWritten.accept(writtenItems);
+        }
+    }
+
+    static <T> List<List<T>> partition(List<T> items) {
+        final List<List<T>> chunks = new ArrayList<>((items.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        for (int i = 0; i < items.size(); i += CHUNK_SIZE) {
+            chunks.add(items.subList(i, Math.min(i + CHUNK_SIZE, items.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,132 @@
+package com.windschief.releasedetection;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.function.Predicate;
+
+import com.windschief.spotify.model.AlbumSummary;
+
+/**
+ * Tests whether albums are released on or after a date. A release known only
+ * by month or year counts as released at the end of that month or year, so
+ * that it is not missed. The date is precomputed as an integer per precision
+ * and release dates are compared digit by digit, so filtering a discography
+ * does not allocate. Release dates not in the plain {@code yyyy-MM-dd},
+ * {@code yyyy-MM} or {@code yyyy} form are parsed with {@code java.time}.
+ */
+final class ReleaseDateFilter implements Predicate<AlbumSummary> {
+    private final LocalDate date;
+    private final long dayCutoff;
+    private final long monthCutoff;
+    private final long yearCutoff;
+
+    private ReleaseDateFilter(LocalDate date) {
+        this.date = date;
+        this.yearCutoff = date.getYear();
+        this.monthCutoff = yearCutoff * 100 + date.getMonthValue();
+        this.dayCutoff = monthCutoff * 100 + date.getDayOfMonth();
+    }
+
+    static ReleaseDateFilter onOrAfter(LocalDate date) {
+        return new ReleaseDateFilter(date);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the date precision is unknown.
+     * @throws DateTimeParseException   if the release date does not match its
+     *                                  precision.
+     */
+    @Override
+    public boolean test(AlbumSummary album) {
+        final String releaseDate = album.release_date();
+        return switch (album.release_date_precision()) {
+            case "day" -> {
+                final long day = parseDay(releaseDate);
+                yield day >= 0 ? day >= dayCutoff : !LocalDate.parse(releaseDate).isBefore(date);
+            }
+            case "month" -> {
+                final long month = parseMonth(releaseDate);
+                yield month >= 0 ? month >= monthCutoff
+                        : !YearMonth.parse(releaseDate).atEndOfMonth().isBefore(date);
+            }
+            case "year" -> {
+                final long year = parseYear(releaseDate);
+                yield year >= 0 ? year >= yearCutoff : !endOfYear(Year.parse(releaseDate)).isBefore(date);
+            }
+            default -> throw new IllegalArgumentException("Unknown date precision: " + album.release_date_precision());
+        };
+    }
+
+    /**
+     * Returns {@code yyyyMMdd} for a valid {@code yyyy-MM-dd} date, or -1.
+     */
+    private static long parseDay(String value) {
+        if (value == null || value.length() != 10 || value.charAt(7) != '-') {
+            return -1;
+        }
+        final long month = parseYearMonth(value);
+        final int day = parseDigits(value, 8, 10);
+        if (month < 0 || day < 1 || day > lengthOfMonth((int) (month / 100), (int) (month % 100))) {
+            return -1;
+        }
+        return month * 100 + day;
+    }
+
+    /**
+     * Returns {@code yyyyMM} for a valid {@code yyyy-MM} month, or -1.
+     */
+    private static long parseMonth(String value) {
+        if (value == null || value.length() != 7) {
+            return -1;
+        }
+        return parseYearMonth(value);
+    }
+
+    private static long parseYearMonth(String value) {
+        if (value.charAt(4) != '-') {
+            return -1;
+        }
+        final int year = parseDigits(value, 0, 4);
+        final int month = parseDigits(value, 5, 7);
+        if (year < 0 || month < 1 || month > 12) {
+            return -1;
+        }
+        return year * 100L + month;
+    }
+
+    /**
+     * Returns the year of a {@code yyyy} value, or -1.
+     */
+    private static long parseYear(String value) {
+        if (value == null || value.length() != 4) {
+            return -1;
+        }
+        return parseDigits(value, 0, 4);
+    }
+
+    private static int parseDigits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static LocalDate endOfYear(Year year) {
+        return year.atDay(year.length());
+    }
+}
@@ -1,29 +1,41 @@
 package com.windschief.releasedetection;
 
 import java.io.IOException;
+import java.time.DateTimeException;
 import java.time.LocalDate;
-import java.time.Year;
-import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 import com.windschief.auth.SpotifyTokenException;
 import com.windschief.auth.SpotifyTokenService;
+import com.windschief.client.Futures;
 import com.windschief.client.HttpClientService;
 import com.windschief.spotify.SpotifyApi;
-import com.windschief.spotify.model.AlbumItem;
-import com.windschief.spotify.model.AlbumsResponse;
+import com.windschief.spotify.SpotifyPagination;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.AlbumSummary;
 import com.windschief.task.Platform;
 import com.windschief.task.Task;
 import com.windschief.task.TaskRepository;
 import com.windschief.task.added_item.AddedItemRepository;
 import com.windschief.task.added_item.AddedItemType;
 import com.windschief.task.item.TaskItem;
+import com.windschief.task.item.TaskItemRepository;
+import com.windschief.task.item.TaskItemSubscription;
 import com.windschief.task.item.TaskItemType;
 
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
+import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -31,26 +43,37 @@ import jakarta.ws.rs.WebApplicationException;
 
 @ApplicationScoped
 public class ReleaseDetectionService {
+    private static final String INCLUDE_GROUPS = DiscographyScanner.INCLUDE_GROUPS;
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_ARTISTS_IN_FLIGHT = 16;
+
     private final SpotifyApi spotifyApi;
     private final AddedItemRepository addedItemRepository;
     private final SpotifyTokenService spotifyTokenService;
     private final HttpClientService httpClientService;
     private final TaskRepository taskRepository;
+    private final TaskItemRepository taskItemRepository;
+    private final ArtistAlbumCache artistAlbumCache;
+    private final DiscographyScanner discographyScanner;
 
     @Inject
     public ReleaseDetectionService(@RestClient SpotifyApi spotifyApi, AddedItemRepository addedItemRepository,
             SpotifyTokenService spotifyTokenService, HttpClientService httpClientService,
-            TaskRepository taskRepository) {
+            TaskRepository taskRepository, TaskItemRepository taskItemRepository, ArtistAlbumCache artistAlbumCache,
+            DiscographyScanner discographyScanner) {
         this.spotifyApi = spotifyApi;
         this.addedItemRepository = addedItemRepository;
         this.spotifyTokenService = spotifyTokenService;
         this.httpClientService = httpClientService;
         this.taskRepository = taskRepository;
+        this.taskItemRepository = taskItemRepository;
+        this.artistAlbumCache = artistAlbumCache;
+        this.discographyScanner = discographyScanner;
     }
 
     @Counted(value = "release.detection.operations")
     @Timed(value = "release.detection.operation.duration")
-    public List<AlbumItem> detectNewAlbumReleases(long taskId)
+    public List<AlbumSummary> detectNewAlbumReleases(long taskId)
             throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
         final Task task = loadAndValidateTask(taskId);
 
@@ -59,6 +82,136 @@ public class ReleaseDetectionService {
         return findNewReleasesFromArtists(task, token);
     }
 
+    /**
+     * Detects new album releases for many tasks at once by fetching every
+     * distinct artist only once and fanning its releases out to all subscribed
+     * tasks. Tasks that cannot be handled this way (unsupported platform or
+     * items, failing artist lookups) are left out of the result so that the
+     * caller can fall back to {@link #detectNewAlbumReleases(long)}.
+     *
+     * @return the new album releases per task id.
+     */
+    @Counted(value = "release.detection.artist.operations")
+    @Timed(value = "release.detection.artist.operation.duration")
+    public Map<Long, List<AlbumSummary>> detectNewAlbumReleasesByArtist(List<Task> tasks) throws InterruptedException {
+        final Map<Long, Task> tasksById = new HashMap<>();
+        tasks.stream()
+                .filter(task -> task.getPlatform() == Platform.SPOTIFY)
+                .forEach(task -> tasksById.put(task.getId(), task));
+
+        final Map<String, List<Task>> tasksByArtist = buildArtistIndex(tasksById);
+
+        final Map<Long, Map<String, AlbumSummary>> releasesByTask = new HashMap<>();
+        tasksById.keySet().forEach(taskId -> releasesByTask.put(taskId, new LinkedHashMap<>()));
+
+        final LocalDate horizon = findScanHorizon(tasksById.values());
+        final Map<String, Optional<String>> tokensByUser = new HashMap<>();
+        final Map<Long, ReleaseDateFilter> filtersByTask = new HashMap<>();
+        for (List<Map.Entry<String, List<Task>>> window : partition(List.copyOf(tasksByArtist.entrySet()),
+                MAX_ARTISTS_IN_FLIGHT)) {
+            final Map<String, List<Task>> subscribersByArtist = new LinkedHashMap<>();
+            final Map<String, CompletableFuture<List<AlbumSummary>>> fetches = new HashMap<>();
+            for (Map.Entry<String, List<Task>> entry : window) {
+                final String artistId = entry.getKey();
+                final List<Task> subscribers = entry.getValue().stream()
+                        .filter(task -> releasesByTask.containsKey(task.getId()))
+                        .toList();
+                if (subscribers.isEmpty()) {
+                    continue;
+                }
+
+                subscribersByArtist.put(artistId, subscribers);
+                try {
+                    final String token = findValidToken(subscribers, tokensByUser);
+                    fetches.put(artistId, artistAlbumCache.getAsync(artistId, INCLUDE_GROUPS, horizon,
+                            () -> fetchArtistAlbums(token, artistId, horizon)));
+                } catch (SpotifyTokenException e) {
+                    fetches.put(artistId, CompletableFuture.failedFuture(e));
+                }
+            }
+
+            for (Map.Entry<String, List<Task>> entry : subscribersByArtist.entrySet()) {
+                final String artistId = entry.getKey();
+                final List<Task> subscribers = entry.getValue();
+
+                final List<AlbumSummary> albums;
+                try {
+                    albums = Futures.await(fetches.get(artistId));
+                } catch (WebApplicationException | IOException e) {
+                    Log.warn(String.format("Failed to fetch albums of artist, falling back to task detection "
+                            + "[artistId=%s, tasks=%d]: %s", artistId, subscribers.size(), e.getMessage()));
+                    subscribers.forEach(task -> releasesByTask.remove(task.getId()));
+                    continue;
+                }
+
+                for (Task task : subscribers) {
+                    final Map<String, AlbumSummary> releases = releasesByTask.get(task.getId());
+                    if (releases == null) {
+                        continue;
+                    }
+                    final ReleaseDateFilter releaseDateFilter = filtersByTask.computeIfAbsent(task.getId(),
+                            taskId -> ReleaseDateFilter.onOrAfter(task.getCheckFrom()));
+                    try {
+                        albums.stream()
+                                .filter(album -> !releases.containsKey(album.id()))
+                                .filter(releaseDateFilter)
+                                .forEach(album -> releases.put(album.id(), album));
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        releasesByTask.remove(task.getId());
+                    }
+                }
+            }
+        }
+
+        final Map<Long, List<AlbumSummary>> result = new HashMap<>();
+        releasesByTask.forEach((taskId, releases) -> {
+            releases.keySet().removeAll(findAddedAlbumIds(taskId, releases.keySet()));
+            result.put(taskId, List.copyOf(releases.values()));
+        });
+        return result;
+    }
+
+    @Transactional
+    protected Map<String, List<Task>> buildArtistIndex(Map<Long, Task> tasksById) {
+        final List<TaskItemSubscription> subscriptions = taskItemRepository
+                .findSubscriptionsByTaskIds(List.copyOf(tasksById.keySet()));
+
+        final Set<Long> unsupportedTaskIds = new HashSet<>();
+        final Map<String, List<Task>> tasksByArtist = new LinkedHashMap<>();
+        for (TaskItemSubscription subscription : subscriptions) {
+            if (subscription.itemType() != TaskItemType.ARTIST) {
+                unsupportedTaskIds.add(subscription.taskId());
+                continue;
+            }
+            tasksByArtist.computeIfAbsent(subscription.externalId(), artistId -> new ArrayList<>())
+                    .add(tasksById.get(subscription.taskId()));
+        }
+
+        // tasks with unsupported items are detected task by task, which reports the error
+        tasksById.keySet().removeAll(unsupportedTaskIds);
+        tasksByArtist.values().forEach(subscribers -> subscribers
+                .removeIf(task -> unsupportedTaskIds.contains(task.getId())));
+
+        return tasksByArtist;
+    }
+
+    private String findValidToken(List<Task> subscribers, Map<String, Optional<String>> tokensByUser)
+            throws SpotifyTokenException {
+        for (Task task : subscribers) {
+            final Optional<String> token = tokensByUser.computeIfAbsent(task.getUserId(), userId -> {
+                try {
+                    return Optional.of(spotifyTokenService.getValidBearerAccessToken(userId));
+                } catch (WebApplicationException | SpotifyTokenException e) {
+                    return Optional.empty();
+                }
+            });
+            if (token.isPresent()) {
+                return token.get();
+            }
+        }
+        throw new SpotifyTokenException("No valid token found for any subscriber");
+    }
+
     @Transactional
     protected Task loadAndValidateTask(Long taskId) {
         Task task = taskRepository.findById(taskId);
@@ -75,55 +228,88 @@ public class ReleaseDetectionService {
         return task;
     }
 
-    private List<AlbumItem> findNewReleasesFromArtists(Task task, String token)
+    private List<AlbumSummary> findNewReleasesFromArtists(Task task, String token)
             throws WebApplicationException, IOException, InterruptedException {
         final List<String> artistIds = task.getTaskItems().stream()
                 .map(TaskItem::getExternalId)
                 .toList();
 
-        final List<AlbumItem> albums = new ArrayList<>();
-        for (String artistId : artistIds) {
-            fetchAllArtistAlbums(token, artistId).stream()
-                    .filter(album -> isAlbumReleasedOnOrAfter(album, task.getCheckFrom()))
-                    .filter(album -> !isAlbumAlreadyAdded(album.id(), task.getId()))
-                    .forEach(albums::add);
+        final LocalDate horizon = findScanHorizon(List.of(task));
+        final ReleaseDateFilter releaseDateFilter = ReleaseDateFilter.onOrAfter(task.getCheckFrom());
+
+        // albums of collaborating artists show up once per followed artist
+        final Map<String, AlbumSummary> candidates = new LinkedHashMap<>();
+        for (List<String> window : partition(artistIds, MAX_ARTISTS_IN_FLIGHT)) {
+            final List<CompletableFuture<List<AlbumSummary>>> fetches = window.stream()
+                    .map(artistId -> artistAlbumCache.getAsync(artistId, INCLUDE_GROUPS, horizon,
+                            () -> fetchArtistAlbums(token, artistId, horizon)))
+                    .toList();
+            for (CompletableFuture<List<AlbumSummary>> fetch : fetches) {
+                Futures.await(fetch).stream()
+                        .filter(album -> !candidates.containsKey(album.id()))
+                        .filter(releaseDateFilter)
+                        .forEach(album -> candidates.put(album.id(), album));
+            }
         }
 
-        return albums;
+        candidates.keySet().removeAll(findAddedAlbumIds(task.getId(), candidates.keySet()));
+        return List.copyOf(candidates.values());
     }
 
-    @Counted(value = "spotify.albums.fetch")
-    @Timed(value = "spotify.albums.fetch.duration", description = "Time taken to fetch all albums for an artist")
-    protected List<AlbumItem> fetchAllArtistAlbums(String token, String artistId)
-            throws WebApplicationException, IOException, InterruptedException {
-        final List<AlbumItem> albums = new ArrayList<>();
+    /**
+     * Returns the earliest check date of all active tasks and the given ones.
+     * Incremental scans keep the releases since this date, so they serve every
+     * task. Returns {@code null} if discographies are scanned completely.
+     */
+    @Transactional
+    protected LocalDate findScanHorizon(Collection<Task> tasks) {
+        if (!discographyScanner.isEnabled()) {
+            return null;
+        }
 
-        AlbumsResponse response = spotifyApi.getArtistAlbums(token, artistId, "album,single", 50, 0);
-        while (true) {
-            albums.addAll(response.items());
-            if (response.next() == null) {
-                break;
+        LocalDate horizon = taskRepository.findEarliestCheckFrom().orElse(null);
+        for (Task task : tasks) {
+            if (task.getCheckFrom() != null && (horizon == null || task.getCheckFrom().isBefore(horizon))) {
+                horizon = task.getCheckFrom();
             }
-
-            response = httpClientService.get(response.next(), token, AlbumsResponse.class);
         }
+        return horizon;
+    }
 
-        return albums;
+    private CompletableFuture<List<AlbumSummary>> fetchArtistAlbums(String token, String artistId,
+            LocalDate horizon) {
+        if (horizon == null) {
+            return fetchAllArtistAlbums(token, artistId);
+        }
+        return discographyScanner.scan(token, artistId, horizon);
     }
 
-    private boolean isAlbumReleasedOnOrAfter(AlbumItem album, LocalDate checkFrom) {
-        final LocalDate releaseDate = switch (album.release_date_precision()) {
-            case "day" -> LocalDate.parse(album.release_date());
-            case "month" -> YearMonth.parse(album.release_date()).atEndOfMonth();
-            case "year" -> Year.parse(album.release_date()).atDay(Year.parse(album.release_date()).length());
-            default -> throw new IllegalArgumentException("Unknown date precision: " + album.release_date_precision());
-        };
+    /**
+     * Fetches the first page of the artist's discography and then all remaining
+     * pages concurrently.
+     */
+    @Counted(value = "spotify.albums.fetch")
+    @Timed(value = "spotify.albums.fetch.duration", description = "Time taken to fetch all albums for an artist")
+    protected CompletableFuture<List<AlbumSummary>> fetchAllArtistAlbums(String token, String artistId) {
+        return httpClientService
+                .sendAsync(() -> spotifyApi.getArtistAlbumsAsync(token, artistId, INCLUDE_GROUPS, PAGE_SIZE, 0))
+                .thenCompose(firstPage -> SpotifyPagination.fetchAll(firstPage,
+                        url -> httpClientService.getAsync(url, token, AlbumSummariesResponse.class)));
+    }
 
-        return !releaseDate.isBefore(checkFrom);
+    private static <T> List<List<T>> partition(List<T> list, int size) {
+        final List<List<T>> partitions = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += size) {
+            partitions.add(list.subList(i, Math.min(i + size, list.size())));
+        }
+        return partitions;
     }
 
     @Transactional
-    protected boolean isAlbumAlreadyAdded(String albumId, Long taskId) {
-        return addedItemRepository.existsByTaskIdAndExternalIdAndItemType(taskId, albumId, AddedItemType.ALBUM);
+    protected Set<String> findAddedAlbumIds(Long taskId, Collection<String> albumIds) {
+        if (albumIds.isEmpty()) {
+            return Set.of();
+        }
+        return addedItemRepository.findAddedExternalIds(taskId, AddedItemType.ALBUM, albumIds);
     }
 }
@@ -0,0 +1,195 @@
+package com.windschief.releasedetection;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+@ConfigMapping(prefix = "release-radar")
+public interface ReleaseRadarConfig {
+    /**
+     * How the scheduled release radar job detects new releases.
+     */
+    @WithDefault("task")
+    DetectionMode detectionMode();
+
+    ArtistAlbumCache artistAlbumCache();
+
+    Execution execution();
+
+    Scheduler scheduler();
+
+    Lease lease();
+
+    TokenRefresh tokenRefresh();
+
+    IncrementalScan incrementalScan();
+
+    AlbumTracksCache albumTracksCache();
+
+    Journal journal();
+
+    interface ArtistAlbumCache {
+        /**
+         * How long fetched discographies stay cached. If absent, entries only live
+         * for the duration of a single release radar run.
+         */
+        Optional<Duration> ttl();
+    }
+
+    interface Execution {
+        /**
+         * Maximum number of tasks executed concurrently by the release radar job.
+         */
+        @WithDefault("8")
+        int maxConcurrency();
+
+        /**
+         * Maximum number of tasks of a single user executed concurrently.
+         */
+        @WithDefault("2")
+        int maxConcurrencyPerUser();
+
+        /**
+         * How long running tasks may take to finish when the application shuts down.
+         */
+        @WithDefault("30s")
+        Duration shutdownTimeout();
+    }
+
+    interface Scheduler {
+        /**
+         * How often due tasks are started.
+         */
+        @WithDefault("1m")
+        Duration tickInterval();
+
+        /**
+         * How often upcoming task runs are loaded from the database.
+         */
+        @WithDefault("10m")
+        Duration refillInterval();
+
+        /**
+         * How far ahead upcoming task runs are loaded into memory.
+         */
+        @WithDefault("1h")
+        Duration horizon();
+
+        /**
+         * Maximum number of dispatched tasks that are still running, across all
+         * ticks. Due tasks beyond the limit are started by later ticks, which
+         * spreads bursts of due tasks over time.
+         */
+        @WithDefault("50")
+        int maxDispatchedTasks();
+
+        /**
+         * Number of upcoming tasks loaded from the database at a time.
+         */
+        @WithDefault("500")
+        int pageSize();
+    }
+
+    interface Lease {
+        /**
+         * Identifies this node as owner of task leases. Defaults to the host name
+         * with a random suffix.
+         */
+        Optional<String> owner();
+
+        /**
+         * How long a task lease is valid without being renewed. When a node
+         * stops, its tasks can be executed by another node after this time.
+         */
+        @WithDefault("5m")
+        Duration duration();
+
+        /**
+         * How often the leases of running tasks are renewed.
+         */
+        @WithDefault("1m")
+        Duration renewInterval();
+    }
+
+    interface TokenRefresh {
+        /**
+         * How often access tokens of users with upcoming task runs are refreshed.
+         */
+        @WithDefault("5m")
+        Duration interval();
+
+        /**
+         * Tokens expiring within this time are refreshed if the user has a task
+         * due within this time.
+         */
+        @WithDefault("15m")
+        Duration lookahead();
+
+        /**
+         * Maximum number of tokens refreshed concurrently.
+         */
+        @WithDefault("4")
+        int maxConcurrency();
+
+        /**
+         * Number of users loaded from the database at a time.
+         */
+        @WithDefault("100")
+        int batchSize();
+    }
+
+    interface IncrementalScan {
+        /**
+         * Whether discographies are scanned incrementally, fetching only the
+         * pages that hold releases added since the previous scan.
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * How often the complete discography of an artist is fetched again,
+         * which catches releases that were added and removed at the same time.
+         */
+        @WithDefault("7d")
+        Duration fullScanInterval();
+    }
+
+    interface AlbumTracksCache {
+        /**
+         * Whether the tracks of fetched albums are stored, so that other tasks
+         * detecting the same release do not fetch them again.
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * How long stored album tracks are used before they are fetched again.
+         */
+        @WithDefault("30d")
+        Duration ttl();
+
+        /**
+         * How often album tracks older than the TTL are deleted.
+         */
+        @WithDefault("1h")
+        Duration purgeInterval();
+    }
+
+    interface Journal {
+        /**
+         * How long an interrupted task execution is resumed. Older executions
+         * are abandoned and the task is executed from the start.
+         */
+        @WithDefault("7d")
+        Duration maxAge();
+    }
+
+    enum DetectionMode {
+        /** Detect releases task by task, fetching each followed artist per task. */
+        TASK,
+        /** Fetch each distinct artist once and fan the releases out to all subscribed tasks. */
+        ARTIST
+    }
+}
@@ -0,0 +1,194 @@
+package com.windschief.releasedetection;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.windschief.task.Task;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Executes release radar tasks concurrently on virtual threads. The number of
+ * tasks running at the same time is capped globally and per user, so that a
+ * single user with many tasks cannot occupy all permits.
+ */
+@ApplicationScoped
+public class ReleaseRadarExecutor {
+    private final ExecutorService executorService = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("release-radar-", 0).factory());
+    // only holds users with queued or running tasks
+    private final ConcurrentMap<String, UserPermits> userPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger dispatched = new AtomicInteger();
+    private final Semaphore globalPermits;
+    private final int maxConcurrencyPerUser;
+    private final Duration shutdownTimeout;
+
+    @Inject
+    public ReleaseRadarExecutor(ReleaseRadarConfig releaseRadarConfig, MeterRegistry meterRegistry) {
+        this.globalPermits = new Semaphore(releaseRadarConfig.execution().maxConcurrency(), true);
+        this.maxConcurrencyPerUser = releaseRadarConfig.execution().maxConcurrencyPerUser();
+        this.shutdownTimeout = releaseRadarConfig.execution().shutdownTimeout();
+
+        meterRegistry.gauge("release.radar.tasks.in.flight", inFlight);
+        meterRegistry.gauge("release.radar.tasks.queued", queued);
+        meterRegistry.gauge("release.radar.tasks.dispatched", dispatched);
+    }
+
+    /**
+     * Runs the batch of tasks on a virtual thread without waiting for it. The
+     * tasks count as dispatched until the batch has finished.
+     */
+    public void dispatch(List<Task> tasks, Consumer<List<Task>> batch) {
+        dispatched.addAndGet(tasks.size());
+        try {
+            executorService.execute(() -> {
+                try {
+                    batch.accept(tasks);
+                } catch (RuntimeException e) {
+                    Log.error("Release radar batch execution failed", e);
+                } finally {
+                    dispatched.addAndGet(-tasks.size());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dispatched.addAndGet(-tasks.size());
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the action for all tasks and waits until every execution has
+     * finished.
+     */
+    public void executeAll(List<Task> tasks, Consumer<Task> action) {
+        final List<Future<?>> futures = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            queued.incrementAndGet();
+            futures.add(executorService.submit(() -> {
+                executeWithPermits(task, action);
+                return null;
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Log.error("Release radar task execution failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(remaining -> remaining.cancel(true));
+                return;
+            }
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getDispatched() {
+        return dispatched.get();
+    }
+
+    int getUserCount() {
+        return userPermits.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                Log.warn("Release radar tasks did not finish in time, interrupting them");
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executorService.shutdownNow();
+        }
+    }
+
+    private void executeWithPermits(Task task, Consumer<Task> action) throws InterruptedException {
+        final String userId = String.valueOf(task.getUserId());
+        final Semaphore permitsOfUser = userPermits.compute(userId,
+                (id, permits) -> (permits != null ? permits : new UserPermits(maxConcurrencyPerUser)).retain())
+                .semaphore();
+
+        boolean started = false;
+        try {
+            permitsOfUser.acquire();
+            try {
+                globalPermits.acquire();
+                try {
+                    queued.decrementAndGet();
+                    inFlight.incrementAndGet();
+                    started = true;
+                    action.accept(task);
+                } finally {
+                    inFlight.decrementAndGet();
+                    globalPermits.release();
+                }
+            } finally {
+                permitsOfUser.release();
+            }
+        } finally {
+            if (!started) {
+                queued.decrementAndGet();
+            }
+            userPermits.computeIfPresent(userId, (id, permits) -> permits.release() ? null : permits);
+        }
+    }
+
+    /**
+     * The permits of a user with the number of tasks holding on to them. Both
+     * are only changed while computing the map entry, so that the entry is
+     * removed together with its last task.
+     */
+    private static final class UserPermits {
+        private final Semaphore semaphore;
+        private int tasks;
+
+        UserPermits(int permits) {
+            this.semaphore = new Semaphore(permits, true);
+        }
+
+        Semaphore semaphore() {
+            return semaphore;
+        }
+
+        UserPermits retain() {
+            tasks++;
+            return this;
+        }
+
+        /**
+         * @return whether no task holds on to the permits anymore
+         */
+        boolean release() {
+            return --tasks == 0;
+        }
+    }
+}
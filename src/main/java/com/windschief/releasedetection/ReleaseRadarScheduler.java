@@ -0,0 +1,178 @@
+package com.windschief.releasedetection;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.windschief.task.Task;
+import com.windschief.task.TaskChangedEvent;
+import com.windschief.task.TaskRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Starts tasks when their next run is due. Upcoming runs within the horizon
+ * are kept in a priority queue that is refilled from the database
+ * periodically and updated as soon as changes to tasks have been committed.
+ * Every tick hands due tasks to the {@link ReleaseRadarExecutor} without
+ * waiting for them, as long as fewer than a limited number of tasks are
+ * still running, so that the load on Spotify and the database stays flat
+ * instead of spiking once a day.
+ */
+@ApplicationScoped
+public class ReleaseRadarScheduler {
+    private final TaskRepository taskRepository;
+    private final ReleaseRadarService releaseRadarService;
+    private final ReleaseRadarExecutor releaseRadarExecutor;
+    private final Duration horizon;
+    private final int maxDispatchedTasks;
+    private final int pageSize;
+
+    // guarded by this
+    private final PriorityQueue<ScheduledRun> queue = new PriorityQueue<>(
+            Comparator.comparing(ScheduledRun::nextRunAt).thenComparing(ScheduledRun::taskId));
+    // latest run per task, queue entries that do not match it are stale
+    private final Map<Long, Instant> scheduledRuns = new HashMap<>();
+
+    @Inject
+    public ReleaseRadarScheduler(TaskRepository taskRepository, ReleaseRadarService releaseRadarService,
+            ReleaseRadarExecutor releaseRadarExecutor, ReleaseRadarConfig releaseRadarConfig,
+            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.releaseRadarService = releaseRadarService;
+        this.releaseRadarExecutor = releaseRadarExecutor;
+        this.horizon = releaseRadarConfig.scheduler().horizon();
+        this.maxDispatchedTasks = releaseRadarConfig.scheduler().maxDispatchedTasks();
+        this.pageSize = releaseRadarConfig.scheduler().pageSize();
+
+        meterRegistry.gauge("release.radar.scheduler.scheduled", this, ReleaseRadarScheduler::getScheduledCount);
+    }
+
+    /**
+     * Loads all active tasks due within the horizon from the database.
+     */
+    @Scheduled(every = "${release-radar.scheduler.refill-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    public void refill() {
+        final Instant until = Instant.now().plus(horizon);
+
+        int loaded = 0;
+        List<Task> tasks = taskRepository.findDueTasks(until, null, null, pageSize);
+        while (!tasks.isEmpty()) {
+            tasks.forEach(task -> schedule(task.getId(), task.getNextRunAt()));
+            loaded += tasks.size();
+            if (tasks.size() < pageSize) {
+                break;
+            }
+            final Task last = tasks.getLast();
+            tasks = taskRepository.findDueTasks(until, last.getNextRunAt(), last.getId(), pageSize);
+        }
+
+        Log.debug(String.format("Loaded %d upcoming task runs until %s", loaded, until));
+    }
+
+    /**
+     * Starts the tasks that are due, up to the number of tasks that may still
+     * be dispatched. The tasks run in the background, so a long batch does not
+     * hold up the next tick.
+     */
+    @Scheduled(every = "${release-radar.scheduler.tick-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    public void tick() {
+        final int capacity = maxDispatchedTasks - releaseRadarExecutor.getDispatched();
+        if (capacity <= 0) {
+            return;
+        }
+
+        final Instant now = Instant.now();
+        final List<Long> taskIds = pollDue(now, capacity);
+        if (taskIds.isEmpty()) {
+            return;
+        }
+
+        final List<Task> tasks = loadDueTasks(taskIds, now);
+        if (!tasks.isEmpty()) {
+            releaseRadarExecutor.dispatch(tasks, releaseRadarService::executeTasks);
+        }
+    }
+
+    /**
+     * Updates the schedule once the change of the task has been committed, so
+     * that a rolled back change is not scheduled.
+     */
+    void onTaskChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) TaskChangedEvent event) {
+        if (event.task() == null) {
+            unschedule(event.taskId());
+        } else {
+            schedule(event.task());
+        }
+    }
+
+    /**
+     * Puts the task into the schedule, or takes it out if it is inactive. Runs
+     * beyond the horizon are picked up by a later refill.
+     */
+    public void schedule(Task task) {
+        if (!task.isActive()) {
+            unschedule(task.getId());
+            return;
+        }
+        if (!task.getNextRunAt().isAfter(Instant.now().plus(horizon))) {
+            schedule(task.getId(), task.getNextRunAt());
+        } else {
+            unschedule(task.getId());
+        }
+    }
+
+    public synchronized void unschedule(Long taskId) {
+        scheduledRuns.remove(taskId);
+    }
+
+    public synchronized int getScheduledCount() {
+        return scheduledRuns.size();
+    }
+
+    synchronized void schedule(Long taskId, Instant nextRunAt) {
+        if (nextRunAt.equals(scheduledRuns.put(taskId, nextRunAt))) {
+            return;
+        }
+        queue.add(new ScheduledRun(taskId, nextRunAt));
+    }
+
+    synchronized List<Long> pollDue(Instant now, int limit) {
+        final List<Long> taskIds = new ArrayList<>();
+        while (taskIds.size() < limit && !queue.isEmpty() && !queue.peek().nextRunAt().isAfter(now)) {
+            final ScheduledRun run = queue.poll();
+            if (run.nextRunAt().equals(scheduledRuns.get(run.taskId()))) {
+                scheduledRuns.remove(run.taskId());
+                taskIds.add(run.taskId());
+            }
+        }
+        return taskIds;
+    }
+
+    /**
+     * Reloads the polled tasks, dropping those that have been deactivated,
+     * executed in the meantime or are running on another node.
+     */
+    @Transactional
+    protected List<Task> loadDueTasks(List<Long> taskIds, Instant now) {
+        return taskRepository.list(
+                "id in ?1 and active = true and nextRunAt <= ?2 and (leaseUntil is null or leaseUntil <= ?2)",
+                taskIds, now);
+    }
+
+    private record ScheduledRun(Long taskId, Instant nextRunAt) {
+    }
+}
@@ -4,18 +4,29 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 import com.windschief.auth.SpotifyTokenService;
+import com.windschief.client.Futures;
 import com.windschief.client.HttpClientService;
+import com.windschief.releasedetection.ReleaseRadarConfig.DetectionMode;
+import com.windschief.releasedetection.TaskExecutionJournal.Stage;
 import com.windschief.spotify.SpotifyApi;
-import com.windschief.spotify.model.AlbumItem;
-import com.windschief.spotify.model.PlaylistAddItemsRequest;
-import com.windschief.spotify.model.TrackItem;
-import com.windschief.spotify.model.TracksResponse;
+import com.windschief.spotify.SpotifyPagination;
+import com.windschief.spotify.model.AlbumSummary;
+import com.windschief.spotify.model.TrackSummariesResponse;
+import com.windschief.spotify.model.TrackSummary;
 import com.windschief.task.Task;
 import com.windschief.task.TaskRepository;
 import com.windschief.task.added_item.AddedItem;
@@ -25,7 +36,6 @@ import com.windschief.task.added_item.AddedItemType;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import io.quarkus.logging.Log;
-import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -33,7 +43,8 @@ import jakarta.ws.rs.WebApplicationException;
 
 @ApplicationScoped
 public class ReleaseRadarService {
-    private static final int CHUNK_SIZE = 100;
+    private static final int PAGE_SIZE = 50;
+    private static final int ALBUMS_PER_REQUEST = 20;
 
     private final ReleaseDetectionService releaseDetectionService;
     private final TaskRepository taskRepository;
@@ -41,8 +52,14 @@ public class ReleaseRadarService {
     private final SpotifyApi spotifyApi;
     private final AddedItemRepository addedItemRepository;
     private final HttpClientService httpClientService;
-
-    private final ConcurrentMap<Long, Boolean> processingTasks = new ConcurrentHashMap<>();
+    private final ArtistAlbumCache artistAlbumCache;
+    private final AlbumTracksCache albumTracksCache;
+    private final PlaylistWriter playlistWriter;
+    private final TaskExecutionJournalRepository taskExecutionJournalRepository;
+    private final ReleaseRadarExecutor releaseRadarExecutor;
+    private final TaskLeaseManager taskLeaseManager;
+    private final DetectionMode detectionMode;
+    private final Duration journalMaxAge;
 
     @Inject
     public ReleaseRadarService(
@@ -51,49 +68,133 @@ public class ReleaseRadarService {
             SpotifyTokenService spotifyTokenService,
             @RestClient SpotifyApi spotifyApi,
             AddedItemRepository addedItemRepository,
-            HttpClientService httpClientService) {
+            HttpClientService httpClientService,
+            ArtistAlbumCache artistAlbumCache,
+            AlbumTracksCache albumTracksCache,
+            PlaylistWriter playlistWriter,
+            TaskExecutionJournalRepository taskExecutionJournalRepository,
+            ReleaseRadarExecutor releaseRadarExecutor,
+            TaskLeaseManager taskLeaseManager,
+            ReleaseRadarConfig releaseRadarConfig) {
         this.releaseDetectionService = releaseDetectionService;
         this.taskRepository = taskRepository;
         this.spotifyTokenService = spotifyTokenService;
         this.spotifyApi = spotifyApi;
         this.addedItemRepository = addedItemRepository;
         this.httpClientService = httpClientService;
+        this.artistAlbumCache = artistAlbumCache;
+        this.albumTracksCache = albumTracksCache;
+        this.playlistWriter = playlistWriter;
+        this.taskExecutionJournalRepository = taskExecutionJournalRepository;
+        this.releaseRadarExecutor = releaseRadarExecutor;
+        this.taskLeaseManager = taskLeaseManager;
+        this.detectionMode = releaseRadarConfig.detectionMode();
+        this.journalMaxAge = releaseRadarConfig.journal().maxAge();
     }
 
-    @Counted(value = "release.radar.jobs", description = "Number of release radar jobs executed")
-    @Timed(value = "release.radar.job.duration", description = "Time taken to execute release radar jobs")
-    @Scheduled(every = "24h")
-    public void addNewReleases() {
+    /**
+     * Executes a batch of tasks, sharing artist lookups between them. Tasks that
+     * are leased by another node or no longer due are skipped.
+     */
+    @Counted(value = "release.radar.jobs", description = "Number of release radar batches executed")
+    @Timed(value = "release.radar.job.duration", description = "Time taken to execute release radar batches")
+    public void executeTasks(List<Task> tasks) {
         Instant startTime = Instant.now();
-        Log.info("Starting release radar job");
 
-        List<Task> tasks = taskRepository.findAll().stream()
-                .filter(Task::isActive)
-                .filter(Task::isDue)
+        final List<Task> leasedTasks = tasks.stream()
+                .filter(task -> taskLeaseManager.acquireDue(task.getId()))
                 .toList();
+        final List<Task> executableTasks = skipTasksWithFailedTokenRefresh(leasedTasks);
 
-        tasks.forEach(this::execute);
+        final long runId = artistAlbumCache.beginRun();
+        try {
+            final Map<Long, List<AlbumSummary>> detectedAlbumReleases = detectAlbumReleasesByArtist(executableTasks);
+            releaseRadarExecutor.executeAll(executableTasks,
+                    task -> execute(task, detectedAlbumReleases.get(task.getId())));
+        } finally {
+            artistAlbumCache.endRun(runId);
+        }
 
-        Log.info(String.format("Release radar job completed in %s seconds for %d tasks",
-                Duration.between(startTime, Instant.now()).toSeconds(), tasks.size()));
+        Log.info(String.format("Release radar batch completed in %s seconds for %d of %d tasks",
+                Duration.between(startTime, Instant.now()).toSeconds(), executableTasks.size(), tasks.size()));
     }
 
+    /**
+     * Skips the tasks of users whose refresh token has been rejected by
+     * Spotify. Their next run is scheduled as if they had been executed.
+     */
+    private List<Task> skipTasksWithFailedTokenRefresh(List<Task> leasedTasks) {
+        if (leasedTasks.isEmpty()) {
+            return leasedTasks;
+        }
+
+        final Set<String> usersWithFailedRefresh = spotifyTokenService.findUsersWithFailedRefresh(
+                leasedTasks.stream().map(Task::getUserId).collect(Collectors.toSet()));
+        if (usersWithFailedRefresh.isEmpty()) {
+            return leasedTasks;
+        }
+
+        final List<Task> executableTasks = new ArrayList<>(leasedTasks.size());
+        for (Task task : leasedTasks) {
+            if (!usersWithFailedRefresh.contains(task.getUserId())) {
+                executableTasks.add(task);
+                continue;
+            }
+            Log.info(String.format("Skipping task, refresh token has been rejected [taskId=%s, userId=%s]",
+                    task.getId(), task.getUserId()));
+            try {
+                updateTasksLastExecution(task.getId());
+            } finally {
+                taskLeaseManager.release(task.getId());
+            }
+        }
+        return executableTasks;
+    }
+
+    public void execute(Task task) {
+        if (!taskLeaseManager.acquire(task.getId())) {
+            Log.info(String.format("Task execution is already in progress [taskId=%s]", task.getId()));
+            return;
+        }
+        execute(task, null);
+    }
+
+    /**
+     * Executes a leased task and releases the lease afterwards. If the new album
+     * releases of the task have already been detected (artist detection mode),
+     * they are used instead of running the detection for the task. The progress
+     * is recorded in a {@link TaskExecutionJournal}, so that an interrupted
+     * execution is resumed from its last completed stage by the next run.
+     */
     @Counted(value = "release.radar.tasks", description = "Number of individual tasks processed")
     @Timed(value = "release.radar.task.duration", description = "Time taken to process individual tasks")
-    public void execute(Task task) {
+    protected void execute(Task task, List<AlbumSummary> detectedAlbumReleases) {
         final long taskId = task.getId();
-        processingTasks.put(taskId, true);
 
         try {
-            final List<AlbumItem> newAlbumReleases = releaseDetectionService.detectNewAlbumReleases(taskId);
+            TaskExecutionJournal journal = resumeExecution(task);
+            if (journal == null) {
+                final List<AlbumSummary> newAlbumReleases = detectedAlbumReleases != null
+                        ? detectedAlbumReleases
+                        : releaseDetectionService.detectNewAlbumReleases(taskId);
+                journal = newAlbumReleases.isEmpty() ? null : startExecution(task, newAlbumReleases);
+            } else {
+                Log.info(String.format("Resuming interrupted task execution [taskId=%s, stage=%s, writtenItems=%d]",
+                        taskId, journal.getStage(), journal.getWrittenItems()));
+            }
 
             int addedTracks = 0;
-            if (!newAlbumReleases.isEmpty()) {
-                final String token = spotifyTokenService.getValidBearerAccessToken(task.getUserId());
-                final List<TrackItem> newTrackReleases = fetchTracksFromAlbums(token, newAlbumReleases);
-                addTracksToPlaylist(token, task, newTrackReleases);
-                updateAddedTaskItems(task, newAlbumReleases, newTrackReleases);
-                addedTracks = newTrackReleases.size();
+            if (journal != null) {
+                if (journal.getStage() != Stage.CHUNKS_WRITTEN) {
+                    final String token = spotifyTokenService.getValidBearerAccessToken(task.getUserId());
+                    if (journal.getStage() == Stage.ALBUMS_DETECTED) {
+                        recordTracksFetched(journal,
+                                removeAddedTracks(task, fetchTracksFromAlbums(token, journal.getAlbums())));
+                    }
+                    addTracksToPlaylist(token, task, journal);
+                }
+                updateAddedTaskItems(task, journal.getAlbums(), journal.getTracks());
+                addedTracks = journal.getTracks().size();
             }
 
             Log.info(String.format("Task executed successfully [taskId=%s, userId=%s, playlistId=%s, addedTracks=%d]",
@@ -102,78 +203,231 @@ public class ReleaseRadarService {
             Log.error(String.format("Failed to execute task [taskId=%s, userId=%s, playlistId=%s]",
                     task.getId(), task.getUserId(), task.getPlaylistId()), e);
         } finally {
-            updateTasksLastExecution(task.getId());
-            processingTasks.put(taskId, false);
+            try {
+                updateTasksLastExecution(taskId);
+            } finally {
+                taskLeaseManager.release(taskId);
+            }
+        }
+    }
+
+    /**
+     * Returns the journal of an interrupted execution of the task, if it can
+     * be resumed. Executions that are too old or wrote to another playlist
+     * are abandoned; the tracks they have already written to the playlist of
+     * the task are recorded, so that they are not added again.
+     */
+    @Transactional
+    protected TaskExecutionJournal resumeExecution(Task task) {
+        final TaskExecutionJournal journal = taskExecutionJournalRepository.findById(task.getId());
+        if (journal == null) {
+            return null;
+        }
+
+        final boolean samePlaylist = Objects.equals(journal.getPlaylistId(), task.getPlaylistId());
+        if (samePlaylist && journal.getStartedAt().plus(journalMaxAge).isAfter(Instant.now())) {
+            return journal;
+        }
+
+        Log.info(String.format("Abandoning interrupted task execution [taskId=%s, stage=%s, startedAt=%s]",
+                task.getId(), journal.getStage(), journal.getStartedAt()));
+        if (samePlaylist && journal.getWrittenItems() > 0) {
+            persistAddedItems(task, List.of(), journal.getTracks().subList(0, journal.getWrittenItems()));
+        }
+        taskExecutionJournalRepository.delete(journal);
+        return null;
+    }
+
+    @Transactional
+    protected TaskExecutionJournal startExecution(Task task, List<AlbumSummary> newAlbumReleases) {
+        final TaskExecutionJournal journal = new TaskExecutionJournal(task.getId(), task.getPlaylistId(),
+                newAlbumReleases, Instant.now());
+        taskExecutionJournalRepository.persist(journal);
+        return journal;
+    }
+
+    @Transactional
+    protected void recordTracksFetched(TaskExecutionJournal journal, List<TrackSummary> newTrackReleases) {
+        journal.recordTracksFetched(newTrackReleases, Instant.now());
+        taskExecutionJournalRepository.save(journal);
+    }
+
+    @Transactional
+    protected void recordWrittenItems(TaskExecutionJournal journal, int writtenItems) {
+        journal.recordWrittenItems(writtenItems, Instant.now());
+        taskExecutionJournalRepository.updateWrittenItems(journal.getTaskId(), journal.getWrittenItems(),
+                journal.getStage(), journal.getUpdatedAt());
+    }
+
+    private Map<Long, List<AlbumSummary>> detectAlbumReleasesByArtist(List<Task> tasks) {
+        if (detectionMode != DetectionMode.ARTIST || tasks.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            return releaseDetectionService.detectNewAlbumReleasesByArtist(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        } catch (Exception e) {
+            Log.error("Artist based release detection failed, falling back to task detection", e);
+            return Map.of();
         }
     }
 
-    public boolean isTaskProcessing(Long taskId) {
-        return processingTasks.getOrDefault(taskId, false);
+    public boolean isTaskProcessing(Task task) {
+        return taskLeaseManager.isLeased(task);
     }
 
     @Counted(value = "spotify.tracks.fetch")
     @Timed(value = "spotify.tracks.fetch.duration", description = "Time taken to fetch tracks from albums")
-    protected List<TrackItem> fetchTracksFromAlbums(String token, List<AlbumItem> newAlbumReleases)
+    protected List<TrackSummary> fetchTracksFromAlbums(String token, List<AlbumSummary> newAlbumReleases)
             throws WebApplicationException, IOException, InterruptedException {
-        final List<TrackItem> tracks = new ArrayList<>();
-
         final List<String> albumIds = newAlbumReleases.stream()
-                .map(AlbumItem::id)
+                .map(AlbumSummary::id)
                 .toList();
+        final Map<String, CompletableFuture<List<TrackSummary>>> albumTracks = albumTracksCache.getAllAsync(albumIds,
+                unknownAlbumIds -> fetchAlbumTracks(token, unknownAlbumIds));
+
+        // the same track can be part of several releases, e.g. a single and its album
+        final Map<String, TrackSummary> tracks = new LinkedHashMap<>();
         for (String albumId : albumIds) {
-            TracksResponse response = spotifyApi.getAlbumTracks(token, albumId, 50, 0);
-            while (true) {
-                tracks.addAll(response.items());
-                if (response.next() == null) {
-                    break;
-                }
+            Futures.await(albumTracks.get(albumId)).forEach(track -> tracks.putIfAbsent(track.id(), track));
+        }
 
-                response = httpClientService.get(response.next(), token, TracksResponse.class);
+        return List.copyOf(tracks.values());
+    }
+
+    /**
+     * Fetches the albums in batches with their first tracks embedded. The
+     * remaining track pages are only requested for albums with more tracks,
+     * and albums missing from a batch, or of a batch that could not be
+     * fetched, are fetched one by one. All requests are sent concurrently,
+     * paced by the rate limiter.
+     */
+    private Map<String, CompletableFuture<List<TrackSummary>>> fetchAlbumTracks(String token, List<String> albumIds) {
+        final Map<String, CompletableFuture<List<TrackSummary>>> albumTracks = new HashMap<>();
+        for (int i = 0; i < albumIds.size(); i += ALBUMS_PER_REQUEST) {
+            final List<String> batch = albumIds.subList(i, Math.min(i + ALBUMS_PER_REQUEST, albumIds.size()));
+            final CompletableFuture<Map<String, TrackSummariesResponse>> firstPages = httpClientService
+                    .sendAsync(() -> spotifyApi.getSeveralAlbumsAsync(token, String.join(",", batch)))
+                    .thenApply(response -> {
+                        final Map<String, TrackSummariesResponse> pages = new HashMap<>();
+                        response.albums().stream()
+                                .filter(album -> album != null && album.tracks() != null)
+                                .forEach(album -> pages.put(album.id(), album.tracks()));
+                        return pages;
+                    })
+                    .exceptionally(e -> {
+                        Log.warn(String.format("Failed to fetch albums, fetching them one by one [albumIds=%s]: %s",
+                                batch, Futures.unwrap(e).getMessage()));
+                        return Map.of();
+                    });
+            for (String albumId : batch) {
+                albumTracks.put(albumId, firstPages.thenCompose(pages -> {
+                    final TrackSummariesResponse firstPage = pages.get(albumId);
+                    return firstPage != null
+                            ? fetchRemainingTracks(token, firstPage)
+                            : httpClientService
+                                    .sendAsync(() -> spotifyApi.getAlbumTracksAsync(token, albumId, PAGE_SIZE, 0))
+                                    .thenCompose(page -> fetchRemainingTracks(token, page));
+                }));
             }
         }
+        return albumTracks;
+    }
 
-        return tracks;
+    private CompletableFuture<List<TrackSummary>> fetchRemainingTracks(String token,
+            TrackSummariesResponse firstPage) {
+        return SpotifyPagination.fetchAll(firstPage,
+                url -> httpClientService.getAsync(url, token, TrackSummariesResponse.class));
     }
 
+    /**
+     * Adds the tracks of the journal that have not been written yet, recording
+     * the progress after every chunk.
+     */
     @Counted(value = "spotify.playlist.update")
     @Timed(value = "spotify.playlist.update.duration", description = "Time taken to add tracks to playlist")
-    protected void addTracksToPlaylist(String token, Task task, List<TrackItem> newTrackReleases)
-            throws WebApplicationException {
-        final List<String> trackUris = newTrackReleases.stream()
-                .map(TrackItem::uri)
+    protected void addTracksToPlaylist(String token, Task task, TaskExecutionJournal journal)
+            throws PlaylistWriteException {
+        final int previouslyWrittenItems = journal.getWrittenItems();
+        final List<String> trackUris = journal.getTracks().subList(previouslyWrittenItems, journal.getTracks().size())
+                .stream()
+                .map(TrackSummary::uri)
                 .toList();
-        for (int i = 0; i < trackUris.size(); i += CHUNK_SIZE) {
-            final List<String> idsChunk = trackUris.stream()
-                    .skip(i)
-                    .limit(CHUNK_SIZE)
-                    .toList();
-            final PlaylistAddItemsRequest request = new PlaylistAddItemsRequest(idsChunk, null);
-            spotifyApi.addToPlaylist(token, task.getPlaylistId(), request);
+        playlistWriter.append(token, task.getPlaylistId(), trackUris,
+                writtenItems -> recordWrittenItems(journal, previouslyWrittenItems + writtenItems));
+    }
+
+    /**
+     * Removes the tracks that have already been added by a previous run which
+     * failed after adding part of them.
+     */
+    @Transactional
+    protected List<TrackSummary> removeAddedTracks(Task task, List<TrackSummary> tracks) {
+        if (tracks.isEmpty()) {
+            return tracks;
         }
+        final Set<String> addedTrackIds = addedItemRepository.findAddedExternalIds(task.getId(),
+                AddedItemType.TRACK, tracks.stream().map(TrackSummary::id).toList());
+        if (addedTrackIds.isEmpty()) {
+            return tracks;
+        }
+        return tracks.stream()
+                .filter(track -> !addedTrackIds.contains(track.id()))
+                .toList();
     }
 
+    /**
+     * Records the added items and completes the execution journal of the task.
+     */
     @Transactional
-    protected void updateAddedTaskItems(Task task, List<AlbumItem> newAlbumReleases, List<TrackItem> newTrackReleases) {
-        Instant now = Instant.now();
-        for (AlbumItem album : newAlbumReleases) {
-            AddedItem addedItem = new AddedItem();
-            addedItem.setTask(task);
-            addedItem.setExternalId(album.id());
-            addedItem.setItemType(AddedItemType.ALBUM);
-            addedItem.setAddedAt(now);
-            addedItemRepository.persist(addedItem);
-        }
-
-        for (TrackItem track : newTrackReleases) {
-            AddedItem addedItem = new AddedItem();
-            addedItem.setTask(task);
-            addedItem.setExternalId(track.id());
-            addedItem.setItemType(AddedItemType.TRACK);
-            addedItem.setAddedAt(now);
-            addedItemRepository.persist(addedItem);
+    protected void updateAddedTaskItems(Task task, List<AlbumSummary> newAlbumReleases,
+            List<TrackSummary> newTrackReleases) {
+        persistAddedItems(task, newAlbumReleases, newTrackReleases);
+        taskExecutionJournalRepository.deleteById(task.getId());
+    }
+
+    /**
+     * Records the items in the history of the task. Items that are listed
+     * twice or are already recorded, e.g. by an abandoned execution, are
+     * skipped, so that the unique index on the history does not roll back the
+     * whole write. Executions of a task are serialized by its lease, so no
+     * other writer can record the same items concurrently.
+     */
+    private void persistAddedItems(Task task, List<AlbumSummary> newAlbumReleases,
+            List<TrackSummary> newTrackReleases) {
+        final Instant now = Instant.now();
+        final List<AddedItem> addedItems = new ArrayList<>(newAlbumReleases.size() + newTrackReleases.size());
+        addNewItems(addedItems, task, AddedItemType.ALBUM, newAlbumReleases.stream().map(AlbumSummary::id), now);
+        addNewItems(addedItems, task, AddedItemType.TRACK, newTrackReleases.stream().map(TrackSummary::id), now);
+
+        // written with JDBC batching on flush, see quarkus.hibernate-orm.jdbc.statement-batch-size
+        addedItemRepository.persist(addedItems);
+    }
+
+    private void addNewItems(List<AddedItem> addedItems, Task task, AddedItemType itemType,
+            Stream<String> externalIds, Instant addedAt) {
+        final Set<String> newIds = externalIds.collect(Collectors.toCollection(LinkedHashSet::new));
+        if (newIds.isEmpty()) {
+            return;
+        }
+        newIds.removeAll(addedItemRepository.findAddedExternalIds(task.getId(), itemType, List.copyOf(newIds)));
+        for (String externalId : newIds) {
+            addedItems.add(createAddedItem(task, externalId, itemType, addedAt));
         }
     }
 
+    private static AddedItem createAddedItem(Task task, String externalId, AddedItemType itemType, Instant addedAt) {
+        final AddedItem addedItem = new AddedItem();
+        addedItem.setTask(task);
+        addedItem.setExternalId(externalId);
+        addedItem.setItemType(itemType);
+        addedItem.setAddedAt(addedAt);
+        return addedItem;
+    }
+
     @Transactional
     protected void updateTasksLastExecution(long taskId) {
         Task task = taskRepository.findById(taskId);
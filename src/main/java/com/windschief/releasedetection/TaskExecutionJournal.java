@@ -0,0 +1,100 @@
+package com.windschief.releasedetection;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.windschief.spotify.model.AlbumSummary;
+import com.windschief.spotify.model.TrackSummary;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+
+/**
+ * Progress of a task execution that has not finished yet. An execution
+ * detects new albums, fetches their tracks, writes the tracks to the
+ * playlist in chunks and finally persists the added items, which removes the
+ * journal in the same transaction.
+ */
+@Entity
+public class TaskExecutionJournal {
+    public enum Stage {
+        ALBUMS_DETECTED,
+        TRACKS_FETCHED,
+        CHUNKS_WRITTEN
+    }
+
+    @Id
+    private Long taskId;
+    private String playlistId;
+    @Enumerated(EnumType.STRING)
+    private Stage stage;
+    @Convert(converter = AlbumSummaryListConverter.class)
+    @Column(columnDefinition = "text")
+    private List<AlbumSummary> albums;
+    @Convert(converter = TrackSummaryListConverter.class)
+    @Column(columnDefinition = "text")
+    private List<TrackSummary> tracks;
+    private int writtenItems;
+    private Instant startedAt;
+    private Instant updatedAt;
+
+    protected TaskExecutionJournal() {
+    }
+
+    public TaskExecutionJournal(Long taskId, String playlistId, List<AlbumSummary> albums, Instant startedAt) {
+        this.taskId = taskId;
+        this.playlistId = playlistId;
+        this.stage = Stage.ALBUMS_DETECTED;
+        this.albums = List.copyOf(albums);
+        this.startedAt = startedAt;
+        this.updatedAt = startedAt;
+    }
+
+    public void recordTracksFetched(List<TrackSummary> fetchedTracks, Instant now) {
+        this.tracks = List.copyOf(fetchedTracks);
+        this.stage = fetchedTracks.isEmpty() ? Stage.CHUNKS_WRITTEN : Stage.TRACKS_FETCHED;
+        this.updatedAt = now;
+    }
+
+    public void recordWrittenItems(int newWrittenItems, Instant now) {
+        this.writtenItems = newWrittenItems;
+        this.stage = newWrittenItems >= tracks.size() ? Stage.CHUNKS_WRITTEN : Stage.TRACKS_FETCHED;
+        this.updatedAt = now;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public String getPlaylistId() {
+        return playlistId;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public List<AlbumSummary> getAlbums() {
+        return albums;
+    }
+
+    public List<TrackSummary> getTracks() {
+        return tracks;
+    }
+
+    public int getWrittenItems() {
+        return writtenItems;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
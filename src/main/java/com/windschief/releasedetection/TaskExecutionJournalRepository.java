@@ -0,0 +1,26 @@
+package com.windschief.releasedetection;
+
+import java.time.Instant;
+
+import com.windschief.releasedetection.TaskExecutionJournal.Stage;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class TaskExecutionJournalRepository implements PanacheRepositoryBase<TaskExecutionJournal, Long> {
+    /**
+     * Inserts or replaces the journal of the task.
+     */
+    public void save(TaskExecutionJournal journal) {
+        getEntityManager().merge(journal);
+    }
+
+    /**
+     * Records the written items without rewriting the albums and tracks.
+     */
+    public void updateWrittenItems(Long taskId, int writtenItems, Stage stage, Instant updatedAt) {
+        update("writtenItems = ?1, stage = ?2, updatedAt = ?3 where taskId = ?4", writtenItems, stage, updatedAt,
+                taskId);
+    }
+}
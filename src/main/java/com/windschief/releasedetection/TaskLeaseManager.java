@@ -0,0 +1,98 @@
+package com.windschief.releasedetection;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.windschief.task.Task;
+import com.windschief.task.TaskRepository;
+
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Leases tasks in the database while they are executed, so that every run is
+ * executed by exactly one node and all nodes see which tasks are in progress.
+ * Leases are renewed periodically while the task runs and expire if the
+ * owning node stops.
+ */
+@ApplicationScoped
+public class TaskLeaseManager {
+    private final TaskRepository taskRepository;
+    private final String owner;
+    private final Duration leaseDuration;
+
+    private final Set<Long> heldLeases = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    public TaskLeaseManager(TaskRepository taskRepository, ReleaseRadarConfig releaseRadarConfig) {
+        this.taskRepository = taskRepository;
+        this.owner = releaseRadarConfig.lease().owner().orElseGet(TaskLeaseManager::defaultOwner);
+        this.leaseDuration = releaseRadarConfig.lease().duration();
+    }
+
+    /**
+     * Leases the task regardless of whether it is due, e.g. for a manual run.
+     */
+    @Transactional
+    public boolean acquire(Long taskId) {
+        return acquire(taskId, false);
+    }
+
+    /**
+     * Leases the task if it is active and still due.
+     */
+    @Transactional
+    public boolean acquireDue(Long taskId) {
+        return acquire(taskId, true);
+    }
+
+    @Transactional
+    public void release(Long taskId) {
+        heldLeases.remove(taskId);
+        taskRepository.releaseLease(taskId, owner);
+    }
+
+    public boolean isLeased(Task task) {
+        return heldLeases.contains(task.getId()) || task.isLeased(Instant.now());
+    }
+
+    @Scheduled(every = "${release-radar.lease.renew-interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    @Transactional
+    public void renew() {
+        final List<Long> taskIds = List.copyOf(heldLeases);
+        if (taskIds.isEmpty()) {
+            return;
+        }
+
+        final int renewed = taskRepository.renewLeases(taskIds, owner, Instant.now().plus(leaseDuration));
+        if (renewed < taskIds.size()) {
+            Log.warn(String.format("Renewed only %d of %d task leases [owner=%s]", renewed, taskIds.size(), owner));
+        }
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private boolean acquire(Long taskId, boolean dueOnly) {
+        final Instant now = Instant.now();
+        if (!taskRepository.acquireLease(taskId, owner, now, now.plus(leaseDuration), dueOnly)) {
+            return false;
+        }
+        heldLeases.add(taskId);
+        return true;
+    }
+
+    private static String defaultOwner() {
+        final String host = System.getenv().getOrDefault("HOSTNAME", "node");
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
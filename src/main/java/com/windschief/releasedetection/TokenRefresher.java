@@ -0,0 +1,99 @@
+package com.windschief.releasedetection;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.windschief.auth.SpotifyTokenException;
+import com.windschief.auth.SpotifyTokenRepository;
+import com.windschief.auth.SpotifyTokenService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Refreshes the access tokens of users with upcoming task runs ahead of time,
+ * so that task execution does not wait for a round trip to the Spotify
+ * accounts service. Rejected refresh tokens are recorded by the token service,
+ * and the tasks of those users are skipped until a new one is stored.
+ */
+@ApplicationScoped
+public class TokenRefresher {
+    private final SpotifyTokenRepository tokenRepository;
+    private final SpotifyTokenService spotifyTokenService;
+    private final Duration lookahead;
+    private final int maxConcurrency;
+    private final int batchSize;
+
+    private final Counter refreshedCounter;
+    private final Counter failedCounter;
+
+    @Inject
+    public TokenRefresher(SpotifyTokenRepository tokenRepository, SpotifyTokenService spotifyTokenService,
+            ReleaseRadarConfig releaseRadarConfig, MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.spotifyTokenService = spotifyTokenService;
+        this.lookahead = releaseRadarConfig.tokenRefresh().lookahead();
+        this.maxConcurrency = releaseRadarConfig.tokenRefresh().maxConcurrency();
+        this.batchSize = releaseRadarConfig.tokenRefresh().batchSize();
+
+        this.refreshedCounter = Counter.builder("spotify.token.refresh.background")
+                .description("Number of access tokens refreshed ahead of task runs")
+                .tag("result", "refreshed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("spotify.token.refresh.background")
+                .description("Number of access tokens refreshed ahead of task runs")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(every = "${release-radar.token-refresh.interval}", concurrentExecution = ConcurrentExecution.SKIP)
+    public void refreshExpiringTokens() {
+        final Instant until = Instant.now().plus(lookahead);
+
+        int processed = 0;
+        List<String> userIds = findUserIdsToRefresh(until, null);
+        while (!userIds.isEmpty()) {
+            refreshAll(userIds, until);
+            processed += userIds.size();
+            if (userIds.size() < batchSize) {
+                break;
+            }
+            userIds = findUserIdsToRefresh(until, userIds.getLast());
+        }
+
+        if (processed > 0) {
+            Log.info(String.format("Processed %d expiring access tokens ahead of task runs", processed));
+        }
+    }
+
+    @Transactional
+    protected List<String> findUserIdsToRefresh(Instant until, String afterUserId) {
+        return tokenRepository.findUserIdsToRefresh(until, until, afterUserId, batchSize);
+    }
+
+    private void refreshAll(List<String> userIds, Instant until) {
+        try (ExecutorService executor = Executors.newFixedThreadPool(maxConcurrency, Thread.ofVirtual().factory())) {
+            userIds.forEach(userId -> executor.execute(() -> refresh(userId, until)));
+        }
+    }
+
+    private void refresh(String userId, Instant until) {
+        try {
+            spotifyTokenService.refreshAccessTokenIfExpiring(userId, until);
+            refreshedCounter.increment();
+        } catch (SpotifyTokenException | RuntimeException e) {
+            failedCounter.increment();
+            Log.warn(String.format("Failed to refresh access token ahead of time [userId=%s]: %s",
+                    userId, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.windschief.releasedetection;
+
+import java.util.List;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.windschief.spotify.model.TrackSummary;
+
+import jakarta.persistence.Converter;
+
+@Converter
+public class TrackSummaryListConverter extends JsonListConverter<TrackSummary> {
+    public TrackSummaryListConverter() {
+        super(new TypeReference<List<TrackSummary>>() {
+        }, "tracks");
+    }
+}
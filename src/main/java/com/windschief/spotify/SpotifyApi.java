@@ -1,14 +1,20 @@
 package com.windschief.spotify;
 
+import java.util.concurrent.CompletionStage;
+
+import com.windschief.spotify.model.AlbumSummariesResponse;
 import com.windschief.spotify.model.AlbumsResponse;
 import com.windschief.spotify.model.FollowingResponse;
 import com.windschief.spotify.model.PlaylistAddItemsRequest;
 import com.windschief.spotify.model.SearchResponse;
+import com.windschief.spotify.model.SeveralAlbumsResponse;
 
 import com.windschief.spotify.model.SpotifyUser;
 import com.windschief.spotify.model.TokenResponse;
+import com.windschief.spotify.model.TrackSummariesResponse;
 import com.windschief.spotify.model.TracksResponse;
 
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -26,6 +32,7 @@ import jakarta.ws.rs.core.MediaType;
 
 @Path("/v1")
 @RegisterRestClient(configKey = "spotify-api")
+@RegisterProvider(SpotifyETagFilter.class)
 @RetrySpotify
 @ApplicationScoped
 public interface SpotifyApi {
@@ -74,6 +81,21 @@ public interface SpotifyApi {
                         @QueryParam("limit") int limit,
                         @QueryParam("offset") int offset) throws WebApplicationException;
 
+        /**
+         * Non-blocking variant of
+         * {@link #getArtistAlbums(String, String, String, int, int)} that only
+         * decodes the album fields needed for release detection. A failed
+         * request completes the stage with a {@link WebApplicationException}.
+         */
+        @GET
+        @Path("/artists/{id}/albums")
+        CompletionStage<AlbumSummariesResponse> getArtistAlbumsAsync(
+                        @HeaderParam("Authorization") String authHeader,
+                        @PathParam("id") String artistId,
+                        @QueryParam("include_groups") String includeGroups,
+                        @QueryParam("limit") int limit,
+                        @QueryParam("offset") int offset);
+
         /**
          * Get an album's tracks.
          * 
@@ -93,6 +115,36 @@ public interface SpotifyApi {
                         @QueryParam("limit") int limit,
                         @QueryParam("offset") int offset) throws WebApplicationException;
 
+        /**
+         * Non-blocking variant of {@link #getAlbumTracks(String, String, int, int)}
+         * that only decodes the track fields needed to add tracks to a playlist.
+         * A failed request completes the stage with a
+         * {@link WebApplicationException}.
+         */
+        @GET
+        @Path("/albums/{id}/tracks")
+        CompletionStage<TrackSummariesResponse> getAlbumTracksAsync(
+                        @HeaderParam("Authorization") String authHeader,
+                        @PathParam("id") String albumId,
+                        @QueryParam("limit") int limit,
+                        @QueryParam("offset") int offset);
+
+        /**
+         * Get several albums with the first page of their tracks embedded, only
+         * decoding the fields needed to add the tracks to a playlist. A failed
+         * request completes the stage with a {@link WebApplicationException}.
+         *
+         * @param authHeader The authorization header containing the access token.
+         * @param albumIds   A comma-separated list of the Spotify IDs of the
+         *                   albums. Maximum: 20 IDs.
+         * @return The albums, each with up to 50 tracks.
+         */
+        @GET
+        @Path("/albums")
+        CompletionStage<SeveralAlbumsResponse> getSeveralAlbumsAsync(
+                        @HeaderParam("Authorization") String authHeader,
+                        @QueryParam("ids") String albumIds);
+
         /**
          * Search for Spotify items.
          *
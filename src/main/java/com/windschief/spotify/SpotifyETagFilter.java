@@ -0,0 +1,113 @@
+package com.windschief.spotify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestContext;
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestFilter;
+
+import com.windschief.client.ETagStore;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.client.ClientResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ReaderInterceptor;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+
+/**
+ * Sends conditional requests for catalog pages requested through
+ * {@link SpotifyApi}. Responses with an ETag are stored once the client has
+ * decoded them, and a 304 response is answered with the stored page instead
+ * of decoding a body. The stored pages are looked up while the request is
+ * suspended, so that the calling thread is not blocked.
+ */
+@ApplicationScoped
+public class SpotifyETagFilter implements ResteasyReactiveClientRequestFilter, ClientResponseFilter,
+        ReaderInterceptor {
+    // the URL of a storable request, so that the decoded page can be stored under it
+    private static final String URL_PROPERTY = SpotifyETagFilter.class.getName() + ".url";
+    // the page type of the request, so that error bodies read by exception mappers are not stored
+    private static final String PAGE_TYPE_PROPERTY = SpotifyETagFilter.class.getName() + ".pageType";
+    // the variants the request was sent with
+    private static final String STORED_PAGES_PROPERTY = SpotifyETagFilter.class.getName() + ".storedPages";
+    // the variant a 304 response refers to
+    private static final String NOT_MODIFIED_PROPERTY = SpotifyETagFilter.class.getName() + ".notModified";
+    // never decoded, the stored page is returned instead
+    private static final byte[] NOT_MODIFIED_BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final ETagStore etagStore;
+
+    @Inject
+    public SpotifyETagFilter(ETagStore etagStore) {
+        this.etagStore = etagStore;
+    }
+
+    @Override
+    public void filter(ResteasyReactiveClientRequestContext requestContext) {
+        if (!isStorable(requestContext) || requestContext.getResponseType() == null
+                || !(requestContext.getResponseType().getType() instanceof Class<?> type)) {
+            return;
+        }
+
+        final String url = requestContext.getUri().toString();
+        requestContext.setProperty(URL_PROPERTY, url);
+        requestContext.setProperty(PAGE_TYPE_PROPERTY, type);
+        requestContext.suspend();
+        etagStore.findAsync(url, type).whenComplete((storedPages, failure) -> {
+            if (storedPages != null && !storedPages.isEmpty()) {
+                requestContext.getHeaders().putSingle(HttpHeaders.IF_NONE_MATCH, ETagStore.ifNoneMatch(storedPages));
+                requestContext.setProperty(STORED_PAGES_PROPERTY, storedPages);
+            }
+            requestContext.resume();
+        });
+    }
+
+    @Override
+    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) {
+        if (responseContext.getStatus() != Response.Status.NOT_MODIFIED.getStatusCode()
+                || !(requestContext.getProperty(STORED_PAGES_PROPERTY) instanceof List<?> storedPages)) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        final ETagStore.Entry storedPage = ETagStore.select((List<ETagStore.Entry>) storedPages,
+                responseContext.getHeaderString(HttpHeaders.ETAG));
+        if (storedPage == null) {
+            // the variant cannot be told apart, the request fails like any other error response
+            responseContext.setStatus(Response.Status.BAD_GATEWAY.getStatusCode());
+            return;
+        }
+        etagStore.recordNotModified();
+        requestContext.setProperty(NOT_MODIFIED_PROPERTY, storedPage);
+        responseContext.setStatus(Response.Status.OK.getStatusCode());
+        responseContext.getHeaders().putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        responseContext.setEntityStream(new ByteArrayInputStream(NOT_MODIFIED_BODY));
+    }
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+        if (context.getProperty(NOT_MODIFIED_PROPERTY) instanceof ETagStore.Entry storedPage) {
+            return etagStore.read(storedPage, context.getType());
+        }
+
+        final Object page = context.proceed();
+        final String etag = context.getHeaders().getFirst(HttpHeaders.ETAG);
+        if (context.getProperty(URL_PROPERTY) instanceof String url && etag != null
+                && context.getProperty(PAGE_TYPE_PROPERTY) instanceof Class<?> type && type.isInstance(page)) {
+            etagStore.put(url, etag, page);
+        }
+        return page;
+    }
+
+    private static boolean isStorable(ClientRequestContext requestContext) {
+        return HttpMethod.GET.equals(requestContext.getMethod()) && ETagStore.isStorable(requestContext.getUri());
+    }
+}
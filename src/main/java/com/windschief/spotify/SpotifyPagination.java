@@ -0,0 +1,86 @@
+package com.windschief.spotify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import com.windschief.spotify.model.SpotifyPage;
+
+/**
+ * Pages through offset-paginated Spotify responses. Once the first page is
+ * known, the URLs of all remaining pages are derived from its {@code next}
+ * link and total, so the remaining pages are requested concurrently instead
+ * of one after another.
+ */
+public final class SpotifyPagination {
+    private static final Pattern OFFSET_PARAMETER = Pattern.compile("([?&]offset=)\\d+");
+
+    private SpotifyPagination() {
+    }
+
+    /**
+     * Collects the items of the first page and all pages following it, in
+     * order.
+     *
+     * @param firstPage   the already fetched first page.
+     * @param pageFetcher fetches the page behind a URL.
+     */
+    public static <T, P extends SpotifyPage<T>> CompletableFuture<List<T>> fetchAll(P firstPage,
+            Function<String, CompletableFuture<P>> pageFetcher) {
+        return fetchRemaining(firstPage, pageFetcher, new ArrayList<>(firstPage.items()));
+    }
+
+    private static <T, P extends SpotifyPage<T>> CompletableFuture<List<T>> fetchRemaining(P page,
+            Function<String, CompletableFuture<P>> pageFetcher, List<T> items) {
+        if (page.next() == null) {
+            return CompletableFuture.completedFuture(items);
+        }
+
+        final List<String> urls = remainingPageUrls(page);
+        if (urls.isEmpty()) {
+            // next does not follow the offset scheme, follow it page by page
+            return pageFetcher.apply(page.next()).thenCompose(nextPage -> {
+                items.addAll(nextPage.items());
+                return fetchRemaining(nextPage, pageFetcher, items);
+            });
+        }
+
+        final List<CompletableFuture<P>> pages = urls.stream().map(pageFetcher).toList();
+        return CompletableFuture.allOf(pages.toArray(CompletableFuture[]::new)).thenCompose(ignored -> {
+            P lastPage = page;
+            for (CompletableFuture<P> pageFuture : pages) {
+                lastPage = pageFuture.join();
+                items.addAll(lastPage.items());
+            }
+            // the collection may have grown while paging
+            return fetchRemaining(lastPage, pageFetcher, items);
+        });
+    }
+
+    static List<String> remainingPageUrls(SpotifyPage<?> page) {
+        return pageUrls(page, 0, page.total());
+    }
+
+    /**
+     * Derives the URLs of the pages following {@code page} that hold the items
+     * from {@code fromOffset} (inclusive) to {@code toOffset} (exclusive).
+     * Returns an empty list if there are no such pages or the {@code next}
+     * link does not follow the offset scheme.
+     */
+    public static List<String> pageUrls(SpotifyPage<?> page, int fromOffset, int toOffset) {
+        if (page.next() == null || page.limit() <= 0 || !OFFSET_PARAMETER.matcher(page.next()).find()) {
+            return List.of();
+        }
+
+        final List<String> urls = new ArrayList<>();
+        final int end = Math.min(toOffset, page.total());
+        for (int offset = page.offset() + page.limit(); offset < end; offset += page.limit()) {
+            if (offset + page.limit() > fromOffset) {
+                urls.add(OFFSET_PARAMETER.matcher(page.next()).replaceFirst("$1" + offset));
+            }
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,213 @@
+package com.windschief.spotify;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.windschief.auth.SpotifyConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Process-wide limiter for requests against the Spotify Web API. Permits are
+ * handed out by a token bucket whose rate adapts with AIMD: it grows slowly
+ * while requests succeed and is cut when Spotify responds with 429. A
+ * Retry-After received by any caller pauses all callers.
+ */
+@ApplicationScoped
+public class SpotifyRateLimiter {
+    /**
+     * Number of times a request is sent before a 429 response is passed on.
+     */
+    public static final int MAX_ATTEMPTS = 3;
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(5);
+    private static final ThreadLocal<Boolean> HANDED_OVER_PERMIT = new ThreadLocal<>();
+
+    private final LongSupplier nanoClock;
+    private final double minRate;
+    private final double maxRate;
+    private final double increaseStep;
+    private final double decreaseFactor;
+    private final int burst;
+
+    private final Timer waitTimer;
+    private final Counter throttledCounter;
+
+    private double rate;
+    private double storedPermits;
+    private long nextFreeNanos;
+    private long pausedUntilNanos;
+
+    @Inject
+    public SpotifyRateLimiter(SpotifyConfig spotifyConfig, MeterRegistry meterRegistry) {
+        this(spotifyConfig, meterRegistry, System::nanoTime);
+    }
+
+    SpotifyRateLimiter(SpotifyConfig spotifyConfig, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        final SpotifyConfig.RateLimit rateLimit = spotifyConfig.rateLimit();
+        this.nanoClock = nanoClock;
+        this.minRate = rateLimit.minRate();
+        this.maxRate = rateLimit.maxRate();
+        this.increaseStep = rateLimit.increaseStep();
+        this.decreaseFactor = rateLimit.decreaseFactor();
+        this.burst = rateLimit.burst();
+        this.rate = Math.clamp(rateLimit.initialRate(), minRate, maxRate);
+        this.storedPermits = burst;
+        this.nextFreeNanos = nanoClock.getAsLong();
+        this.pausedUntilNanos = nextFreeNanos;
+
+        this.waitTimer = Timer.builder("spotify.rate.limiter.wait")
+                .description("Time callers waited for a Spotify request permit")
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("spotify.rate.limiter.throttled")
+                .description("Number of 429 responses received from Spotify")
+                .register(meterRegistry);
+        meterRegistry.gauge("spotify.rate.limiter.permits", this, SpotifyRateLimiter::getAvailablePermits);
+        meterRegistry.gauge("spotify.rate.limiter.rate", this, SpotifyRateLimiter::getRate);
+    }
+
+    /**
+     * Blocks until a request may be sent.
+     */
+    public void acquire() throws InterruptedException {
+        final Duration wait = reserve();
+        if (!wait.isZero()) {
+            TimeUnit.NANOSECONDS.sleep(wait.toNanos());
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #acquire()}. The returned future completes
+     * once the request may be sent.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        final Duration wait = reserve();
+        if (wait.isZero()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(wait.toNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Sends a request with a permit the caller has already waited for. The
+     * first Spotify request the supplier sends on this thread uses that permit
+     * instead of acquiring another one.
+     */
+    public <T> T sendWithPermit(Supplier<T> request) {
+        HANDED_OVER_PERMIT.set(Boolean.TRUE);
+        try {
+            return request.get();
+        } finally {
+            HANDED_OVER_PERMIT.remove();
+        }
+    }
+
+    /**
+     * Takes the permit handed over by {@link #sendWithPermit(Supplier)}, or
+     * blocks until a new one is available if there is none.
+     *
+     * @return whether a new permit was acquired
+     */
+    public boolean acquireUnlessHandedOver() throws InterruptedException {
+        if (HANDED_OVER_PERMIT.get() != null) {
+            HANDED_OVER_PERMIT.remove();
+            return false;
+        }
+        acquire();
+        return true;
+    }
+
+    /**
+     * Reserves a permit and returns how long the caller has to wait before
+     * sending its request.
+     */
+    public synchronized Duration reserve() {
+        final long now = nanoClock.getAsLong();
+        resync(now);
+
+        final long availableAt = Math.max(nextFreeNanos, pausedUntilNanos);
+        final double takenFromStore = Math.min(1, storedPermits);
+        storedPermits -= takenFromStore;
+        nextFreeNanos = availableAt + (long) ((1 - takenFromStore) * intervalNanos());
+
+        final Duration wait = Duration.ofNanos(Math.max(0, availableAt - now));
+        waitTimer.record(wait);
+        return wait;
+    }
+
+    public synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + increaseStep);
+    }
+
+    /**
+     * Pauses all callers for the given duration and lowers the rate. Throttle
+     * responses arriving while a pause is already in effect do not lower the
+     * rate again, so a burst of concurrent 429s only counts once.
+     */
+    public synchronized void onThrottled(Duration retryAfter) {
+        throttledCounter.increment();
+
+        final long now = nanoClock.getAsLong();
+        if (pausedUntilNanos <= now) {
+            rate = Math.max(minRate, rate * decreaseFactor);
+        }
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + retryAfter.toNanos());
+        storedPermits = 0;
+        nextFreeNanos = Math.max(nextFreeNanos, pausedUntilNanos);
+    }
+
+    /**
+     * Retry policy shared by all Spotify clients: every 429 pauses all callers
+     * for the Retry-After of the response, and the request is sent again until
+     * it has been attempted {@link #MAX_ATTEMPTS} times.
+     *
+     * @param retryAfter the Retry-After header of the response, may be null
+     * @param attempt    the attempt that was throttled, starting at 1
+     * @return whether the request should be sent again
+     */
+    public boolean onThrottled(String retryAfter, int attempt) {
+        onThrottled(parseRetryAfter(retryAfter));
+        return attempt < MAX_ATTEMPTS;
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    public synchronized double getAvailablePermits() {
+        resync(nanoClock.getAsLong());
+        return storedPermits;
+    }
+
+    /**
+     * Parses the value of a Retry-After header given in seconds.
+     */
+    public static Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+            } catch (NumberFormatException e) {
+                return DEFAULT_RETRY_AFTER;
+            }
+        }
+        return DEFAULT_RETRY_AFTER;
+    }
+
+    private void resync(long now) {
+        if (now > nextFreeNanos && now >= pausedUntilNanos) {
+            storedPermits = Math.min(burst, storedPermits + (now - nextFreeNanos) / intervalNanos());
+            nextFreeNanos = now;
+        }
+    }
+
+    private double intervalNanos() {
+        return TimeUnit.SECONDS.toNanos(1) / rate;
+    }
+}
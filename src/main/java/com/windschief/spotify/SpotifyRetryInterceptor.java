@@ -1,70 +1,66 @@
 package com.windschief.spotify;
 
-import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletionStage;
+
+import com.windschief.client.Futures;
 
 import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
 import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.Interceptor;
 import jakarta.interceptor.InvocationContext;
 import jakarta.ws.rs.WebApplicationException;
-import jakarta.ws.rs.core.Response;
 
 @Interceptor
 @RetrySpotify
 @Priority(Interceptor.Priority.APPLICATION)
 public class SpotifyRetryInterceptor {
-    private static final int MAX_RETRIES = 3;
-    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(5);
+    @Inject
+    SpotifyRateLimiter rateLimiter;
 
     @AroundInvoke
     public Object handleRetry(InvocationContext context) throws Exception {
-        int attempts = 0;
-        WebApplicationException lastException = null;
+        if (CompletionStage.class.isAssignableFrom(context.getMethod().getReturnType())) {
+            return handleAsync(context);
+        }
 
-        while (attempts < MAX_RETRIES) {
+        for (int attempt = 1;; attempt++) {
+            rateLimiter.acquire();
             try {
-                return context.proceed();
+                final Object result = context.proceed();
+                rateLimiter.onSuccess();
+                return result;
             } catch (WebApplicationException e) {
-                lastException = e;
-
-                if (e.getResponse().getStatus() == 429) {
-                    attempts++;
-
-                    Duration retryAfter = getRetryAfterDuration(e.getResponse());
-
-                    if (attempts < MAX_RETRIES) {
-                        long delayMs = retryAfter.toMillis() * (long) Math.pow(2, attempts - 1);
-                        sleep(delayMs);
-                        continue;
-                    }
+                // pauses every caller, the next acquire waits until the pause is over
+                if (e.getResponse().getStatus() == 429
+                        && rateLimiter.onThrottled(e.getResponse().getHeaderString("Retry-After"), attempt)) {
+                    continue;
                 }
-
                 throw e;
             }
         }
-
-        throw lastException;
     }
 
-    private Duration getRetryAfterDuration(Response response) {
-        String retryAfter = response.getHeaderString("Retry-After");
-        if (retryAfter != null) {
-            try {
-                return Duration.ofSeconds(Long.parseLong(retryAfter));
-            } catch (NumberFormatException e) {
-                return DEFAULT_RETRY_AFTER;
-            }
+    /**
+     * The invocation cannot be proceeded again once this method returned, so
+     * non-blocking requests are retried by HttpClientService.sendAsync, which
+     * also hands over the permit it waited for. Requests sent directly block
+     * here for a permit and report their outcome, but are not retried.
+     */
+    private Object handleAsync(InvocationContext context) throws Exception {
+        if (!rateLimiter.acquireUnlessHandedOver()) {
+            return context.proceed();
         }
-        return DEFAULT_RETRY_AFTER;
-    }
 
-    private void sleep(long milliseconds) {
-        try {
-            TimeUnit.MILLISECONDS.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Retry interrupted", e);
-        }
+        final CompletionStage<?> result = (CompletionStage<?>) context.proceed();
+        return result.whenComplete((response, failure) -> {
+            if (failure == null) {
+                rateLimiter.onSuccess();
+            } else if (Futures.unwrap(failure) instanceof WebApplicationException e
+                    && e.getResponse().getStatus() == 429) {
+                rateLimiter.onThrottled(
+                        SpotifyRateLimiter.parseRetryAfter(e.getResponse().getHeaderString("Retry-After")));
+            }
+        });
     }
 }
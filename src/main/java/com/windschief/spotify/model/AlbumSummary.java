@@ -0,0 +1,16 @@
+package com.windschief.spotify.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Slim view of {@link AlbumItem} holding only the fields needed to detect
+ * releases. All other fields are skipped while parsing.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AlbumSummary(
+                String id,
+                String uri,
+                String release_date,
+                String release_date_precision,
+                String album_group) {
+}
@@ -0,0 +1,13 @@
+package com.windschief.spotify.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Slim view of an album as returned by the several albums endpoint, holding
+ * only its id and the first page of its tracks.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record AlbumTracksSummary(
+                String id,
+                TrackSummariesResponse tracks) {
+}
@@ -10,4 +10,4 @@ public record AlbumsResponse(
         String previous,
         int total,
         List<AlbumItem> items
-) {}
+) implements SpotifyPage<AlbumItem> {}
@@ -0,0 +1,14 @@
+package com.windschief.spotify.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Albums in the order they were requested. Albums that were not found are
+ * {@code null}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SeveralAlbumsResponse(
+        List<AlbumTracksSummary> albums
+) {}
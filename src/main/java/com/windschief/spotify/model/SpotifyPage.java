@@ -0,0 +1,18 @@
+package com.windschief.spotify.model;
+
+import java.util.List;
+
+/**
+ * A page of a paginated Spotify Web API response.
+ */
+public interface SpotifyPage<T> {
+    int limit();
+
+    String next();
+
+    int offset();
+
+    int total();
+
+    List<T> items();
+}
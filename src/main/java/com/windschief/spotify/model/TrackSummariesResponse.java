@@ -0,0 +1,14 @@
+package com.windschief.spotify.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TrackSummariesResponse(
+        int limit,
+        String next,
+        int offset,
+        int total,
+        List<TrackSummary> items
+) implements SpotifyPage<TrackSummary> {}
@@ -0,0 +1,13 @@
+package com.windschief.spotify.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Slim view of {@link TrackItem} holding only the fields needed to add a track
+ * to a playlist. All other fields are skipped while parsing.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TrackSummary(
+                String id,
+                String uri) {
+}
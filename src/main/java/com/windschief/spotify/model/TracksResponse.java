@@ -9,5 +9,5 @@ public record TracksResponse(
                 int offset,
                 String previous,
                 int total,
-                List<TrackItem> items) {
+                List<TrackItem> items) implements SpotifyPage<TrackItem> {
 }
@@ -6,6 +6,8 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import com.windschief.task.item.TaskItem;
 
 import jakarta.persistence.CascadeType;
@@ -16,8 +18,11 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
 
 @Entity
+// only write changed columns, so that saving a task does not overwrite a lease taken in the meantime
+@DynamicUpdate
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,16 +36,30 @@ public class Task {
     private String name;
     private int executionIntervalDays = 7;
     private Instant lastTimeExecuted;
+    // derived from lastTimeExecuted and executionIntervalDays so that due tasks can be selected in the database
+    private Instant nextRunAt;
     private LocalDate checkFrom;
     private boolean active;
     private String userId;
     private String playlistId;
+    // written with bulk updates only, see TaskRepository#acquireLease
+    private String leaseOwner;
+    private Instant leaseUntil;
 
     public boolean isDue() {
         return lastTimeExecuted == null ||
                 lastTimeExecuted.plus(executionIntervalDays, ChronoUnit.DAYS).isBefore(Instant.now());
     }
 
+    @PrePersist
+    void updateNextRunAt() {
+        final Instant nextRun = lastTimeExecuted != null
+                ? lastTimeExecuted.plus(executionIntervalDays, ChronoUnit.DAYS)
+                : Instant.now();
+        // same precision as the column, so that a loaded value can be used as pagination cursor
+        nextRunAt = nextRun.truncatedTo(ChronoUnit.MICROS);
+    }
+
     public Long getId() {
         return id;
     }
@@ -85,6 +104,7 @@ public class Task {
 
     public void setExecutionIntervalDays(int executionIntervalDays) {
         this.executionIntervalDays = executionIntervalDays;
+        updateNextRunAt();
     }
 
     public Instant getLastTimeExecuted() {
@@ -93,6 +113,11 @@ public class Task {
 
     public void setLastTimeExecuted(Instant lastTimeExecuted) {
         this.lastTimeExecuted = lastTimeExecuted;
+        updateNextRunAt();
+    }
+
+    public Instant getNextRunAt() {
+        return nextRunAt;
     }
 
     public LocalDate getCheckFrom() {
@@ -126,4 +151,16 @@ public class Task {
     public void setPlaylistId(String playlistId) {
         this.playlistId = playlistId;
     }
-}
\ No newline at end of file
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public boolean isLeased(Instant now) {
+        return leaseUntil != null && leaseUntil.isAfter(now);
+    }
+}
@@ -0,0 +1,18 @@
+package com.windschief.task;
+
+/**
+ * Fired when a task has been created, updated or deleted, so that its
+ * schedule is only updated once the transaction has been committed.
+ *
+ * @param taskId the id of the task
+ * @param task   the task, or {@code null} if it has been deleted
+ */
+public record TaskChangedEvent(Long taskId, Task task) {
+    public static TaskChangedEvent changed(Task task) {
+        return new TaskChangedEvent(task.getId(), task);
+    }
+
+    public static TaskChangedEvent deleted(Long taskId) {
+        return new TaskChangedEvent(taskId, null);
+    }
+}
@@ -24,6 +24,6 @@ public class TaskMapper {
             task.getCheckFrom(),
             task.isActive(),
             task.getPlaylistId(),
-            releaseRadarService.isTaskProcessing(task.getId()));
+            releaseRadarService.isTaskProcessing(task));
     }
 }
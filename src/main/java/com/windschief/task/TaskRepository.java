@@ -1,9 +1,15 @@
 package com.windschief.task;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
 
 @ApplicationScoped
 public class TaskRepository implements PanacheRepository<Task> {
@@ -15,6 +21,60 @@ public class TaskRepository implements PanacheRepository<Task> {
         return count("userId = ?1", userId);
     }
 
+    /**
+     * Returns a page of active tasks whose next run is due at the given time,
+     * ordered by next run and id. Pass the next run and id of the last task of
+     * the previous page to get the following page, or {@code null} for the
+     * first one.
+     */
+    public List<Task> findDueTasks(Instant now, Instant afterNextRunAt, Long afterId, int limit) {
+        final Sort sort = Sort.by("nextRunAt").and("id");
+        if (afterId == null) {
+            return find("active = true and nextRunAt <= ?1", sort, now)
+                    .page(Page.ofSize(limit))
+                    .list();
+        }
+        return find("active = true and nextRunAt <= ?1 and (nextRunAt > ?2 or (nextRunAt = ?2 and id > ?3))",
+                sort, now, afterNextRunAt, afterId)
+                .page(Page.ofSize(limit))
+                .list();
+    }
+
+    /**
+     * Leases the task to the given owner until {@code leaseUntil}, unless it is
+     * leased by another owner. With {@code dueOnly}, the task must also be
+     * active and due, so that a run that has been completed by another node in
+     * the meantime is not executed again. The update is atomic, concurrent
+     * callers wait for the row lock and then see the lease of the winner.
+     *
+     * @return whether the lease was acquired
+     */
+    public boolean acquireLease(Long taskId, String owner, Instant now, Instant leaseUntil, boolean dueOnly) {
+        final String query = "leaseOwner = ?1, leaseUntil = ?2"
+                + " where id = ?3 and (leaseUntil is null or leaseUntil <= ?4)"
+                + (dueOnly ? " and active = true and nextRunAt <= ?4" : "");
+        return update(query, owner, leaseUntil, taskId, now) == 1;
+    }
+
+    /**
+     * Extends the leases the given owner holds on the given tasks.
+     *
+     * @return the number of leases that have been extended
+     */
+    public int renewLeases(Collection<Long> taskIds, String owner, Instant leaseUntil) {
+        return update("leaseUntil = ?1 where id in ?2 and leaseOwner = ?3", leaseUntil, taskIds, owner);
+    }
+
+    public void releaseLease(Long taskId, String owner) {
+        update("leaseOwner = null, leaseUntil = null where id = ?1 and leaseOwner = ?2", taskId, owner);
+    }
+
+    public Optional<LocalDate> findEarliestCheckFrom() {
+        return Optional.ofNullable(getEntityManager()
+                .createQuery("select min(t.checkFrom) from Task t where t.active = true", LocalDate.class)
+                .getSingleResult());
+    }
+
     public long deleteByUserId(String userId) {
         return delete("userId", userId);
     }
@@ -8,6 +8,7 @@ import com.windschief.releasedetection.ReleaseRadarService;
 import com.windschief.task.added_item.AddedItemRepository;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.core.Response;
@@ -19,16 +20,19 @@ public class TaskService implements TaskApi {
     private final AddedItemRepository addedItemRepository;
     private final SpotifyTokenService spotifyTokenService;
     private final ReleaseRadarService releaseRadarService;
+    private final Event<TaskChangedEvent> taskChanged;
     private final TaskMapper taskMapper;
 
     @Inject
     public TaskService(TaskAccess taskAccess, TaskRepository taskRepository, AddedItemRepository addedItemRepository,
-            SpotifyTokenService spotifyTokenService, ReleaseRadarService releaseRadarService, TaskMapper taskMapper) {
+            SpotifyTokenService spotifyTokenService, ReleaseRadarService releaseRadarService,
+            Event<TaskChangedEvent> taskChanged, TaskMapper taskMapper) {
         this.taskAccess = taskAccess;
         this.taskRepository = taskRepository;
         this.addedItemRepository = addedItemRepository;
         this.spotifyTokenService = spotifyTokenService;
         this.releaseRadarService = releaseRadarService;
+        this.taskChanged = taskChanged;
         this.taskMapper = taskMapper;
     }
 
@@ -71,6 +75,7 @@ public class TaskService implements TaskApi {
         Task task = TaskRequestDto.toTask(taskRequestDto);
         task.setUserId(taskAccess.getCurrentUserId());
         taskRepository.persist(task);
+        taskChanged.fire(TaskChangedEvent.changed(task));
 
         return Response.status(Response.Status.CREATED)
                 .entity(taskMapper.toDto(task))
@@ -84,11 +89,12 @@ public class TaskService implements TaskApi {
 
         taskAccess.checkAccess(task);
 
-        if (releaseRadarService.isTaskProcessing(id)) {
+        if (releaseRadarService.isTaskProcessing(task)) {
             throw new IllegalStateException("Task execution is in progress");
         }
 
         TaskRequestDto.updateTask(task, taskRequestDto);
+        taskChanged.fire(TaskChangedEvent.changed(task));
         return Response.ok(taskMapper.toDto(task)).build();
     }
 
@@ -99,12 +105,13 @@ public class TaskService implements TaskApi {
 
         taskAccess.checkAccess(task);
 
-        if (releaseRadarService.isTaskProcessing(id)) {
+        if (releaseRadarService.isTaskProcessing(task)) {
             throw new IllegalStateException("Task execution is in progress");
         }
 
         addedItemRepository.deleteByTaskIdAndUserId(id, taskAccess.getCurrentUserId());
         taskRepository.delete(task); // cascades to task items
+        taskChanged.fire(TaskChangedEvent.deleted(id));
 
         return Response.noContent().build();
     }
@@ -12,11 +12,14 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 
 @Entity
 public class AddedItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // sequence ids let Hibernate batch inserts, identity columns would force one insert per item
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "added_item_seq")
+    @SequenceGenerator(name = "added_item_seq", sequenceName = "added_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
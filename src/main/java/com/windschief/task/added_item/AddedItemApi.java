@@ -1,15 +1,20 @@
 package com.windschief.task.added_item;
 
+import java.time.Instant;
+
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -18,13 +23,24 @@ import jakarta.ws.rs.core.Response;
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Added Item Management", description = "Operations for managing added items")
 public interface AddedItemApi {
+    int DEFAULT_PAGE_SIZE = 100;
+    int MAX_PAGE_SIZE = 1000;
+
     @GET
     @APIResponse(
         responseCode = "200",
         content = @Content(
             mediaType = MediaType.APPLICATION_JSON,
-            schema = @Schema(implementation = AddedItem.class)
+            schema = @Schema(implementation = AddedItemPageDto.class)
         )
     )
-    Response getAddedItems(@PathParam("taskId") Long taskId);
-}
\ No newline at end of file
+    @APIResponse(responseCode = "400", description = "Invalid cursor or limit")
+    Response getAddedItems(
+            @PathParam("taskId") Long taskId,
+            @Parameter(description = "nextCursor of the previous page") @QueryParam("cursor") String cursor,
+            @QueryParam("itemType") AddedItemType itemType,
+            @Parameter(description = "Inclusive lower bound of addedAt") @QueryParam("addedFrom") Instant addedFrom,
+            @Parameter(description = "Exclusive upper bound of addedAt") @QueryParam("addedTo") Instant addedTo,
+            @Parameter(description = "Maximum number of items, at most " + MAX_PAGE_SIZE)
+            @QueryParam("limit") @DefaultValue("" + DEFAULT_PAGE_SIZE) int limit);
+}
@@ -0,0 +1,43 @@
+package com.windschief.task.added_item;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import jakarta.ws.rs.BadRequestException;
+
+/**
+ * Position of an item in the history of a task, which is ordered by
+ * {@code addedAt} and {@code id}, both descending. Items without
+ * {@code addedAt} come first. Clients receive it as an opaque string.
+ */
+public record AddedItemCursor(Instant addedAt, long id) {
+    private static final String SEPARATOR = "|";
+    private static final String NO_ADDED_AT = "-";
+
+    public static AddedItemCursor of(AddedItemResponseDto item) {
+        return new AddedItemCursor(item.addedAt(), item.id());
+    }
+
+    /**
+     * @throws BadRequestException if the cursor has not been created by
+     *                             {@link #encode()}.
+     */
+    public static AddedItemCursor decode(String cursor) {
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = value.lastIndexOf(SEPARATOR);
+            final String addedAt = value.substring(0, separator);
+            final long id = Long.parseLong(value.substring(separator + 1));
+            return new AddedItemCursor(NO_ADDED_AT.equals(addedAt) ? null : Instant.parse(addedAt), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        final String value = (addedAt != null ? addedAt.toString() : NO_ADDED_AT) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,13 @@
+package com.windschief.task.added_item;
+
+import java.time.Instant;
+
+/**
+ * Restricts the added items of a task. Unset fields do not restrict them;
+ * {@code addedFrom} is inclusive, {@code addedTo} exclusive.
+ */
+public record AddedItemFilter(
+        AddedItemType itemType,
+        Instant addedFrom,
+        Instant addedTo) {
+}
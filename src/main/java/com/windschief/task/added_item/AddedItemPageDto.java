@@ -0,0 +1,12 @@
+package com.windschief.task.added_item;
+
+import java.util.List;
+
+/**
+ * A page of the added items of a task, newest first. The next page is
+ * requested with {@code nextCursor}, which is {@code null} on the last page.
+ */
+public record AddedItemPageDto(
+        List<AddedItemResponseDto> items,
+        String nextCursor) {
+}
@@ -1,19 +1,87 @@
 package com.windschief.task.added_item;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
 
 @ApplicationScoped
 public class AddedItemRepository implements PanacheRepository<AddedItem> {
-    public List<AddedItem> findByTaskId(Long taskId) {
-        return list("task.id", taskId);
+    private static final int IN_CLAUSE_BATCH_SIZE = 1000;
+
+    /**
+     * Returns at most {@code limit} added items of the task following the
+     * cursor, in the order of {@link AddedItemCursor}. The items are projected
+     * to DTOs, so no entities are loaded into the persistence context.
+     */
+    public List<AddedItemResponseDto> findPage(Long taskId, AddedItemFilter filter, AddedItemCursor after,
+            int limit) {
+        final StringBuilder query = new StringBuilder("select new " + AddedItemResponseDto.class.getName()
+                + "(a.id, a.itemType, a.externalId, a.addedAt) from AddedItem a where a.task.id = :taskId");
+        if (filter.itemType() != null) {
+            query.append(" and a.itemType = :itemType");
+        }
+        if (filter.addedFrom() != null) {
+            query.append(" and a.addedAt >= :addedFrom");
+        }
+        if (filter.addedTo() != null) {
+            query.append(" and a.addedAt < :addedTo");
+        }
+        if (after != null && after.addedAt() == null) {
+            query.append(" and (a.addedAt is not null or a.id < :afterId)");
+        } else if (after != null) {
+            // the redundant bound lets the index range scan start at the cursor
+            query.append(" and a.addedAt <= :afterAddedAt"
+                    + " and (a.addedAt < :afterAddedAt or a.id < :afterId)");
+        }
+        query.append(" order by a.addedAt desc nulls first, a.id desc");
+
+        final TypedQuery<AddedItemResponseDto> page = getEntityManager()
+                .createQuery(query.toString(), AddedItemResponseDto.class)
+                .setParameter("taskId", taskId)
+                .setMaxResults(limit);
+        if (filter.itemType() != null) {
+            page.setParameter("itemType", filter.itemType());
+        }
+        if (filter.addedFrom() != null) {
+            page.setParameter("addedFrom", filter.addedFrom());
+        }
+        if (filter.addedTo() != null) {
+            page.setParameter("addedTo", filter.addedTo());
+        }
+        if (after != null) {
+            page.setParameter("afterId", after.id());
+            if (after.addedAt() != null) {
+                page.setParameter("afterAddedAt", after.addedAt());
+            }
+        }
+        return page.getResultList();
     }
 
-    public boolean existsByTaskIdAndExternalIdAndItemType(Long taskId, String externalId, AddedItemType itemType) {
-        return count("task.id = ?1 and externalId = ?2 and itemType = ?3", taskId, externalId, itemType) > 0;
+    /**
+     * Returns those of the given external ids that have already been added for
+     * the task.
+     */
+    public Set<String> findAddedExternalIds(Long taskId, AddedItemType itemType, Collection<String> externalIds) {
+        final List<String> ids = new ArrayList<>(externalIds);
+        final Set<String> addedIds = new HashSet<>();
+        for (int i = 0; i < ids.size(); i += IN_CLAUSE_BATCH_SIZE) {
+            final List<String> batch = ids.subList(i, Math.min(i + IN_CLAUSE_BATCH_SIZE, ids.size()));
+            addedIds.addAll(getEntityManager()
+                    .createQuery("select a.externalId from AddedItem a "
+                            + "where a.task.id = ?1 and a.itemType = ?2 and a.externalId in ?3", String.class)
+                    .setParameter(1, taskId)
+                    .setParameter(2, itemType)
+                    .setParameter(3, batch)
+                    .getResultList());
+        }
+        return addedIds;
     }
 
     public long deleteByTaskIdAndUserId(Long taskId, String userId) {
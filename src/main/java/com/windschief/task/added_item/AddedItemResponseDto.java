@@ -0,0 +1,10 @@
+package com.windschief.task.added_item;
+
+import java.time.Instant;
+
+public record AddedItemResponseDto(
+        Long id,
+        AddedItemType itemType,
+        String externalId,
+        Instant addedAt) {
+}
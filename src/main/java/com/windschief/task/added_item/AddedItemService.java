@@ -1,29 +1,80 @@
 package com.windschief.task.added_item;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.windschief.task.TaskAccess;
-import com.windschief.task.TaskRepository;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 @RequestScoped
 public class AddedItemService implements AddedItemApi {
     private final TaskAccess taskAccess;
     private final AddedItemRepository addedItemRepository;
+    private final ObjectMapper objectMapper;
 
     @Inject
     public AddedItemService(TaskAccess taskAccess,
-            TaskRepository taskRepository,
-            AddedItemRepository addedItemRepository) {
+            AddedItemRepository addedItemRepository,
+            ObjectMapper objectMapper) {
         this.taskAccess = taskAccess;
         this.addedItemRepository = addedItemRepository;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Returns a page of the history of the task as an {@link AddedItemPageDto}.
+     * The page is read before the response is returned, so that a failing
+     * query results in an error status instead of a truncated body with a
+     * success status. Pages are bounded by {@link #MAX_PAGE_SIZE} and are
+     * serialized while they are written to the response.
+     */
     @Override
-    public Response getAddedItems(Long taskId) {
+    public Response getAddedItems(Long taskId, String cursor, AddedItemType itemType, Instant addedFrom,
+            Instant addedTo, int limit) {
         taskAccess.checkAccess(taskId);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        final AddedItemCursor after = cursor != null ? AddedItemCursor.decode(cursor) : null;
+        final AddedItemFilter filter = new AddedItemFilter(itemType, addedFrom, addedTo);
+
+        // one more item is read to tell whether there is a next page
+        final List<AddedItemResponseDto> items = readPage(taskId, filter, after, limit + 1);
+        final StreamingOutput page = output -> writePage(output, items, limit);
+        return Response.ok(page).build();
+    }
+
+    @Transactional
+    protected List<AddedItemResponseDto> readPage(Long taskId, AddedItemFilter filter, AddedItemCursor after,
+            int limit) {
+        return addedItemRepository.findPage(taskId, filter, after, limit);
+    }
 
-        return Response.ok(addedItemRepository.findByTaskId(taskId)).build();
+    private void writePage(OutputStream output, List<AddedItemResponseDto> items, int limit) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            final Iterator<AddedItemResponseDto> iterator = items.iterator();
+            AddedItemResponseDto last = null;
+            for (int written = 0; written < limit && iterator.hasNext(); written++) {
+                last = iterator.next();
+                generator.writeObject(last);
+            }
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", iterator.hasNext() ? AddedItemCursor.of(last).encode() : null);
+            generator.writeEndObject();
+        }
     }
 }
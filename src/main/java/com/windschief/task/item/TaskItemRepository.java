@@ -1,5 +1,6 @@
 package com.windschief.task.item;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -8,10 +9,23 @@ import io.quarkus.hibernate.orm.panache.PanacheRepository;
 
 @ApplicationScoped
 public class TaskItemRepository implements PanacheRepository<TaskItem> {
+    private static final int IN_CLAUSE_BATCH_SIZE = 1000;
+
     public List<TaskItem> findByTaskId(Long taskId) {
         return list("task.id", taskId);
     }
 
+    public List<TaskItemSubscription> findSubscriptionsByTaskIds(List<Long> taskIds) {
+        final List<TaskItemSubscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < taskIds.size(); i += IN_CLAUSE_BATCH_SIZE) {
+            final List<Long> batch = taskIds.subList(i, Math.min(i + IN_CLAUSE_BATCH_SIZE, taskIds.size()));
+            subscriptions.addAll(find("task.id in ?1", batch)
+                    .project(TaskItemSubscription.class)
+                    .list());
+        }
+        return subscriptions;
+    }
+
     public List<TaskItem> findByUserId(String userId) {
         return list("task.userId", userId);
     }
@@ -0,0 +1,9 @@
+package com.windschief.task.item;
+
+import io.quarkus.hibernate.orm.panache.common.ProjectedFieldName;
+
+public record TaskItemSubscription(
+        @ProjectedFieldName("task.id") Long taskId,
+        TaskItemType itemType,
+        String externalId) {
+}
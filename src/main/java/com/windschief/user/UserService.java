@@ -1,6 +1,7 @@
 package com.windschief.user;
 
 import com.windschief.auth.SpotifyTokenRepository;
+import com.windschief.auth.SpotifyTokenService;
 import com.windschief.task.TaskMapper;
 import com.windschief.task.TaskRepository;
 import com.windschief.task.added_item.AddedItemRepository;
@@ -18,15 +19,17 @@ public class UserService implements UserApi {
 
     private final SecurityIdentity securityIdentity;
     private final SpotifyTokenRepository spotifyTokenRepository;
+    private final SpotifyTokenService spotifyTokenService;
     private final TaskRepository taskRepository;
     private final AddedItemRepository addedItemRepository;
     private final TaskItemRepository taskItemRepository;
     private final TaskMapper taskMapper;
 
     @Inject
-    public UserService(SecurityIdentity securityIdentity, SpotifyTokenRepository spotifyTokenRepository, TaskRepository taskRepository, AddedItemRepository addedItemRepository, TaskItemRepository taskItemRepository, TaskMapper taskMapper) {
+    public UserService(SecurityIdentity securityIdentity, SpotifyTokenRepository spotifyTokenRepository, SpotifyTokenService spotifyTokenService, TaskRepository taskRepository, AddedItemRepository addedItemRepository, TaskItemRepository taskItemRepository, TaskMapper taskMapper) {
         this.securityIdentity = securityIdentity;
         this.spotifyTokenRepository = spotifyTokenRepository;
+        this.spotifyTokenService = spotifyTokenService;
         this.taskRepository = taskRepository;
         this.addedItemRepository = addedItemRepository;
         this.taskItemRepository = taskItemRepository;
@@ -64,6 +67,7 @@ public class UserService implements UserApi {
         addedItemRepository.deleteByUserId(userId);
         taskRepository.deleteByUserId(userId);
         spotifyTokenRepository.deleteByUserId(userId);
+        spotifyTokenService.invalidateAccessToken(userId);
 
         return Response.noContent().build();
     }
@@ -0,0 +1,12 @@
+-- Discography state per artist, so that only the releases added since the previous scan are fetched
+CREATE TABLE artist_scan_state (
+    artist_id varchar(255) NOT NULL PRIMARY KEY,
+    total integer NOT NULL,
+    album_count integer NOT NULL,
+    covered_from date,
+    recent_albums text,
+    full_scan_at timestamp(6) with time zone
+);
+
+-- Serves the earliest check date of active tasks, which bounds the releases kept per artist
+CREATE INDEX idx_task_active_check_from ON task (check_from) WHERE active;
@@ -0,0 +1,6 @@
+-- Tracks per album, so that a release detected by many tasks is only fetched once
+CREATE TABLE album_tracks (
+    album_id varchar(255) NOT NULL PRIMARY KEY,
+    track_ids text NOT NULL,
+    fetched_at timestamp(6) with time zone NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Progress of unfinished task executions, so that an interrupted execution is resumed instead of repeated
+CREATE TABLE task_execution_journal (
+    task_id bigint NOT NULL PRIMARY KEY REFERENCES task ON DELETE CASCADE,
+    playlist_id varchar(255),
+    stage varchar(32) NOT NULL CHECK (stage IN ('ALBUMS_DETECTED','TRACKS_FETCHED','CHUNKS_WRITTEN')),
+    albums text NOT NULL,
+    tracks text,
+    written_items integer NOT NULL,
+    started_at timestamp(6) with time zone NOT NULL,
+    updated_at timestamp(6) with time zone NOT NULL
+);
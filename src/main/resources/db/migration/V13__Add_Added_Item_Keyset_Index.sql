@@ -0,0 +1,5 @@
+-- Serves the paginated history of a task, the id orders items added at the
+-- same time and makes the (added_at, id) cursor unique
+CREATE INDEX idx_added_item_task_added_at_id ON added_item (task_id, added_at DESC, id DESC);
+
+DROP INDEX idx_added_item_task_added_at;
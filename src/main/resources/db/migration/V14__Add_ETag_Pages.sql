@@ -0,0 +1,13 @@
+-- Decoded catalog pages by request URL and ETag, so that pages unchanged since
+-- the last run are answered with 304. A URL has one variant per distinct
+-- response, e.g. for users in different markets.
+CREATE TABLE etag_page (
+    url varchar(2048) NOT NULL,
+    etag varchar(255) NOT NULL,
+    page_type varchar(255) NOT NULL,
+    page text NOT NULL,
+    stored_at timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (url, etag)
+);
+
+CREATE INDEX idx_etag_page_stored_at ON etag_page (stored_at);
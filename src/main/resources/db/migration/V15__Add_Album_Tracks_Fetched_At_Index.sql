@@ -0,0 +1,2 @@
+-- Serves the purge of album tracks older than the TTL
+CREATE INDEX idx_album_tracks_fetched_at ON album_tracks (fetched_at);
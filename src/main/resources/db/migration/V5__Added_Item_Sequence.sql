@@ -0,0 +1,8 @@
+-- Hibernate cannot batch inserts into identity columns, so added_item ids are
+-- taken from a sequence instead. Its increment matches the allocation size of
+-- the pooled optimizer, which hands out the 50 ids up to each fetched value.
+CREATE SEQUENCE added_item_seq INCREMENT BY 50;
+SELECT setval('added_item_seq', COALESCE((SELECT MAX(id) FROM added_item), 0) + 50, false);
+
+ALTER TABLE added_item ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE added_item ALTER COLUMN id SET DEFAULT nextval('added_item_seq');
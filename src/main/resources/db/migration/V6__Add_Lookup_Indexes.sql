@@ -0,0 +1,19 @@
+-- Remove duplicate history entries so that the unique index can be created,
+-- keeping the earliest entry of each item.
+DELETE FROM added_item a
+    USING added_item b
+    WHERE a.task_id = b.task_id
+      AND a.item_type = b.item_type
+      AND a.external_id = b.external_id
+      AND a.id > b.id;
+
+-- Serves the "already added" lookups and prevents an item from being added twice
+CREATE UNIQUE INDEX uk_added_item_task_item_type_external_id
+    ON added_item (task_id, item_type, external_id);
+
+-- Serves the history of a task ordered by most recent additions
+CREATE INDEX idx_added_item_task_added_at ON added_item (task_id, added_at DESC);
+
+CREATE INDEX idx_task_user_id ON task (user_id);
+
+CREATE INDEX idx_task_item_task_id ON task_item (task_id);
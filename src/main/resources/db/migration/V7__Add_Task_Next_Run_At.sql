@@ -0,0 +1,9 @@
+ALTER TABLE task ADD COLUMN next_run_at timestamp(6) with time zone;
+
+UPDATE task
+    SET next_run_at = COALESCE(last_time_executed + execution_interval_days * interval '1 day', now());
+
+ALTER TABLE task ALTER COLUMN next_run_at SET NOT NULL;
+
+-- Serves the keyset paginated selection of due tasks
+CREATE INDEX idx_task_due ON task (next_run_at, id) WHERE active;
@@ -0,0 +1,3 @@
+-- Lease taken by the node executing a task, so that every run is executed by exactly one node
+ALTER TABLE task ADD COLUMN lease_owner varchar(255);
+ALTER TABLE task ADD COLUMN lease_until timestamp(6) with time zone;
@@ -0,0 +1,6 @@
+-- Set when Spotify rejects the refresh token, cleared when the user stores a new one
+ALTER TABLE spotify_token ADD COLUMN refresh_failed_at timestamp(6) with time zone;
+ALTER TABLE spotify_token ADD COLUMN refresh_error varchar(1024);
+
+-- Serves the selection of tokens to refresh ahead of scheduled runs
+CREATE INDEX idx_spotify_token_expires_at ON spotify_token (expires_at) WHERE refresh_failed_at IS NULL;
@@ -2,8 +2,10 @@ package com.windschief.auth;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -12,7 +14,14 @@ import static org.mockito.Mockito.when;
 import java.security.Principal;
 import java.time.Instant;
 import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -132,4 +141,159 @@ public class SpotifyTokenServiceTest {
         verify(tokenRepository, times(0)).persist(any(SpotifyToken.class));
         assertEquals(newRefreshToken, token.getRefreshToken());
     }
+
+    @Test
+    void givenCachedToken_whenGetValidBearerAccessToken_thenDatabaseIsNotReadAgain() throws SpotifyTokenException {
+        // given
+        final SpotifyToken token = new SpotifyToken(USER_ID, "test-access-token", "test-refresh-token",
+                Instant.now().plusSeconds(3600));
+        when(tokenRepository.findByUserId(USER_ID)).thenReturn(Optional.of(token));
+        spotifyTokenService.getValidBearerAccessToken(USER_ID);
+
+        // when
+        String result = spotifyTokenService.getValidBearerAccessToken(USER_ID);
+
+        // then
+        assertEquals("Bearer test-access-token", result);
+        verify(tokenRepository, times(1)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void givenConcurrentCallsForSameUser_whenGetValidBearerAccessToken_thenTokenIsRefreshedOnce() throws Exception {
+        // given
+        final SpotifyToken token = new SpotifyToken(USER_ID, null, "test-refresh-token", Instant.now().minusSeconds(1));
+        when(tokenRepository.findByUserId(USER_ID)).thenReturn(Optional.of(token));
+
+        final CountDownLatch refreshStarted = new CountDownLatch(1);
+        final CompletableFuture<TokenResponse> refreshResponse = new CompletableFuture<>();
+        when(spotifyAccountsApi.refreshToken(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    refreshStarted.countDown();
+                    return refreshResponse.get(5, TimeUnit.SECONDS);
+                });
+
+        // when
+        final List<Future<String>> results;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<String> first = executor.submit(() -> spotifyTokenService.getValidBearerAccessToken(USER_ID));
+            refreshStarted.await(5, TimeUnit.SECONDS);
+            final Future<String> second = executor.submit(() -> spotifyTokenService.getValidBearerAccessToken(USER_ID));
+            refreshResponse.complete(new TokenResponse("new-access-token", "", 3600, USER_ID, "test-refresh-token"));
+            results = List.of(first, second);
+        }
+
+        // then
+        for (Future<String> result : results) {
+            assertEquals("Bearer new-access-token", result.get());
+        }
+        verify(spotifyAccountsApi, times(1)).refreshToken(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void givenCachedToken_whenStoreRefreshToken_thenTokenIsReadAgain() throws SpotifyTokenException {
+        // given
+        final SpotifyToken token = new SpotifyToken(USER_ID, "test-access-token", "old-refresh-token",
+                Instant.now().plusSeconds(3600));
+        when(tokenRepository.findByUserId(USER_ID)).thenReturn(Optional.of(token));
+        spotifyTokenService.getValidBearerAccessToken(USER_ID);
+
+        // when
+        spotifyTokenService.storeRefreshToken("new-refresh-token");
+        spotifyTokenService.getValidBearerAccessToken(USER_ID);
+
+        // then
+        verify(tokenRepository, times(3)).findByUserId(USER_ID);
+    }
+
+    @Test
+    void givenRejectedRefreshToken_whenGetValidBearerAccessToken_thenFailureIsRecorded() {
+        // given
+        final SpotifyToken token = new SpotifyToken(USER_ID, null, "test-refresh-token", Instant.now().minusSeconds(1));
+        when(tokenRepository.findByUserId(USER_ID)).thenReturn(Optional.of(token));
+
+        final Response errorResponse = mock(Response.class);
+        when(errorResponse.getStatus()).thenReturn(400);
+        when(errorResponse.getStatusInfo()).thenReturn(Response.Status.BAD_REQUEST);
+        when(errorResponse.readEntity(String.class))
+                .thenReturn("{\"error\":\"invalid_grant\",\"error_description\":\"Refresh token revoked\"}");
+        final WebApplicationException refreshError = new WebApplicationException(errorResponse);
+        when(spotifyAccountsApi.refreshToken(anyString(), anyString(), anyString(), anyString()))
+                .thenThrow(refreshError);
+
+        // when / then
+        assertThrows(SpotifyTokenException.class, () -> spotifyTokenService.getValidBearerAccessToken(USER_ID));
+        assertNotNull(token.getRefreshFailedAt());
+        assertEquals("Spotify refresh token error: invalid_grant - Refresh token revoked", token.getRefreshError());
+    }
+
+    @Test
+    void givenRejectedClient_whenGetValidBearerAccessToken_thenFailureIsNotRecorded() {
+        // given
+        final SpotifyToken token = new SpotifyToken(USER_ID, null, "test-refresh-token", Instant.now().minusSeconds(1));
+        when(tokenRepository.findByUserId(USER_ID)).thenReturn(Optional.of(token));
+
+        final Response errorResponse = mock(Response.class);
+        when(errorResponse.getStatus()).thenReturn(401);
+        when(errorResponse.getStatusInfo()).thenReturn(Response.Status.UNAUTHORIZED);
+        when(errorResponse.readEntity(String.class))
+                .thenReturn("{\"error\":\"invalid_client\",\"error_description\":\"Invalid client secret\"}");
+        final WebApplicationException refreshError = new WebApplicationException(errorResponse);
+        when(spotifyAccountsApi.refreshToken(anyString(), anyString(), anyString(), anyString()))
+                .thenThrow(refreshError);
+
+        // when
+        final WebApplicationException exception = assertThrows(WebApplicationException.class,
+                () -> spotifyTokenService.getValidBearerAccessToken(USER_ID));
+
+        // then
+        assertEquals(401, exception.getResponse().getStatus());
+        assertNull(token.getRefreshFailedAt());
+        assertNull(token.getRefreshError());
+    }
+
+    @Test
+    void givenRecordedRefreshFailure_whenGetValidBearerAccessToken_thenSpotifyIsNotCalled() {
+        // given
+        final SpotifyToken token = new SpotifyToken(USER_ID, null, "test-refresh-token", Instant.now().minusSeconds(1));
+        token.setRefreshFailed(Instant.now(), "revoked");
+        when(tokenRepository.findByUserId(USER_ID)).thenReturn(Optional.of(token));
+
+        // when / then
+        assertThrows(SpotifyTokenException.class, () -> spotifyTokenService.getValidBearerAccessToken(USER_ID));
+        verify(spotifyAccountsApi, times(0)).refreshToken(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void givenRecordedRefreshFailure_whenStoreRefreshToken_thenFailureIsCleared() {
+        // given
+        final SpotifyToken token = new SpotifyToken(USER_ID, null, "old-refresh-token", Instant.now());
+        token.setRefreshFailed(Instant.now(), "revoked");
+        when(tokenRepository.findByUserId(USER_ID)).thenReturn(Optional.of(token));
+
+        // when
+        spotifyTokenService.storeRefreshToken("new-refresh-token");
+
+        // then
+        assertNull(token.getRefreshFailedAt());
+        assertNull(token.getRefreshError());
+    }
+
+    @Test
+    void givenTokenExpiringSoon_whenRefreshAccessTokenIfExpiring_thenTokenIsRefreshed()
+            throws WebApplicationException, SpotifyTokenException {
+        // given
+        final SpotifyToken token = new SpotifyToken(USER_ID, "old-access-token", "test-refresh-token",
+                Instant.now().plusSeconds(60));
+        when(tokenRepository.findByUserId(USER_ID)).thenReturn(Optional.of(token));
+        when(spotifyAccountsApi.refreshToken(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(new TokenResponse("new-access-token", "", 3600, USER_ID, "test-refresh-token"));
+
+        // when
+        spotifyTokenService.refreshAccessTokenIfExpiring(USER_ID, Instant.now().plusSeconds(600));
+
+        // then
+        assertEquals("new-access-token", token.getAccessToken());
+        assertEquals("Bearer new-access-token", spotifyTokenService.getValidBearerAccessToken(USER_ID));
+        verify(tokenRepository, times(1)).findByUserId(USER_ID);
+    }
 }
@@ -0,0 +1,122 @@
+package com.windschief.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.spotify.SpotifyApi;
+import com.windschief.spotify.model.SpotifyUser;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.WebApplicationException;
+
+class SpotifyTokenValidatorTest {
+    private final SpotifyApi spotifyApi = mock(SpotifyApi.class);
+    private final SpotifyConfig spotifyConfig = mock(SpotifyConfig.class, RETURNS_DEEP_STUBS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanoClock = new AtomicLong();
+    private SpotifyTokenValidator tokenValidator;
+
+    @BeforeEach
+    void setup() {
+        when(spotifyConfig.identityCache().ttl()).thenReturn(Duration.ofMinutes(5));
+        when(spotifyConfig.identityCache().negativeTtl()).thenReturn(Duration.ofSeconds(30));
+        when(spotifyConfig.identityCache().maxSize()).thenReturn(2);
+        tokenValidator = new SpotifyTokenValidator(spotifyApi, spotifyConfig, meterRegistry, nanoClock::get);
+    }
+
+    @Test
+    void givenValidatedToken_whenValidateToken_thenCachedUserIsReturned() {
+        // GIVEN
+        SpotifyUser user = createUser("user");
+        when(spotifyApi.getCurrentUser("Bearer token")).thenReturn(user);
+        tokenValidator.validateToken("token").await().indefinitely();
+
+        // WHEN
+        SpotifyUser result = tokenValidator.validateToken("token").await().indefinitely();
+
+        // THEN
+        assertEquals(user, result);
+        verify(spotifyApi, times(1)).getCurrentUser("Bearer token");
+        assertEquals(1.0, meterRegistry.counter("spotify.identity.cache.hits").count());
+        assertEquals(1.0, meterRegistry.counter("spotify.identity.cache.misses").count());
+        assertEquals(1, meterRegistry.timer("spotify.token.validation.duration").count());
+    }
+
+    @Test
+    void givenExpiredEntry_whenValidateToken_thenTokenIsValidatedAgain() {
+        // GIVEN
+        when(spotifyApi.getCurrentUser("Bearer token")).thenReturn(createUser("user"));
+        tokenValidator.validateToken("token").await().indefinitely();
+        nanoClock.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        // WHEN
+        tokenValidator.validateToken("token").await().indefinitely();
+
+        // THEN
+        verify(spotifyApi, times(2)).getCurrentUser("Bearer token");
+    }
+
+    @Test
+    void givenRejectedToken_whenValidateToken_thenRejectionIsCached() {
+        // GIVEN
+        WebApplicationException unauthorized = new WebApplicationException(401);
+        when(spotifyApi.getCurrentUser("Bearer invalid")).thenThrow(unauthorized);
+        tokenValidator.validateToken("invalid").await().indefinitely();
+
+        // WHEN
+        SpotifyUser result = tokenValidator.validateToken("invalid").await().indefinitely();
+
+        // THEN
+        assertNull(result);
+        verify(spotifyApi, times(1)).getCurrentUser("Bearer invalid");
+    }
+
+    @Test
+    void givenSpotifyUnavailable_whenValidateToken_thenFailureIsNotCached() {
+        // GIVEN
+        WebApplicationException unavailable = new WebApplicationException(503);
+        when(spotifyApi.getCurrentUser("Bearer token")).thenThrow(unavailable);
+        tokenValidator.validateToken("token").await().indefinitely();
+
+        // WHEN
+        tokenValidator.validateToken("token").await().indefinitely();
+
+        // THEN
+        verify(spotifyApi, times(2)).getCurrentUser("Bearer token");
+    }
+
+    @Test
+    void givenFullCache_whenValidateToken_thenLeastRecentlyUsedTokenIsEvicted() {
+        // GIVEN
+        when(spotifyApi.getCurrentUser("Bearer token1")).thenReturn(createUser("user1"));
+        when(spotifyApi.getCurrentUser("Bearer token2")).thenReturn(createUser("user2"));
+        when(spotifyApi.getCurrentUser("Bearer token3")).thenReturn(createUser("user3"));
+        tokenValidator.validateToken("token1").await().indefinitely();
+        tokenValidator.validateToken("token2").await().indefinitely();
+        tokenValidator.validateToken("token1").await().indefinitely();
+
+        // WHEN
+        tokenValidator.validateToken("token3").await().indefinitely();
+        tokenValidator.validateToken("token1").await().indefinitely();
+        tokenValidator.validateToken("token2").await().indefinitely();
+
+        // THEN
+        verify(spotifyApi, times(1)).getCurrentUser("Bearer token1");
+        verify(spotifyApi, times(2)).getCurrentUser("Bearer token2");
+    }
+
+    private static SpotifyUser createUser(String id) {
+        return new SpotifyUser(id, null, null, null, null, null, null, null, null, null, null, null);
+    }
+}
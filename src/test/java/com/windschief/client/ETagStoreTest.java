@@ -0,0 +1,89 @@
+package com.windschief.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.auth.SpotifyConfig;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.TrackSummariesResponse;
+import com.windschief.spotify.model.TrackSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ETagStoreTest {
+    private static final String URL = "https://api.spotify.com/v1/albums/%s/tracks?offset=50&limit=50";
+
+    private final SpotifyConfig spotifyConfig = mock(SpotifyConfig.class, RETURNS_DEEP_STUBS);
+    private final InMemoryETagPageRepository etagPageRepository = new InMemoryETagPageRepository();
+    private ETagStore etagStore;
+
+    @BeforeEach
+    void setup() {
+        when(spotifyConfig.etagCache().maxAge()).thenReturn(Duration.ofDays(30));
+        etagStore = new ETagStore(etagPageRepository, spotifyConfig, new SimpleMeterRegistry(), Runnable::run);
+    }
+
+    @Test
+    void givenPagesOfAFullRun_whenFind_thenFirstPageIsStillStored() {
+        // GIVEN
+        for (int i = 0; i < 50_000; i++) {
+            etagStore.put(String.format(URL, "album" + i), "\"v" + i + "\"", page("track" + i));
+        }
+
+        // WHEN
+        List<ETagStore.Entry> storedPages = etagStore.find(String.format(URL, "album0"), TrackSummariesResponse.class);
+
+        // THEN
+        assertEquals(1, storedPages.size());
+        assertEquals("\"v0\"", storedPages.getFirst().etag());
+        assertEquals(page("track0"), etagStore.read(storedPages.getFirst(), TrackSummariesResponse.class));
+    }
+
+    @Test
+    void givenVariantsOfAPage_whenSelect_thenVariantOfResponseETagIsServed() {
+        // GIVEN
+        String url = String.format(URL, "album1");
+        etagStore.put(url, "\"market-de\"", page("track-de"));
+        etagStore.put(url, "\"market-us\"", page("track-us"));
+        List<ETagStore.Entry> storedPages = etagStore.find(url, TrackSummariesResponse.class);
+
+        // WHEN
+        ETagStore.Entry storedPage = ETagStore.select(storedPages, "W/\"market-de\"");
+
+        // THEN
+        assertEquals(2, storedPages.size());
+        assertEquals(page("track-de"), etagStore.read(storedPage, TrackSummariesResponse.class));
+        assertNull(ETagStore.select(storedPages, null));
+        assertEquals(List.of(), etagStore.find(url, AlbumSummariesResponse.class));
+    }
+
+    @Test
+    void givenExpiredPage_whenPurgeExpiredPages_thenOnlyExpiredPageIsDeleted() {
+        // GIVEN
+        etagPageRepository.save(new ETagPage(String.format(URL, "album1"), "\"v1\"",
+                TrackSummariesResponse.class.getName(), "{}", Instant.now().minus(Duration.ofDays(31))));
+        etagStore.put(String.format(URL, "album2"), "\"v1\"", page("track2"));
+
+        // WHEN
+        etagStore.purgeExpiredPages();
+
+        // THEN
+        assertEquals(1, etagPageRepository.size());
+        assertEquals(List.of(), etagStore.find(String.format(URL, "album1"), TrackSummariesResponse.class));
+    }
+
+    private static TrackSummariesResponse page(String trackId) {
+        return new TrackSummariesResponse(50, null, 50, 51,
+                List.of(new TrackSummary(trackId, "spotify:track:" + trackId)));
+    }
+}
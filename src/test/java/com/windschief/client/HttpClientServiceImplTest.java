@@ -0,0 +1,168 @@
+package com.windschief.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+import com.windschief.auth.SpotifyConfig;
+import com.windschief.spotify.SpotifyRateLimiter;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.TrackSummariesResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+class HttpClientServiceImplTest {
+    private static final String PAGE = "{\"limit\":50,\"next\":null,\"offset\":50,\"total\":51,"
+            + "\"items\":[{\"id\":\"track1\",\"uri\":\"spotify:track:track1\"}]}";
+
+    private final SpotifyConfig spotifyConfig = mock(SpotifyConfig.class, RETURNS_DEEP_STUBS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> receivedIfNoneMatch = new CopyOnWriteArrayList<>();
+    private final AtomicInteger throttledRequests = new AtomicInteger();
+    private HttpServer server;
+    private HttpClientServiceImpl httpClientService;
+
+    @BeforeEach
+    void setup() throws IOException {
+        when(spotifyConfig.rateLimit().initialRate()).thenReturn(100.0);
+        when(spotifyConfig.rateLimit().minRate()).thenReturn(1.0);
+        when(spotifyConfig.rateLimit().maxRate()).thenReturn(100.0);
+        when(spotifyConfig.rateLimit().burst()).thenReturn(10);
+        when(spotifyConfig.etagCache().maxAge()).thenReturn(Duration.ofDays(30));
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/albums/album1/tracks", exchange -> {
+            final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            receivedIfNoneMatch.add(String.valueOf(ifNoneMatch));
+            if ("\"v1\"".equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            final byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/v1/artists/artist1/albums", exchange -> {
+            throttledRequests.incrementAndGet();
+            final byte[] body = "{\"error\":{\"status\":429}}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            exchange.sendResponseHeaders(429, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        httpClientService = new HttpClientServiceImpl(new SpotifyRateLimiter(spotifyConfig, meterRegistry),
+                new ETagStore(new InMemoryETagPageRepository(), spotifyConfig, meterRegistry, Runnable::run));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void givenUnchangedPage_whenGetAgain_thenStoredPageIsServedFromNotModifiedResponse() throws Exception {
+        // GIVEN
+        String url = "http://localhost:" + server.getAddress().getPort() + "/v1/albums/album1/tracks?offset=50";
+        TrackSummariesResponse firstPage = httpClientService.get(url, "Bearer token", TrackSummariesResponse.class);
+
+        // WHEN
+        TrackSummariesResponse secondPage = httpClientService.getAsync(url, "Bearer token",
+                TrackSummariesResponse.class).get();
+
+        // THEN
+        assertEquals(firstPage, secondPage);
+        assertEquals(List.of("null", "\"v1\""), receivedIfNoneMatch);
+        assertEquals(1.0, meterRegistry.counter("spotify.http.not.modified").count());
+    }
+
+    @Test
+    void givenOtherResponseType_whenGet_thenNoConditionalRequestIsSent() throws Exception {
+        // GIVEN
+        String url = "http://localhost:" + server.getAddress().getPort() + "/v1/albums/album1/tracks?offset=50";
+        httpClientService.get(url, "Bearer token", TrackSummariesResponse.class);
+
+        // WHEN
+        httpClientService.get(url, "Bearer token", AlbumSummariesResponse.class);
+
+        // THEN
+        assertEquals(List.of("null", "null"), receivedIfNoneMatch);
+        assertEquals(0.0, meterRegistry.counter("spotify.http.not.modified").count());
+    }
+
+    @Test
+    void givenPersistentThrottling_whenGet_thenWebApplicationExceptionIsThrownAfterLastAttempt() {
+        // GIVEN
+        String url = "http://localhost:" + server.getAddress().getPort() + "/v1/artists/artist1/albums";
+
+        // WHEN
+        WebApplicationException exception = assertThrows(WebApplicationException.class,
+                () -> httpClientService.get(url, "Bearer token", AlbumSummariesResponse.class));
+
+        // THEN
+        assertEquals(429, exception.getResponse().getStatus());
+        assertEquals(SpotifyRateLimiter.MAX_ATTEMPTS, throttledRequests.get());
+    }
+
+    @Test
+    void givenPersistentThrottling_whenGetAsync_thenWebApplicationExceptionIsThrownAfterLastAttempt() {
+        // GIVEN
+        String url = "http://localhost:" + server.getAddress().getPort() + "/v1/artists/artist1/albums";
+
+        // WHEN
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> httpClientService.getAsync(url, "Bearer token", AlbumSummariesResponse.class).get());
+
+        // THEN
+        WebApplicationException cause = assertInstanceOf(WebApplicationException.class, exception.getCause());
+        assertEquals(429, cause.getResponse().getStatus());
+        assertEquals(SpotifyRateLimiter.MAX_ATTEMPTS, throttledRequests.get());
+    }
+
+    @Test
+    void givenThrottledRestClientRequest_whenSendAsync_thenRequestIsSentAgain() throws Exception {
+        // GIVEN
+        WebApplicationException throttled = new WebApplicationException(
+                Response.status(429).header("Retry-After", "0").build());
+        AtomicInteger invocations = new AtomicInteger();
+        Supplier<CompletionStage<String>> request = () -> invocations.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(throttled)
+                : CompletableFuture.completedFuture("page");
+
+        // WHEN
+        String result = httpClientService.sendAsync(request).get();
+
+        // THEN
+        assertEquals("page", result);
+        assertEquals(2, invocations.get());
+    }
+}
@@ -0,0 +1,46 @@
+package com.windschief.client;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps stored pages in a map instead of the database.
+ */
+public class InMemoryETagPageRepository extends ETagPageRepository {
+    private final Map<String, ETagPage> pages = new LinkedHashMap<>();
+
+    @Override
+    public synchronized List<ETagPage> findByUrl(String url, String pageType, Instant storedAfter, int limit) {
+        return pages.values().stream()
+                .filter(page -> page.getUrl().equals(url) && page.getPageType().equals(pageType)
+                        && page.getStoredAt().isAfter(storedAfter))
+                .sorted(Comparator.comparing(ETagPage::getStoredAt).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public synchronized void save(ETagPage page) {
+        pages.put(page.getUrl() + " " + page.getEtag(), page);
+    }
+
+    @Override
+    public synchronized long deleteStoredBefore(Instant storedBefore) {
+        final List<String> expired = new ArrayList<>();
+        pages.forEach((key, page) -> {
+            if (page.getStoredAt().isBefore(storedBefore)) {
+                expired.add(key);
+            }
+        });
+        expired.forEach(pages::remove);
+        return expired.size();
+    }
+
+    public synchronized int size() {
+        return pages.size();
+    }
+}
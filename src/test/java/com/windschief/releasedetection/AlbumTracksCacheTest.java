@@ -0,0 +1,195 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.windschief.spotify.model.TrackSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AlbumTracksCacheTest {
+    private static final TrackSummary TRACK = new TrackSummary("track1", "spotify:track:track1");
+
+    private final AlbumTracksRepository albumTracksRepository = mock(AlbumTracksRepository.class);
+    private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AlbumTracksCache cache;
+
+    @BeforeEach
+    void setup() {
+        when(releaseRadarConfig.albumTracksCache().enabled()).thenReturn(true);
+        when(releaseRadarConfig.albumTracksCache().ttl()).thenReturn(Duration.ofDays(30));
+        cache = new AlbumTracksCache(albumTracksRepository, releaseRadarConfig, meterRegistry);
+    }
+
+    @Test
+    void givenStoredAlbum_whenGetAllAsync_thenLoaderIsNotInvoked() {
+        // GIVEN
+        AlbumTracks stored = AlbumTracks.of("album1", List.of(TRACK), Instant.now()).orElseThrow();
+        when(albumTracksRepository.findFetchedAfter(eq(List.of("album1")), any())).thenReturn(List.of(stored));
+        AtomicInteger loads = new AtomicInteger();
+
+        // WHEN
+        Map<String, CompletableFuture<List<TrackSummary>>> tracks = cache.getAllAsync(List.of("album1"),
+                albumIds -> load(albumIds, loads));
+
+        // THEN
+        assertEquals(List.of(TRACK), tracks.get("album1").join());
+        assertEquals(0, loads.get());
+        assertEquals(1.0, meterRegistry.counter("spotify.tracks.cache.hits").count());
+    }
+
+    @Test
+    void givenUnknownAlbum_whenGetAllAsync_thenTracksAreLoadedAndStored() {
+        // GIVEN
+        when(albumTracksRepository.findFetchedAfter(any(), any())).thenReturn(List.of());
+        AtomicInteger loads = new AtomicInteger();
+
+        // WHEN
+        Map<String, CompletableFuture<List<TrackSummary>>> tracks = cache.getAllAsync(List.of("album1"),
+                albumIds -> load(albumIds, loads));
+
+        // THEN
+        assertEquals(List.of(TRACK), tracks.get("album1").join());
+        assertEquals(1, loads.get());
+        ArgumentCaptor<AlbumTracks> saved = ArgumentCaptor.forClass(AlbumTracks.class);
+        verify(albumTracksRepository, timeout(1000)).save(saved.capture());
+        assertEquals("album1", saved.getValue().getAlbumId());
+        assertEquals(List.of(TRACK), saved.getValue().getTracks());
+    }
+
+    @Test
+    void givenStoredAndUnknownAlbums_whenGetAllAsync_thenOnlyUnknownAlbumsAreLoaded() {
+        // GIVEN
+        AlbumTracks stored = AlbumTracks.of("album1", List.of(TRACK), Instant.now()).orElseThrow();
+        when(albumTracksRepository.findFetchedAfter(any(), any())).thenReturn(List.of(stored));
+        List<List<String>> loadedAlbumIds = new ArrayList<>();
+
+        // WHEN
+        Map<String, CompletableFuture<List<TrackSummary>>> tracks = cache.getAllAsync(
+                List.of("album1", "album2", "album3"), albumIds -> {
+                    loadedAlbumIds.add(albumIds);
+                    return load(albumIds, new AtomicInteger());
+                });
+
+        // THEN
+        assertEquals(List.of(List.of("album2", "album3")), loadedAlbumIds.stream()
+                .map(albumIds -> albumIds.stream().sorted().toList())
+                .toList());
+        assertEquals(3, tracks.size());
+        assertEquals(2.0, meterRegistry.counter("spotify.tracks.cache.misses").count());
+    }
+
+    @Test
+    void givenAlbumBeingFetched_whenGetAllAsync_thenFetchIsShared() {
+        // GIVEN
+        when(albumTracksRepository.findFetchedAfter(any(), any())).thenReturn(List.of());
+        CompletableFuture<List<TrackSummary>> pending = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<List<TrackSummary>> first = cache.getAllAsync(List.of("album1"), albumIds -> {
+            loads.incrementAndGet();
+            return Map.of("album1", pending);
+        }).get("album1");
+
+        // WHEN
+        CompletableFuture<List<TrackSummary>> second = cache.getAllAsync(List.of("album1"),
+                albumIds -> load(albumIds, loads)).get("album1");
+        pending.complete(List.of(TRACK));
+
+        // THEN
+        assertEquals(1, loads.get());
+        assertEquals(List.of(TRACK), first.join());
+        assertEquals(List.of(TRACK), second.join());
+    }
+
+    @Test
+    void givenTrackWithoutStandardUri_whenGetAllAsync_thenTracksAreNotStored() {
+        // GIVEN
+        when(albumTracksRepository.findFetchedAfter(any(), any())).thenReturn(List.of());
+        TrackSummary localTrack = new TrackSummary(null, "spotify:local:artist:album:track:180");
+
+        // WHEN
+        List<TrackSummary> tracks = cache.getAllAsync(List.of("album1"),
+                albumIds -> Map.of("album1", CompletableFuture.completedFuture(List.of(localTrack)))).get("album1")
+                .join();
+
+        // THEN
+        assertEquals(List.of(localTrack), tracks);
+        assertTrue(AlbumTracks.of("album1", tracks, Instant.now()).isEmpty());
+        verify(albumTracksRepository, never()).save(any());
+    }
+
+    @Test
+    void givenCacheDisabled_whenGetAllAsync_thenRepositoryIsNotUsed() {
+        // GIVEN
+        when(releaseRadarConfig.albumTracksCache().enabled()).thenReturn(false);
+        AlbumTracksCache disabledCache = new AlbumTracksCache(albumTracksRepository, releaseRadarConfig,
+                meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        // WHEN
+        disabledCache.getAllAsync(List.of("album1"), albumIds -> load(albumIds, loads)).get("album1").join();
+
+        // THEN
+        assertEquals(1, loads.get());
+        verify(albumTracksRepository, never()).findFetchedAfter(any(), any());
+        verify(albumTracksRepository, never()).save(any());
+    }
+
+    @Test
+    void givenTtl_whenPurgeExpiredTracks_thenTracksOlderThanTtlAreDeleted() {
+        // GIVEN
+        Instant before = Instant.now().minus(Duration.ofDays(30));
+
+        // WHEN
+        cache.purgeExpiredTracks();
+
+        // THEN
+        ArgumentCaptor<Instant> fetchedBefore = ArgumentCaptor.forClass(Instant.class);
+        verify(albumTracksRepository).deleteFetchedBefore(fetchedBefore.capture());
+        assertTrue(!fetchedBefore.getValue().isBefore(before));
+        assertTrue(fetchedBefore.getValue().isBefore(Instant.now().minus(Duration.ofDays(29))));
+    }
+
+    @Test
+    void givenTracks_whenStored_thenTracksAreRestoredInOrder() {
+        // GIVEN
+        List<TrackSummary> tracks = List.of(TRACK, new TrackSummary("track2", "spotify:track:track2"));
+
+        // WHEN
+        AlbumTracks albumTracks = AlbumTracks.of("album1", tracks, Instant.now()).orElseThrow();
+
+        // THEN
+        assertEquals(tracks, albumTracks.getTracks());
+        assertEquals(List.of(), AlbumTracks.of("album2", List.of(), Instant.now()).orElseThrow().getTracks());
+    }
+
+    private static Map<String, CompletableFuture<List<TrackSummary>>> load(List<String> albumIds,
+            AtomicInteger loads) {
+        loads.incrementAndGet();
+        Map<String, CompletableFuture<List<TrackSummary>>> tracks = new HashMap<>();
+        albumIds.forEach(albumId -> tracks.put(albumId, CompletableFuture.completedFuture(List.of(TRACK))));
+        return tracks;
+    }
+}
@@ -0,0 +1,46 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.spotify.model.TrackSummary;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+class AlbumTracksRepositoryTest {
+    private static final List<TrackSummary> TRACKS = List.of(new TrackSummary("track1", "spotify:track:track1"));
+
+    @Inject
+    AlbumTracksRepository albumTracksRepository;
+
+    @BeforeEach
+    @TestTransaction
+    void setUp() {
+        albumTracksRepository.deleteAll();
+    }
+
+    @Test
+    @TestTransaction
+    void givenExpiredAndFreshTracks_whenDeleteFetchedBefore_thenOnlyExpiredTracksAreDeleted() {
+        // GIVEN
+        Instant now = Instant.now();
+        albumTracksRepository.save(AlbumTracks.of("expired", TRACKS, now.minus(Duration.ofDays(31))).orElseThrow());
+        albumTracksRepository.save(AlbumTracks.of("fresh", TRACKS, now.minus(Duration.ofDays(1))).orElseThrow());
+
+        // WHEN
+        long deleted = albumTracksRepository.deleteFetchedBefore(now.minus(Duration.ofDays(30)));
+
+        // THEN
+        assertEquals(1, deleted);
+        assertEquals(List.of("fresh"), albumTracksRepository.listAll().stream().map(AlbumTracks::getAlbumId).toList());
+    }
+}
@@ -0,0 +1,221 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.windschief.spotify.model.AlbumSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.WebApplicationException;
+
+class ArtistAlbumCacheTest {
+    private static final LocalDate HORIZON = LocalDate.of(2024, 12, 1);
+
+    private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void givenActiveRun_whenGetSameArtistTwice_thenLoadOnce() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.beginRun();
+
+        // WHEN
+        cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+        List<AlbumSummary> albums = cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+
+        // THEN
+        assertEquals(1, loads.get());
+        assertEquals(1, albums.size());
+        assertEquals(1.0, meterRegistry.counter("spotify.albums.cache.hits").count());
+        assertEquals(1.0, meterRegistry.counter("spotify.albums.cache.misses").count());
+    }
+
+    @Test
+    void givenPendingLoad_whenGetSameArtist_thenPendingLoadIsShared() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        CompletableFuture<List<AlbumSummary>> pending = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+        cache.beginRun();
+        CompletableFuture<List<AlbumSummary>> first = cache.getAsync("artistId", "album,single", () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+
+        // WHEN
+        CompletableFuture<List<AlbumSummary>> second = cache.getAsync("artistId", "album,single",
+                () -> loadAlbums(loads));
+        pending.complete(List.of(album()));
+
+        // THEN
+        assertEquals(1, loads.get());
+        assertEquals(first.get(), second.get());
+    }
+
+    @Test
+    void givenDifferentIncludeGroups_whenGet_thenLoadSeparately() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.beginRun();
+
+        // WHEN
+        cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+        cache.getAsync("artistId", "album", () -> loadAlbums(loads)).get();
+
+        // THEN
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void givenHorizon_whenGet_thenDiscographiesAreCachedByHorizon() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.beginRun();
+
+        // WHEN
+        cache.getAsync("artistId", "album,single", HORIZON, () -> loadAlbums(loads)).get();
+        cache.getAsync("artistId", "album,single", HORIZON, () -> loadAlbums(loads)).get();
+        cache.getAsync("artistId", "album,single", HORIZON.minusDays(1), () -> loadAlbums(loads)).get();
+        cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+
+        // THEN
+        assertEquals(3, loads.get());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void givenNoActiveRunAndNoTtl_whenGet_thenBypassCache() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        // WHEN
+        cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+        cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+
+        // THEN
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void givenNoTtl_whenEndRun_thenEntriesAreEvicted() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        long runId = cache.beginRun();
+        cache.getAsync("artistId", "album,single", () -> loadAlbums(new AtomicInteger())).get();
+
+        // WHEN
+        cache.endRun(runId);
+
+        // THEN
+        assertEquals(0, cache.size());
+        assertEquals(1.0, meterRegistry.counter("spotify.albums.cache.evictions").count());
+    }
+
+    @Test
+    void givenOverlappingRuns_whenFirstRunEnds_thenOnlyItsEntriesAreEvicted() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        long firstRunId = cache.beginRun();
+        cache.getAsync("firstArtistId", "album,single", () -> loadAlbums(loads)).get();
+        long secondRunId = cache.beginRun();
+        cache.getAsync("secondArtistId", "album,single", () -> loadAlbums(loads)).get();
+
+        // WHEN
+        cache.endRun(firstRunId);
+        cache.getAsync("firstArtistId", "album,single", () -> loadAlbums(loads)).get();
+        cache.getAsync("secondArtistId", "album,single", () -> loadAlbums(loads)).get();
+
+        // THEN
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.size());
+
+        cache.endRun(secondRunId);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void givenTtl_whenEndRun_thenUnexpiredEntriesAreKept() throws Exception {
+        // GIVEN
+        when(releaseRadarConfig.artistAlbumCache().ttl()).thenReturn(Optional.of(Duration.ofHours(1)));
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        long runId = cache.beginRun();
+        cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+
+        // WHEN
+        cache.endRun(runId);
+        cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+
+        // THEN
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void givenFailedLoad_whenGet_thenExceptionIsPropagatedAndNotCached() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.beginRun();
+
+        // WHEN
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> cache
+                .getAsync("artistId", "album,single",
+                        () -> CompletableFuture.failedFuture(new WebApplicationException("Test exception")))
+                .get());
+        List<AlbumSummary> albums = cache.getAsync("artistId", "album,single", () -> loadAlbums(loads)).get();
+
+        // THEN
+        assertInstanceOf(WebApplicationException.class, exception.getCause());
+        assertEquals(1, loads.get());
+        assertEquals(1, albums.size());
+    }
+
+    @Test
+    void givenThrowingLoader_whenGet_thenFailedFutureIsReturnedAndNotCached() throws Exception {
+        // GIVEN
+        ArtistAlbumCache cache = new ArtistAlbumCache(releaseRadarConfig, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        cache.beginRun();
+
+        // WHEN
+        CompletableFuture<List<AlbumSummary>> failed = cache.getAsync("artistId", "album,single", HORIZON, () -> {
+            throw new WebApplicationException("Test exception");
+        });
+        cache.getAsync("artistId", "album,single", HORIZON, () -> loadAlbums(loads)).get();
+
+        // THEN
+        assertThrows(ExecutionException.class, failed::get);
+        assertEquals(1, loads.get());
+    }
+
+    private static CompletableFuture<List<AlbumSummary>> loadAlbums(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(List.of(album()));
+    }
+
+    private static AlbumSummary album() {
+        return new AlbumSummary("albumId", null, "2024-12-24", "day", null);
+    }
+}
@@ -0,0 +1,162 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.windschief.client.HttpClientService;
+import com.windschief.spotify.SpotifyApi;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.AlbumSummary;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DiscographyScannerTest {
+    private static final String ACCESS_TOKEN = "accessToken";
+    private static final String NEXT_PAGE_URL = "https://api.spotify.com/v1/artists/artistId/albums"
+            + "?offset=50&limit=50&include_groups=album,single";
+    private static final LocalDate HORIZON = LocalDate.parse("2024-01-01");
+
+    private final SpotifyApi spotifyApi = mock(SpotifyApi.class);
+    private final HttpClientService httpClientService = mock(HttpClientService.class);
+    private final ArtistScanStateRepository artistScanStateRepository = mock(ArtistScanStateRepository.class);
+    private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+    private DiscographyScanner scanner;
+
+    @BeforeEach
+    void setup() {
+        // requests of the REST client are sent once, like without throttling
+        when(httpClientService.sendAsync(any())).thenAnswer(
+                invocation -> invocation.<Supplier<CompletionStage<?>>>getArgument(0).get());
+        when(releaseRadarConfig.incrementalScan().enabled()).thenReturn(true);
+        when(releaseRadarConfig.incrementalScan().fullScanInterval()).thenReturn(Duration.ofDays(7));
+        scanner = new DiscographyScanner(spotifyApi, httpClientService, artistScanStateRepository,
+                releaseRadarConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void givenUnknownArtist_whenScan_thenDiscographyIsFetchedCompletelyAndStateIsStored() {
+        // GIVEN
+        AlbumSummary newAlbum = album("newAlbum", "2024-06-01", "album");
+        AlbumSummary oldAlbum = album("oldAlbum", "2020-06-01", "album");
+        AlbumSummary oldSingle = album("oldSingle", "2019-06-01", "single");
+        when(artistScanStateRepository.findByIdOptional("artistId")).thenReturn(Optional.empty());
+        givenFirstPage(new AlbumSummariesResponse(50, null, 0, 3, List.of(newAlbum, oldAlbum, oldSingle)));
+
+        // WHEN
+        List<AlbumSummary> albums = scanner.scan(ACCESS_TOKEN, "artistId", HORIZON).join();
+
+        // THEN
+        assertEquals(List.of(newAlbum, oldAlbum, oldSingle), albums);
+        ArtistScanState state = savedState();
+        assertEquals(3, state.getTotal());
+        assertEquals(2, state.getAlbumCount());
+        assertEquals(HORIZON, state.getCoveredFrom());
+        assertEquals(List.of(newAlbum), state.getRecentAlbums());
+    }
+
+    @Test
+    void givenUnchangedTotal_whenScan_thenOnlyTheFirstPageIsFetched() {
+        // GIVEN
+        AlbumSummary knownRelease = album("knownRelease", "2024-06-01", "single");
+        when(artistScanStateRepository.findByIdOptional("artistId")).thenReturn(Optional.of(
+                new ArtistScanState("artistId", 120, 60, HORIZON, List.of(knownRelease), Instant.now())));
+        givenFirstPage(new AlbumSummariesResponse(50, NEXT_PAGE_URL, 0, 120, albums(0, 50, 60)));
+
+        // WHEN
+        List<AlbumSummary> albums = scanner.scan(ACCESS_TOKEN, "artistId", HORIZON).join();
+
+        // THEN
+        assertEquals(List.of(knownRelease), albums);
+        verify(httpClientService, never()).getAsync(anyString(), anyString(), any());
+        verify(artistScanStateRepository, never()).save(any());
+    }
+
+    @Test
+    void givenNewSingle_whenScan_thenOnlyThePageWhereTheSinglesStartIsFetched() {
+        // GIVEN
+        AlbumSummary knownRelease = album("knownRelease", "2024-06-01", "single");
+        when(artistScanStateRepository.findByIdOptional("artistId")).thenReturn(Optional.of(
+                new ArtistScanState("artistId", 120, 60, HORIZON, List.of(knownRelease), Instant.now())));
+        givenFirstPage(new AlbumSummariesResponse(50, NEXT_PAGE_URL, 0, 121, albums(0, 50, 60)));
+
+        List<AlbumSummary> secondPageItems = new ArrayList<>(albums(50, 100, 60));
+        AlbumSummary newSingle = album("newSingle", "2025-01-10", "single");
+        secondPageItems.set(10, newSingle);
+        when(httpClientService.getAsync(NEXT_PAGE_URL, ACCESS_TOKEN, AlbumSummariesResponse.class))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new AlbumSummariesResponse(50, null, 50, 121, secondPageItems)));
+
+        // WHEN
+        List<AlbumSummary> albums = scanner.scan(ACCESS_TOKEN, "artistId", HORIZON).join();
+
+        // THEN
+        assertEquals(List.of(newSingle, knownRelease), albums);
+        ArtistScanState state = savedState();
+        assertEquals(121, state.getTotal());
+        assertEquals(60, state.getAlbumCount());
+        assertEquals(List.of(newSingle, knownRelease), state.getRecentAlbums());
+    }
+
+    @Test
+    void givenHorizonBeforeCoveredReleases_whenScan_thenDiscographyIsFetchedCompletely() {
+        // GIVEN
+        when(artistScanStateRepository.findByIdOptional("artistId")).thenReturn(Optional.of(
+                new ArtistScanState("artistId", 1, 1, HORIZON, List.of(), Instant.now())));
+        AlbumSummary olderAlbum = album("olderAlbum", "2023-06-01", "album");
+        givenFirstPage(new AlbumSummariesResponse(50, null, 0, 1, List.of(olderAlbum)));
+
+        // WHEN
+        List<AlbumSummary> albums = scanner.scan(ACCESS_TOKEN, "artistId", LocalDate.parse("2023-01-01")).join();
+
+        // THEN
+        assertEquals(List.of(olderAlbum), albums);
+        assertEquals(LocalDate.parse("2023-01-01"), savedState().getCoveredFrom());
+    }
+
+    private void givenFirstPage(AlbumSummariesResponse firstPage) {
+        when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                .thenReturn(CompletableFuture.completedFuture(firstPage));
+    }
+
+    private ArtistScanState savedState() {
+        ArgumentCaptor<ArtistScanState> state = ArgumentCaptor.forClass(ArtistScanState.class);
+        verify(artistScanStateRepository).save(state.capture());
+        return state.getValue();
+    }
+
+    /**
+     * Old releases at the given offsets, albums up to {@code albumCount} and
+     * singles after.
+     */
+    private static List<AlbumSummary> albums(int from, int to, int albumCount) {
+        List<AlbumSummary> albums = new ArrayList<>();
+        for (int offset = from; offset < to; offset++) {
+            albums.add(album("album" + offset, "2010-01-01", offset < albumCount ? "album" : "single"));
+        }
+        return albums;
+    }
+
+    private static AlbumSummary album(String id, String releaseDate, String albumGroup) {
+        return new AlbumSummary(id, null, releaseDate, "day", albumGroup);
+    }
+}
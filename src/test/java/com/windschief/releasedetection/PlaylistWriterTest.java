@@ -0,0 +1,77 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.windschief.spotify.SpotifyApi;
+import com.windschief.spotify.model.PlaylistAddItemsRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.WebApplicationException;
+
+class PlaylistWriterTest {
+    private static final String ACCESS_TOKEN = "accessToken";
+
+    private final SpotifyApi spotifyApi = mock(SpotifyApi.class);
+    private final PlaylistWriter playlistWriter = new PlaylistWriter(spotifyApi, new SimpleMeterRegistry());
+
+    @Test
+    void givenMoreItemsThanFitIntoOneRequest_whenAppend_thenChunksAreSentInOrder() throws PlaylistWriteException {
+        // GIVEN
+        List<String> uris = uris(250);
+
+        // WHEN
+        playlistWriter.append(ACCESS_TOKEN, "playlistId", uris);
+
+        // THEN
+        ArgumentCaptor<PlaylistAddItemsRequest> requests = ArgumentCaptor.forClass(PlaylistAddItemsRequest.class);
+        verify(spotifyApi, times(3)).addToPlaylist(eq(ACCESS_TOKEN), eq("playlistId"), requests.capture());
+        assertEquals(uris.subList(0, 100), requests.getAllValues().get(0).uris());
+        assertEquals(uris.subList(100, 200), requests.getAllValues().get(1).uris());
+        assertEquals(uris.subList(200, 250), requests.getAllValues().get(2).uris());
+    }
+
+    @Test
+    void givenRejectedChunk_whenAppend_thenRemainingChunksAreNotSent() {
+        // GIVEN
+        doNothing().doThrow(new WebApplicationException(502))
+                .when(spotifyApi).addToPlaylist(eq(ACCESS_TOKEN), eq("playlistId"), any());
+
+        // WHEN
+        PlaylistWriteException exception = assertThrows(PlaylistWriteException.class,
+                () -> playlistWriter.append(ACCESS_TOKEN, "playlistId", uris(250)));
+
+        // THEN
+        assertEquals(100, exception.getWrittenItems());
+        verify(spotifyApi, times(2)).addToPlaylist(eq(ACCESS_TOKEN), eq("playlistId"), any());
+    }
+
+    @Test
+    void givenItems_whenPartition_thenChunksAreViewsOfAtMostChunkSize() {
+        // GIVEN
+        List<String> uris = uris(201);
+
+        // WHEN
+        List<List<String>> chunks = PlaylistWriter.partition(uris);
+
+        // THEN
+        assertEquals(List.of(100, 100, 1), chunks.stream().map(List::size).toList());
+        assertEquals(List.of(), PlaylistWriter.partition(List.of()));
+    }
+
+    private static List<String> uris(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "spotify:track:track" + i).toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.windschief.spotify.model.AlbumSummary;
+
+class ReleaseDateFilterTest {
+    private static final List<String> PRECISIONS = List.of("day", "month", "year");
+    private static final List<String> MALFORMED_DATES = List.of("", "2024", "2024-1-01", "2024-13-01", "2024-00",
+            "2023-02-29", "2024-04-31", "2024-02-30", "20a4-01-01", "2024/01/01", "2024-01-01T00:00", "+2024-01-01",
+            "-2024", "12345", "2024-01-", "abcd");
+
+    private final Random random = new Random(42);
+
+    @Test
+    void givenRandomReleaseDates_whenTest_thenResultMatchesParsedDates() {
+        for (int i = 0; i < 100_000; i++) {
+            // GIVEN
+            final LocalDate date = randomDate();
+            final LocalDate releaseDay = date.plusDays(random.nextInt(800) - 400);
+            final String precision = PRECISIONS.get(random.nextInt(PRECISIONS.size()));
+            final AlbumSummary album = album(format(releaseDay, precision), precision);
+
+            // WHEN
+            final boolean released = ReleaseDateFilter.onOrAfter(date).test(album);
+
+            // THEN
+            assertEquals(isReleasedOnOrAfter(album, date), released, album + " on or after " + date);
+        }
+    }
+
+    @Test
+    void givenLeapDays_whenTest_thenResultMatchesParsedDates() {
+        for (int year = 1896; year <= 2104; year++) {
+            // GIVEN
+            final LocalDate endOfFebruary = YearMonth.of(year, 2).atEndOfMonth();
+            final AlbumSummary album = album(endOfFebruary.toString(), "day");
+
+            for (LocalDate date = endOfFebruary.minusDays(1); date.isBefore(endOfFebruary.plusDays(2));
+                    date = date.plusDays(1)) {
+                // WHEN
+                final boolean released = ReleaseDateFilter.onOrAfter(date).test(album);
+
+                // THEN
+                assertEquals(isReleasedOnOrAfter(album, date), released, album + " on or after " + date);
+            }
+        }
+    }
+
+    @Test
+    void givenReleaseKnownByMonthOrYear_whenTest_thenEndOfPeriodIsCompared() {
+        // GIVEN
+        final ReleaseDateFilter filter = ReleaseDateFilter.onOrAfter(LocalDate.parse("2024-02-29"));
+
+        // WHEN / THEN
+        assertTrue(filter.test(album("2024-02", "month")));
+        assertFalse(filter.test(album("2024-01", "month")));
+        assertTrue(filter.test(album("2024", "year")));
+        assertFalse(filter.test(album("2023", "year")));
+    }
+
+    @Test
+    void givenMalformedReleaseDates_whenTest_thenSameExceptionAsParsingIsThrown() {
+        final ReleaseDateFilter filter = ReleaseDateFilter.onOrAfter(LocalDate.parse("2024-01-01"));
+        for (String precision : PRECISIONS) {
+            for (String releaseDate : MALFORMED_DATES) {
+                // GIVEN
+                final AlbumSummary album = album(releaseDate, precision);
+                final Class<? extends Exception> expected = parsingException(album);
+
+                // WHEN / THEN
+                if (expected == null) {
+                    assertEquals(isReleasedOnOrAfter(album, LocalDate.parse("2024-01-01")), filter.test(album),
+                            album.toString());
+                } else {
+                    assertThrows(expected, () -> filter.test(album), album.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void givenUnknownPrecision_whenTest_thenIllegalArgumentExceptionIsThrown() {
+        // GIVEN
+        final AlbumSummary album = album("2024-01-01", "week");
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class,
+                () -> ReleaseDateFilter.onOrAfter(LocalDate.parse("2024-01-01")).test(album));
+    }
+
+    private LocalDate randomDate() {
+        return LocalDate.ofEpochDay(LocalDate.parse("1950-01-01").toEpochDay() + random.nextInt(40_000));
+    }
+
+    private static String format(LocalDate date, String precision) {
+        return switch (precision) {
+            case "day" -> date.toString();
+            case "month" -> YearMonth.from(date).toString();
+            default -> String.valueOf(date.getYear());
+        };
+    }
+
+    private static Class<? extends Exception> parsingException(AlbumSummary album) {
+        try {
+            isReleasedOnOrAfter(album, LocalDate.parse("2024-01-01"));
+            return null;
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Reference implementation parsing the release date.
+     */
+    private static boolean isReleasedOnOrAfter(AlbumSummary album, LocalDate date) {
+        final LocalDate latestReleaseDate = switch (album.release_date_precision()) {
+            case "day" -> LocalDate.parse(album.release_date());
+            case "month" -> YearMonth.parse(album.release_date()).atEndOfMonth();
+            case "year" -> Year.parse(album.release_date()).atDay(Year.parse(album.release_date()).length());
+            default -> throw new IllegalArgumentException("Unknown date precision: " + album.release_date_precision());
+        };
+        return !latestReleaseDate.isBefore(date);
+    }
+
+    private static AlbumSummary album(String releaseDate, String precision) {
+        return new AlbumSummary("albumId", null, releaseDate, precision, "album");
+    }
+}
@@ -4,13 +4,24 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,18 +30,24 @@ import com.windschief.auth.SpotifyTokenException;
 import com.windschief.auth.SpotifyTokenService;
 import com.windschief.client.HttpClientService;
 import com.windschief.spotify.SpotifyApi;
-import com.windschief.spotify.model.AlbumItem;
-import com.windschief.spotify.model.AlbumsResponse;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.AlbumSummary;
 import com.windschief.task.Platform;
 import com.windschief.task.Task;
 import com.windschief.task.TaskRepository;
 import com.windschief.task.added_item.AddedItemRepository;
+import com.windschief.task.added_item.AddedItemType;
 import com.windschief.task.item.TaskItem;
+import com.windschief.task.item.TaskItemRepository;
+import com.windschief.task.item.TaskItemSubscription;
 import com.windschief.task.item.TaskItemType;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 
 public class ReleaseDetectionServiceTest {
+        private static final String NEXT_PAGE_URL = "https://api.spotify.com/v1/artists/artistId/albums"
+                        + "?offset=1&limit=1&include_groups=album,single";
         private static final String ACCESS_TOKEN = "accessToken";
 
         private final SpotifyApi spotifyApi = mock(SpotifyApi.class);
@@ -38,11 +55,20 @@ public class ReleaseDetectionServiceTest {
         private final SpotifyTokenService spotifyTokenService = mock(SpotifyTokenService.class);
         private final HttpClientService httpClientService = mock(HttpClientService.class);
         private final TaskRepository taskRepository = mock(TaskRepository.class);
+        private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+        private final ArtistAlbumCache artistAlbumCache = new ArtistAlbumCache(releaseRadarConfig,
+                        new SimpleMeterRegistry());
+        private final TaskItemRepository taskItemRepository = mock(TaskItemRepository.class);
+        private final DiscographyScanner discographyScanner = mock(DiscographyScanner.class);
         private final ReleaseDetectionService releaseDetectionService = new ReleaseDetectionService(spotifyApi,
-                        addedItemRepository, spotifyTokenService, httpClientService, taskRepository);
+                        addedItemRepository, spotifyTokenService, httpClientService, taskRepository,
+                        taskItemRepository, artistAlbumCache, discographyScanner);
 
         @BeforeEach
         void setup() throws WebApplicationException, SpotifyTokenException {
+                // requests of the REST client are sent once, like without throttling
+                when(httpClientService.sendAsync(any())).thenAnswer(
+                        invocation -> invocation.<Supplier<CompletionStage<?>>>getArgument(0).get());
                 when(spotifyTokenService.getValidBearerAccessToken("userId")).thenReturn(ACCESS_TOKEN);
         }
 
@@ -96,23 +122,15 @@ public class ReleaseDetectionServiceTest {
                 when(task.getCheckFrom()).thenReturn(LocalDate.parse("2024-12-25"));
                 when(taskRepository.findById(1L)).thenReturn(task);
 
-                when(addedItemRepository.existsByTaskIdAndExternalIdAndItemType(any(), any(), any())).thenReturn(false);
-
-                AlbumItem albumItem = new AlbumItem(null, 0, null, null, null, "albumId",
-                                null, null, "2024-12-26", "day", null, null, null, null, null);
-                AlbumsResponse albumsResponse = new AlbumsResponse(
-                                null,
-                                20,
-                                null,
-                                0,
-                                null,
-                                1,
-                                List.of(albumItem));
-                when(spotifyApi.getArtistAlbums(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
-                                .thenReturn(albumsResponse);
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
+
+                AlbumSummary albumItem = new AlbumSummary("albumId", null, "2024-12-26", "day", null);
+                AlbumSummariesResponse albumsResponse = new AlbumSummariesResponse(20, null, 0, 1, List.of(albumItem));
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(albumsResponse));
 
                 // WHEN
-                List<AlbumItem> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
+                List<AlbumSummary> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
 
                 // THEN
                 assertEquals(1, albumItems.size());
@@ -134,23 +152,15 @@ public class ReleaseDetectionServiceTest {
                 when(task.getCheckFrom()).thenReturn(LocalDate.parse("2024-12-25"));
                 when(taskRepository.findById(1L)).thenReturn(task);
 
-                when(addedItemRepository.existsByTaskIdAndExternalIdAndItemType(any(), any(), any())).thenReturn(true);
-
-                AlbumItem albumItem = new AlbumItem(null, 0, null, null, null, "albumId",
-                                null, null, "2024-12-26", "day", null, null, null, null, null);
-                AlbumsResponse albumsResponse = new AlbumsResponse(
-                                null,
-                                20,
-                                null,
-                                0,
-                                null,
-                                1,
-                                List.of(albumItem));
-                when(spotifyApi.getArtistAlbums(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
-                                .thenReturn(albumsResponse);
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of("albumId"));
+
+                AlbumSummary albumItem = new AlbumSummary("albumId", null, "2024-12-26", "day", null);
+                AlbumSummariesResponse albumsResponse = new AlbumSummariesResponse(20, null, 0, 1, List.of(albumItem));
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(albumsResponse));
 
                 // WHEN
-                List<AlbumItem> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
+                List<AlbumSummary> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
 
                 // THEN
                 assertEquals(0, albumItems.size());
@@ -171,23 +181,15 @@ public class ReleaseDetectionServiceTest {
                 when(task.getCheckFrom()).thenReturn(LocalDate.parse("2024-12-26"));
                 when(taskRepository.findById(1L)).thenReturn(task);
 
-                when(addedItemRepository.existsByTaskIdAndExternalIdAndItemType(any(), any(), any())).thenReturn(false);
-
-                AlbumItem albumItem = new AlbumItem(null, 0, null, null, null, "albumId",
-                                null, null, "2024-12-24", "day", null, null, null, null, null);
-                AlbumsResponse albumsResponse = new AlbumsResponse(
-                                null,
-                                20,
-                                null,
-                                0,
-                                null,
-                                1,
-                                List.of(albumItem));
-                when(spotifyApi.getArtistAlbums(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
-                                .thenReturn(albumsResponse);
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
+
+                AlbumSummary albumItem = new AlbumSummary("albumId", null, "2024-12-24", "day", null);
+                AlbumSummariesResponse albumsResponse = new AlbumSummariesResponse(20, null, 0, 1, List.of(albumItem));
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(albumsResponse));
 
                 // WHEN
-                List<AlbumItem> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
+                List<AlbumSummary> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
 
                 // THEN
                 assertEquals(0, albumItems.size());
@@ -208,27 +210,58 @@ public class ReleaseDetectionServiceTest {
                 when(task.getCheckFrom()).thenReturn(LocalDate.parse("2024-12-24"));
                 when(taskRepository.findById(1L)).thenReturn(task);
 
-                when(addedItemRepository.existsByTaskIdAndExternalIdAndItemType(any(), any(), any())).thenReturn(false);
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
+
+                AlbumSummary album1 = new AlbumSummary("album1", null, "2024-12-24", "day", null);
+                AlbumSummariesResponse response1 = new AlbumSummariesResponse(1, NEXT_PAGE_URL, 0, 3, List.of(album1));
+                AlbumSummary album2 = new AlbumSummary("album2", null, "2024-12-25", "day", null);
+                AlbumSummariesResponse response2 = new AlbumSummariesResponse(1,
+                                NEXT_PAGE_URL.replace("offset=1", "offset=2"), 1, 3, List.of(album2));
+                AlbumSummary album3 = new AlbumSummary("album3", null, "2024-12-26", "day", null);
+                AlbumSummariesResponse response3 = new AlbumSummariesResponse(1, null, 2, 3, List.of(album3));
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(response1));
+                when(httpClientService.getAsync(NEXT_PAGE_URL, ACCESS_TOKEN, AlbumSummariesResponse.class))
+                                .thenReturn(CompletableFuture.completedFuture(response2));
+                when(httpClientService.getAsync(NEXT_PAGE_URL.replace("offset=1", "offset=2"), ACCESS_TOKEN,
+                                AlbumSummariesResponse.class)).thenReturn(CompletableFuture.completedFuture(response3));
+
+                // WHEN
+                List<AlbumSummary> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
+
+                // THEN
+                assertEquals(List.of(album1, album2, album3), albumItems);
+                verify(httpClientService, times(2)).getAsync(any(), any(), eq(AlbumSummariesResponse.class));
+        }
+
+        @Test
+        void givenAlbumOfTwoFollowedArtists_whenDetectNewAlbumReleases_thenAlbumIsReturnedOnce()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = mock(Task.class);
+                when(task.getPlatform()).thenReturn(Platform.SPOTIFY);
+                TaskItem taskItem1 = mock(TaskItem.class);
+                when(taskItem1.getItemType()).thenReturn(TaskItemType.ARTIST);
+                when(taskItem1.getExternalId()).thenReturn("artistId1");
+                TaskItem taskItem2 = mock(TaskItem.class);
+                when(taskItem2.getItemType()).thenReturn(TaskItemType.ARTIST);
+                when(taskItem2.getExternalId()).thenReturn("artistId2");
+                when(task.getTaskItems()).thenReturn(List.of(taskItem1, taskItem2));
+                when(task.getUserId()).thenReturn("userId");
+                when(task.getId()).thenReturn(1L);
+                when(task.getCheckFrom()).thenReturn(LocalDate.parse("2024-12-24"));
+                when(taskRepository.findById(1L)).thenReturn(task);
 
-                AlbumItem album1 = new AlbumItem(null, 0, null, null, null, "album1", null, null, "2024-12-24", "day",
-                                null,
-                                null, null, null, null);
-                AlbumsResponse response1 = new AlbumsResponse(null, 20, "nextPage", 0, null, 2, List.of(album1));
-                AlbumItem album2 = new AlbumItem(null, 0, null, null, null, "album2", null, null, "2024-12-25", "day",
-                                null,
-                                null, null, null, null);
-                AlbumsResponse response2 = new AlbumsResponse(null, 20, null, 0, null, 2, List.of(album2));
-                when(spotifyApi.getArtistAlbums(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
-                                .thenReturn(response1);
-                when(httpClientService.get(any(), any(), eq(AlbumsResponse.class))).thenReturn(response2);
+                AlbumSummary albumItem = new AlbumSummary("albumId", null, "2024-12-26", "day", null);
+                AlbumSummariesResponse albumsResponse = new AlbumSummariesResponse(20, null, 0, 1, List.of(albumItem));
+                when(spotifyApi.getArtistAlbumsAsync(eq(ACCESS_TOKEN), any(), eq("album,single"), eq(50), eq(0)))
+                                .thenReturn(CompletableFuture.completedFuture(albumsResponse));
 
                 // WHEN
-                List<AlbumItem> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
+                List<AlbumSummary> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
 
                 // THEN
-                assertEquals(2, albumItems.size());
-                assertTrue(albumItems.contains(album1));
-                assertTrue(albumItems.contains(album2));
+                assertEquals(List.of(albumItem), albumItems);
         }
 
         @Test
@@ -246,23 +279,17 @@ public class ReleaseDetectionServiceTest {
                 when(task.getCheckFrom()).thenReturn(LocalDate.parse("2024-01-02"));
                 when(taskRepository.findById(1L)).thenReturn(task);
 
-                when(addedItemRepository.existsByTaskIdAndExternalIdAndItemType(any(), any(), any())).thenReturn(false);
-
-                AlbumItem dayAlbum = new AlbumItem(null, 0, null, null, null, "dayAlbum", null, null, "2024-01-01",
-                                "day",
-                                null, null, null, null, null);
-                AlbumItem monthAlbum = new AlbumItem(null, 0, null, null, null, "monthAlbum", null, null, "2024-01",
-                                "month",
-                                null, null, null, null, null);
-                AlbumItem yearAlbum = new AlbumItem(null, 0, null, null, null, "yearAlbum", null, null, "2024", "year",
-                                null,
-                                null, null, null, null);
-                AlbumsResponse response = new AlbumsResponse(null, 20, null, 0, null, 2,
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
+
+                AlbumSummary dayAlbum = new AlbumSummary("dayAlbum", null, "2024-01-01", "day", null);
+                AlbumSummary monthAlbum = new AlbumSummary("monthAlbum", null, "2024-01", "month", null);
+                AlbumSummary yearAlbum = new AlbumSummary("yearAlbum", null, "2024", "year", null);
+                AlbumSummariesResponse response = new AlbumSummariesResponse(20, null, 0, 2,
                                 List.of(dayAlbum, monthAlbum, yearAlbum));
-                when(spotifyApi.getArtistAlbums(ACCESS_TOKEN, "artistId", "album,single", 50, 0)).thenReturn(response);
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0)).thenReturn(CompletableFuture.completedFuture(response));
 
                 // WHEN
-                List<AlbumItem> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
+                List<AlbumSummary> albumItems = releaseDetectionService.detectNewAlbumReleases(1L);
 
                 // THEN
                 assertEquals(2, albumItems.size());
@@ -285,13 +312,11 @@ public class ReleaseDetectionServiceTest {
                 when(task.getCheckFrom()).thenReturn(LocalDate.parse("2024-01-01"));
                 when(taskRepository.findById(1L)).thenReturn(task);
 
-                AlbumItem album = new AlbumItem(null, 0, null, null, null, "albumId", null, null, "2024", "unknown",
-                                null, null,
-                                null, null, null);
-                AlbumsResponse response = new AlbumsResponse(null, 20, null, 0, null, 1, List.of(album));
+                AlbumSummary album = new AlbumSummary("albumId", null, "2024", "unknown", null);
+                AlbumSummariesResponse response = new AlbumSummariesResponse(20, null, 0, 1, List.of(album));
 
-                when(spotifyApi.getArtistAlbums("accessToken", "artistId", "album,single", 50, 0)).thenReturn(response);
-                when(addedItemRepository.existsByTaskIdAndExternalIdAndItemType(any(), any(), any())).thenReturn(false);
+                when(spotifyApi.getArtistAlbumsAsync("accessToken", "artistId", "album,single", 50, 0)).thenReturn(CompletableFuture.completedFuture(response));
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
 
                 // WHEN
                 IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -301,4 +326,160 @@ public class ReleaseDetectionServiceTest {
                 // THEN
                 assertEquals("Unknown date precision: unknown", exception.getMessage());
         }
-}
\ No newline at end of file
+
+        @Test
+        void givenTasksFollowingSameArtist_whenDetectNewAlbumReleasesByArtist_thenFetchArtistOnce()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task1 = createSpotifyTask(1L, "2024-12-25");
+                Task task2 = createSpotifyTask(2L, "2024-12-27");
+                when(taskItemRepository.findSubscriptionsByTaskIds(any())).thenReturn(List.of(
+                                new TaskItemSubscription(1L, TaskItemType.ARTIST, "artistId"),
+                                new TaskItemSubscription(2L, TaskItemType.ARTIST, "artistId")));
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
+
+                AlbumSummary albumItem = new AlbumSummary("albumId", null, "2024-12-26", "day", null);
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(
+                                                new AlbumSummariesResponse(20, null, 0, 1, List.of(albumItem))));
+
+                // WHEN
+                Map<Long, List<AlbumSummary>> releases = releaseDetectionService
+                                .detectNewAlbumReleasesByArtist(List.of(task1, task2));
+
+                // THEN
+                verify(spotifyApi, times(1)).getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0);
+                assertEquals(List.of(albumItem), releases.get(1L));
+                assertEquals(List.of(), releases.get(2L));
+        }
+
+        @Test
+        void givenAlbumAddedForOneTask_whenDetectNewAlbumReleasesByArtist_thenAddedAlbumsAreLookedUpOncePerTask()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task1 = createSpotifyTask(1L, "2024-12-25");
+                Task task2 = createSpotifyTask(2L, "2024-12-25");
+                when(taskItemRepository.findSubscriptionsByTaskIds(any())).thenReturn(List.of(
+                                new TaskItemSubscription(1L, TaskItemType.ARTIST, "artistId"),
+                                new TaskItemSubscription(2L, TaskItemType.ARTIST, "artistId")));
+                when(addedItemRepository.findAddedExternalIds(eq(1L), eq(AddedItemType.ALBUM), any()))
+                                .thenReturn(Set.of("album1"));
+
+                AlbumSummary album1 = new AlbumSummary("album1", null, "2024-12-26", "day", null);
+                AlbumSummary album2 = new AlbumSummary("album2", null, "2024-12-26", "day", null);
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(
+                                                new AlbumSummariesResponse(20, null, 0, 2, List.of(album1, album2))));
+
+                // WHEN
+                Map<Long, List<AlbumSummary>> releases = releaseDetectionService
+                                .detectNewAlbumReleasesByArtist(List.of(task1, task2));
+
+                // THEN
+                assertEquals(List.of(album2), releases.get(1L));
+                assertEquals(List.of(album1, album2), releases.get(2L));
+                verify(addedItemRepository, times(1)).findAddedExternalIds(eq(1L), eq(AddedItemType.ALBUM), any());
+                verify(addedItemRepository, times(1)).findAddedExternalIds(eq(2L), eq(AddedItemType.ALBUM), any());
+        }
+
+        @Test
+        void givenTaskWithPlaylistItem_whenDetectNewAlbumReleasesByArtist_thenTaskIsExcluded()
+                        throws WebApplicationException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = createSpotifyTask(1L, "2024-12-25");
+                when(taskItemRepository.findSubscriptionsByTaskIds(any())).thenReturn(List.of(
+                                new TaskItemSubscription(1L, TaskItemType.ARTIST, "artistId"),
+                                new TaskItemSubscription(1L, TaskItemType.PLAYLIST, "playlistId")));
+
+                // WHEN
+                Map<Long, List<AlbumSummary>> releases = releaseDetectionService
+                                .detectNewAlbumReleasesByArtist(List.of(task));
+
+                // THEN
+                assertTrue(releases.isEmpty());
+                verify(spotifyApi, times(0)).getArtistAlbumsAsync(any(), any(), any(), eq(50), eq(0));
+        }
+
+        @Test
+        void givenFailingArtist_whenDetectNewAlbumReleasesByArtist_thenSubscribedTasksAreExcluded()
+                        throws WebApplicationException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task1 = createSpotifyTask(1L, "2024-12-25");
+                Task task2 = createSpotifyTask(2L, "2024-12-25");
+                when(taskItemRepository.findSubscriptionsByTaskIds(any())).thenReturn(List.of(
+                                new TaskItemSubscription(1L, TaskItemType.ARTIST, "failingArtistId"),
+                                new TaskItemSubscription(2L, TaskItemType.ARTIST, "artistId")));
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "failingArtistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.failedFuture(new WebApplicationException("Test exception")));
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(
+                                                new AlbumSummariesResponse(20, null, 0, 0, List.of())));
+
+                // WHEN
+                Map<Long, List<AlbumSummary>> releases = releaseDetectionService
+                                .detectNewAlbumReleasesByArtist(List.of(task1, task2));
+
+                // THEN
+                assertEquals(Map.of(2L, List.of()), releases);
+        }
+
+        @Test
+        void givenMalformedReleaseDate_whenDetectNewAlbumReleasesByArtist_thenOnlyAffectedTaskIsExcluded()
+                        throws WebApplicationException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task1 = createSpotifyTask(1L, "2024-12-25");
+                Task task2 = createSpotifyTask(2L, "2024-12-25");
+                when(taskItemRepository.findSubscriptionsByTaskIds(any())).thenReturn(List.of(
+                                new TaskItemSubscription(1L, TaskItemType.ARTIST, "malformedArtistId"),
+                                new TaskItemSubscription(2L, TaskItemType.ARTIST, "artistId")));
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
+
+                AlbumSummary malformedAlbum = new AlbumSummary("malformedAlbumId", null, "2024-13-45", "day", null);
+                AlbumSummary album = new AlbumSummary("albumId", null, "2024-12-26", "day", null);
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "malformedArtistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(
+                                                new AlbumSummariesResponse(20, null, 0, 1, List.of(malformedAlbum))));
+                when(spotifyApi.getArtistAlbumsAsync(ACCESS_TOKEN, "artistId", "album,single", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(
+                                                new AlbumSummariesResponse(20, null, 0, 1, List.of(album))));
+
+                // WHEN
+                Map<Long, List<AlbumSummary>> releases = releaseDetectionService
+                                .detectNewAlbumReleasesByArtist(List.of(task1, task2));
+
+                // THEN
+                assertEquals(Map.of(2L, List.of(album)), releases);
+        }
+
+        @Test
+        void givenIncrementalScan_whenDetectNewAlbumReleasesByArtist_thenArtistIsScannedFromEarliestCheckDate()
+                        throws InterruptedException {
+                // GIVEN
+                Task task = createSpotifyTask(1L, "2024-12-25");
+                when(taskItemRepository.findSubscriptionsByTaskIds(any())).thenReturn(List.of(
+                                new TaskItemSubscription(1L, TaskItemType.ARTIST, "artistId")));
+                when(discographyScanner.isEnabled()).thenReturn(true);
+                when(taskRepository.findEarliestCheckFrom()).thenReturn(Optional.of(LocalDate.parse("2024-01-01")));
+                AlbumSummary album = new AlbumSummary("albumId", null, "2024-12-26", "day", "album");
+                when(discographyScanner.scan(ACCESS_TOKEN, "artistId", LocalDate.parse("2024-01-01")))
+                                .thenReturn(CompletableFuture.completedFuture(List.of(album)));
+                when(addedItemRepository.findAddedExternalIds(any(), any(), any())).thenReturn(Set.of());
+
+                // WHEN
+                Map<Long, List<AlbumSummary>> releases = releaseDetectionService
+                                .detectNewAlbumReleasesByArtist(List.of(task));
+
+                // THEN
+                assertEquals(Map.of(1L, List.of(album)), releases);
+                verify(spotifyApi, never()).getArtistAlbumsAsync(any(), any(), any(), anyInt(), anyInt());
+        }
+
+        private Task createSpotifyTask(Long id, String checkFrom) {
+                Task task = new Task();
+                task.setId(id);
+                task.setPlatform(Platform.SPOTIFY);
+                task.setUserId("userId");
+                task.setCheckFrom(LocalDate.parse(checkFrom));
+                return task;
+        }
+}
@@ -0,0 +1,159 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.task.Task;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReleaseRadarExecutorTest {
+    private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setup() {
+        when(releaseRadarConfig.execution().maxConcurrency()).thenReturn(4);
+        when(releaseRadarConfig.execution().maxConcurrencyPerUser()).thenReturn(2);
+        when(releaseRadarConfig.execution().shutdownTimeout()).thenReturn(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void givenManyTasks_whenExecuteAll_thenGlobalConcurrencyIsCapped() {
+        // GIVEN
+        ReleaseRadarExecutor executor = new ReleaseRadarExecutor(releaseRadarConfig, meterRegistry);
+        List<Task> tasks = createTasks(20, id -> "user" + id);
+        ConcurrencyTracker tracker = new ConcurrencyTracker();
+
+        // WHEN
+        executor.executeAll(tasks, task -> tracker.run(task.getUserId()));
+
+        // THEN
+        assertEquals(20, tracker.executions.get());
+        assertTrue(tracker.maxRunning.get() <= 4);
+        assertEquals(0, executor.getInFlight());
+        assertEquals(0, executor.getQueued());
+        assertEquals(0, executor.getUserCount());
+    }
+
+    @Test
+    void givenTasksOfSingleUser_whenExecuteAll_thenConcurrencyPerUserIsCapped() {
+        // GIVEN
+        ReleaseRadarExecutor executor = new ReleaseRadarExecutor(releaseRadarConfig, meterRegistry);
+        List<Task> tasks = createTasks(10, id -> "user");
+        ConcurrencyTracker tracker = new ConcurrencyTracker();
+
+        // WHEN
+        executor.executeAll(tasks, task -> tracker.run(task.getUserId()));
+
+        // THEN
+        assertEquals(10, tracker.executions.get());
+        assertTrue(tracker.maxRunningPerUser.get("user").get() <= 2);
+        assertEquals(0, executor.getUserCount());
+    }
+
+    @Test
+    void givenFailingTask_whenExecuteAll_thenOtherTasksAreStillExecuted() {
+        // GIVEN
+        ReleaseRadarExecutor executor = new ReleaseRadarExecutor(releaseRadarConfig, meterRegistry);
+        List<Task> tasks = createTasks(3, id -> "user" + id);
+        AtomicInteger executions = new AtomicInteger();
+
+        // WHEN
+        executor.executeAll(tasks, task -> {
+            executions.incrementAndGet();
+            if (task.getId() == 1L) {
+                throw new IllegalStateException("Test exception");
+            }
+        });
+
+        // THEN
+        assertEquals(3, executions.get());
+        assertEquals(0, executor.getInFlight());
+    }
+
+    @Test
+    void givenDispatchedBatch_whenDispatch_thenCallerIsNotBlocked() throws InterruptedException {
+        // GIVEN
+        ReleaseRadarExecutor executor = new ReleaseRadarExecutor(releaseRadarConfig, meterRegistry);
+        List<Task> tasks = createTasks(3, id -> "user" + id);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        // WHEN
+        executor.dispatch(tasks, batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        });
+
+        // THEN
+        assertEquals(3, executor.getDispatched());
+        release.countDown();
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        await(() -> executor.getDispatched() == 0);
+    }
+
+    private static List<Task> createTasks(int count, LongFunction<String> userIdOf) {
+        return LongStream.range(0, count)
+                .mapToObj(id -> {
+                    Task task = new Task();
+                    task.setId(id);
+                    task.setUserId(userIdOf.apply(id));
+                    return task;
+                })
+                .toList();
+    }
+
+    private static class ConcurrencyTracker {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final AtomicInteger executions = new AtomicInteger();
+        private final Map<String, AtomicInteger> runningPerUser = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> maxRunningPerUser = new ConcurrentHashMap<>();
+
+        void run(String userId) {
+            AtomicInteger runningOfUser = runningPerUser.computeIfAbsent(userId, id -> new AtomicInteger());
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            maxRunningPerUser.computeIfAbsent(userId, id -> new AtomicInteger())
+                    .accumulateAndGet(runningOfUser.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                runningOfUser.decrementAndGet();
+                running.decrementAndGet();
+                executions.incrementAndGet();
+            }
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
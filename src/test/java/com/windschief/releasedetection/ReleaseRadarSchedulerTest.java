@@ -0,0 +1,214 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.task.Task;
+import com.windschief.task.TaskChangedEvent;
+import com.windschief.task.TaskRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReleaseRadarSchedulerTest {
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final ReleaseRadarService releaseRadarService = mock(ReleaseRadarService.class);
+    private final ReleaseRadarExecutor releaseRadarExecutor = mock(ReleaseRadarExecutor.class);
+    private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+    private ReleaseRadarScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        when(releaseRadarConfig.scheduler().horizon()).thenReturn(Duration.ofHours(1));
+        when(releaseRadarConfig.scheduler().maxDispatchedTasks()).thenReturn(2);
+        when(releaseRadarConfig.scheduler().pageSize()).thenReturn(2);
+        // batches run right away instead of in the background
+        doAnswer(invocation -> {
+            invocation.<Consumer<List<Task>>>getArgument(1).accept(invocation.getArgument(0));
+            return null;
+        }).when(releaseRadarExecutor).dispatch(anyList(), any());
+        scheduler = new ReleaseRadarScheduler(taskRepository, releaseRadarService, releaseRadarExecutor,
+                releaseRadarConfig, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void givenMultiplePagesOfUpcomingTasks_whenRefill_thenAllTasksAreScheduled() {
+        // GIVEN
+        Task task1 = createTask(1L, true, Instant.now().minusSeconds(60));
+        Task task2 = createTask(2L, true, Instant.now().minusSeconds(30));
+        Task task3 = createTask(3L, true, Instant.now());
+        when(taskRepository.findDueTasks(any(Instant.class), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(task1, task2));
+        when(taskRepository.findDueTasks(any(Instant.class), eq(task2.getNextRunAt()), eq(task2.getId()), eq(2)))
+                .thenReturn(List.of(task3));
+
+        // WHEN
+        scheduler.refill();
+
+        // THEN
+        assertEquals(3, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void givenMoreDueTasksThanLimit_whenPollDue_thenRemainingTasksStayScheduled() {
+        // GIVEN
+        Instant now = Instant.now();
+        scheduler.schedule(3L, now.minusSeconds(10));
+        scheduler.schedule(1L, now.minusSeconds(30));
+        scheduler.schedule(2L, now.minusSeconds(20));
+        scheduler.schedule(4L, now.plusSeconds(60));
+
+        // WHEN
+        List<Long> firstTick = scheduler.pollDue(now, 2);
+        List<Long> secondTick = scheduler.pollDue(now, 2);
+
+        // THEN
+        assertEquals(List.of(1L, 2L), firstTick);
+        assertEquals(List.of(3L), secondTick);
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void givenRescheduledTask_whenPollDue_thenStaleRunIsIgnored() {
+        // GIVEN
+        Instant now = Instant.now();
+        scheduler.schedule(1L, now.minusSeconds(30));
+        scheduler.schedule(1L, now.plusSeconds(60));
+
+        // WHEN
+        List<Long> taskIds = scheduler.pollDue(now, 2);
+
+        // THEN
+        assertEquals(List.of(), taskIds);
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void givenInactiveTask_whenSchedule_thenTaskIsUnscheduled() {
+        // GIVEN
+        Task task = createTask(1L, true, Instant.now());
+        scheduler.schedule(task);
+        task.setActive(false);
+
+        // WHEN
+        scheduler.schedule(task);
+
+        // THEN
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void givenTaskBeyondHorizon_whenSchedule_thenTaskIsNotScheduled() {
+        // GIVEN
+        Task task = createTask(1L, true, Instant.now().minus(Duration.ofDays(1)));
+        task.setExecutionIntervalDays(7);
+
+        // WHEN
+        scheduler.schedule(task);
+
+        // THEN
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void givenCommittedTaskChanges_whenOnTaskChanged_thenScheduleIsUpdated() {
+        // GIVEN
+        Task task1 = createTask(1L, true, Instant.now().minusSeconds(60));
+        Task task2 = createTask(2L, true, Instant.now().minusSeconds(30));
+        scheduler.onTaskChanged(TaskChangedEvent.changed(task1));
+        scheduler.onTaskChanged(TaskChangedEvent.changed(task2));
+
+        // WHEN
+        scheduler.onTaskChanged(TaskChangedEvent.deleted(task1.getId()));
+
+        // THEN
+        assertEquals(List.of(2L), scheduler.pollDue(Instant.now(), 2));
+    }
+
+    @Test
+    void givenDueTasks_whenTick_thenTasksStillDueAreExecuted() {
+        // GIVEN
+        Task task1 = createTask(1L, true, Instant.now().minusSeconds(60));
+        Task task2 = createTask(2L, true, Instant.now().minusSeconds(30));
+        scheduler.schedule(task1);
+        scheduler.schedule(task2);
+        // task 1 has been executed by another node in the meantime
+        when(taskRepository.list(anyString(), eq(List.of(1L, 2L)), any(Instant.class))).thenReturn(List.of(task2));
+
+        // WHEN
+        scheduler.tick();
+
+        // THEN
+        verify(releaseRadarService).executeTasks(List.of(task2));
+    }
+
+    @Test
+    void givenRunningTasksAtLimit_whenTick_thenDueTasksStayScheduled() {
+        // GIVEN
+        scheduler.schedule(createTask(1L, true, Instant.now().minusSeconds(60)));
+        when(releaseRadarExecutor.getDispatched()).thenReturn(2);
+
+        // WHEN
+        scheduler.tick();
+
+        // THEN
+        verify(releaseRadarExecutor, never()).dispatch(anyList(), any());
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void givenRunningTasksBelowLimit_whenTick_thenOnlyRemainingCapacityIsStarted() {
+        // GIVEN
+        Task task1 = createTask(1L, true, Instant.now().minusSeconds(60));
+        Task task2 = createTask(2L, true, Instant.now().minusSeconds(30));
+        scheduler.schedule(task1);
+        scheduler.schedule(task2);
+        when(releaseRadarExecutor.getDispatched()).thenReturn(1);
+        when(taskRepository.list(anyString(), eq(List.of(1L)), any(Instant.class))).thenReturn(List.of(task1));
+
+        // WHEN
+        scheduler.tick();
+
+        // THEN
+        verify(releaseRadarService).executeTasks(List.of(task1));
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void givenNoDueTasks_whenTick_thenNothingIsExecuted() {
+        // GIVEN
+        scheduler.schedule(1L, Instant.now().plusSeconds(60));
+
+        // WHEN
+        scheduler.tick();
+
+        // THEN
+        verify(releaseRadarService, never()).executeTasks(anyList());
+    }
+
+    private static Task createTask(Long id, boolean active, Instant nextRunAt) {
+        Task task = new Task();
+        task.setId(id);
+        task.setActive(active);
+        task.setExecutionIntervalDays(0);
+        task.setLastTimeExecuted(nextRunAt);
+        return task;
+    }
+}
@@ -1,14 +1,25 @@
 package com.windschief.releasedetection;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,17 +27,22 @@ import org.junit.jupiter.api.Test;
 import com.windschief.auth.SpotifyTokenException;
 import com.windschief.auth.SpotifyTokenService;
 import com.windschief.client.HttpClientService;
+import com.windschief.releasedetection.ReleaseRadarConfig.DetectionMode;
+import com.windschief.releasedetection.TaskExecutionJournal.Stage;
 import com.windschief.spotify.SpotifyApi;
-import com.windschief.spotify.model.AlbumItem;
+import com.windschief.spotify.model.AlbumSummary;
+import com.windschief.spotify.model.AlbumTracksSummary;
 import com.windschief.spotify.model.PlaylistAddItemsRequest;
-import com.windschief.spotify.model.TrackItem;
-import com.windschief.spotify.model.TracksResponse;
+import com.windschief.spotify.model.SeveralAlbumsResponse;
+import com.windschief.spotify.model.TrackSummariesResponse;
+import com.windschief.spotify.model.TrackSummary;
 import com.windschief.task.Task;
 import com.windschief.task.TaskRepository;
 import com.windschief.task.added_item.AddedItem;
 import com.windschief.task.added_item.AddedItemRepository;
+import com.windschief.task.added_item.AddedItemType;
 
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 
 public class ReleaseRadarServiceTest {
@@ -38,96 +54,125 @@ public class ReleaseRadarServiceTest {
         private final SpotifyApi spotifyApi = mock(SpotifyApi.class);
         private final AddedItemRepository addedItemRepository = mock(AddedItemRepository.class);
         private final HttpClientService httpClientService = mock(HttpClientService.class);
+        private final ArtistAlbumCache artistAlbumCache = mock(ArtistAlbumCache.class);
+        private final AlbumTracksRepository albumTracksRepository = mock(AlbumTracksRepository.class);
+        private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+        private final ReleaseRadarExecutor releaseRadarExecutor = createReleaseRadarExecutor();
+        private final TaskExecutionJournalRepository taskExecutionJournalRepository = createJournalRepository();
+        private final TaskLeaseManager taskLeaseManager = mock(TaskLeaseManager.class);
         private final ReleaseRadarService releaseRadarService = new ReleaseRadarService(releaseDetectionService,
-                        taskRepository, spotifyTokenService, spotifyApi, addedItemRepository, httpClientService);
-
-        @SuppressWarnings("unchecked")
-        private final PanacheQuery<Task> panacheTaskQuery = mock(PanacheQuery.class);
+                        taskRepository, spotifyTokenService, spotifyApi, addedItemRepository, httpClientService,
+                        artistAlbumCache, createAlbumTracksCache(), createPlaylistWriter(),
+                        taskExecutionJournalRepository, releaseRadarExecutor, taskLeaseManager, releaseRadarConfig);
 
         @BeforeEach
         public void setup() throws WebApplicationException, SpotifyTokenException {
+                // requests of the REST client are sent once, like without throttling
+                when(httpClientService.sendAsync(any())).thenAnswer(
+                        invocation -> invocation.<Supplier<CompletionStage<?>>>getArgument(0).get());
                 when(spotifyTokenService.getValidBearerAccessToken(any())).thenReturn(ACCESS_TOKEN);
-                when(taskRepository.findAll()).thenReturn(panacheTaskQuery);
+                when(taskLeaseManager.acquire(any())).thenReturn(true);
+                when(taskLeaseManager.acquireDue(any())).thenReturn(true);
         }
 
         @Test
-        public void givenNoTasks_whenAddNewReleases_thenNoTracksAreAdded()
+        public void givenNoTasks_whenExecuteTasks_thenNoTracksAreAdded()
                         throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
-                // GIVEN
-                when(panacheTaskQuery.stream()).thenReturn(Stream.of());
-
                 // WHEN
-                releaseRadarService.addNewReleases();
+                releaseRadarService.executeTasks(List.of());
 
                 // THEN
                 verify(releaseDetectionService, times(0)).detectNewAlbumReleases(any(Long.class));
         }
 
         @Test
-        public void givenInactiveTask_whenAddNewReleases_thenNoTracksAreAdded()
+        public void givenTaskDueAndNewRelease_whenExecuteTasks_thenTracksAreAdded()
                         throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
                 // GIVEN
                 Task task = new Task();
-                task.setActive(false);
+                task.setId(1L);
+                task.setActive(true);
                 task.setExecutionIntervalDays(1);
-                when(panacheTaskQuery.stream()).thenReturn(Stream.of(task));
+                task.setLastTimeExecuted(Instant.now().minusSeconds(60 * 60 * 24));
+                task.setPlaylistId("playlistId");
+                when(taskRepository.findById(task.getId())).thenReturn(task);
+
+                AlbumSummary album = createAlbumItem("album1");
+                when(releaseDetectionService.detectNewAlbumReleases(task.getId())).thenReturn(List.of(album));
+
+                TrackSummary track = createTrackItem("track1", "spotify:track:track1");
+                TrackSummariesResponse tracksResponse = new TrackSummariesResponse(20, null, 0, 1, List.of(track));
+                givenAlbumTracks(album.id(), tracksResponse);
 
                 // WHEN
-                releaseRadarService.addNewReleases();
+                releaseRadarService.executeTasks(List.of(task));
 
                 // THEN
-                verify(releaseDetectionService, times(0)).detectNewAlbumReleases(any(Long.class));
+                verify(releaseDetectionService, times(1)).detectNewAlbumReleases(task.getId());
+                verify(spotifyApi, times(1)).addToPlaylist(any(), any(), any());
+                verify(addedItemRepository, times(1)).persist(argThat((List<AddedItem> addedItems) -> addedItems
+                                .stream().map(AddedItem::getItemType).toList()
+                                .equals(List.of(AddedItemType.ALBUM, AddedItemType.TRACK))));
+                verify(taskRepository, times(1)).persist(any(Task.class));
+                verify(taskLeaseManager, times(1)).release(task.getId());
         }
 
         @Test
-        public void givenTaskNotDue_whenAddNewReleases_thenNoTracksAreAdded()
+        public void givenTaskLeasedByAnotherNode_whenExecuteTasks_thenTaskIsSkipped()
                         throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
                 // GIVEN
                 Task task = new Task();
+                task.setId(1L);
                 task.setActive(true);
-                task.setExecutionIntervalDays(1);
-                task.setLastTimeExecuted(Instant.now());
-                when(panacheTaskQuery.stream()).thenReturn(Stream.of(task));
+                when(taskLeaseManager.acquireDue(task.getId())).thenReturn(false);
 
                 // WHEN
-                releaseRadarService.addNewReleases();
+                releaseRadarService.executeTasks(List.of(task));
 
                 // THEN
                 verify(releaseDetectionService, times(0)).detectNewAlbumReleases(any(Long.class));
+                verify(taskRepository, times(0)).persist(any(Task.class));
+                verify(taskLeaseManager, times(0)).release(any());
         }
 
         @Test
-        public void givenTaskDueAndNewRelease_whenAddNewReleases_thenTracksAreAdded()
+        public void givenUserWithRejectedRefreshToken_whenExecuteTasks_thenTaskIsSkipped()
                         throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
                 // GIVEN
                 Task task = new Task();
                 task.setId(1L);
+                task.setUserId("user");
                 task.setActive(true);
-                task.setExecutionIntervalDays(1);
-                task.setLastTimeExecuted(Instant.now().minusSeconds(60 * 60 * 24));
-                task.setPlaylistId("playlistId");
-                when(panacheTaskQuery.stream()).thenReturn(Stream.of(task));
                 when(taskRepository.findById(task.getId())).thenReturn(task);
+                when(spotifyTokenService.findUsersWithFailedRefresh(Set.of("user"))).thenReturn(Set.of("user"));
 
-                AlbumItem album = createAlbumItem("album1");
-                when(releaseDetectionService.detectNewAlbumReleases(task.getId())).thenReturn(List.of(album));
+                // WHEN
+                releaseRadarService.executeTasks(List.of(task));
+
+                // THEN
+                verify(releaseDetectionService, times(0)).detectNewAlbumReleases(any(Long.class));
+                verify(taskRepository, times(1)).persist(task);
+                verify(taskLeaseManager, times(1)).release(task.getId());
+        }
 
-                TrackItem track = createTrackItem("track1", "spotify:track:track1");
-                TracksResponse tracksResponse = new TracksResponse(null, 20, null, 0, null, 1, List.of(track));
-                when(spotifyApi.getAlbumTracks(ACCESS_TOKEN, album.id(), 50, 0)).thenReturn(tracksResponse);
+        @Test
+        public void givenTaskAlreadyRunning_whenExecute_thenTaskIsNotExecutedAgain()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = new Task();
+                task.setId(1L);
+                when(taskLeaseManager.acquire(task.getId())).thenReturn(false);
 
                 // WHEN
-                releaseRadarService.addNewReleases();
+                releaseRadarService.execute(task);
 
                 // THEN
-                verify(releaseDetectionService, times(1)).detectNewAlbumReleases(task.getId());
-                verify(spotifyApi, times(1)).addToPlaylist(any(), any(), any());
-                verify(addedItemRepository, times(2)).persist(any(AddedItem.class));
-                verify(taskRepository, times(1)).persist(any(Task.class));
+                verify(releaseDetectionService, times(0)).detectNewAlbumReleases(any(Long.class));
+                verify(taskLeaseManager, times(0)).release(any());
         }
 
         @Test
-        public void givenTaskDueWithoutNewReleases_whenAddNewReleases_thenNoTracksAreAdded()
+        public void givenTaskDueWithoutNewReleases_whenExecuteTasks_thenNoTracksAreAdded()
                         throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
                 // GIVEN
                 Task task = new Task();
@@ -136,12 +181,11 @@ public class ReleaseRadarServiceTest {
                 task.setExecutionIntervalDays(1);
                 task.setLastTimeExecuted(Instant.now().minusSeconds(60 * 60 * 24));
                 task.setPlaylistId("playlistId");
-                when(panacheTaskQuery.stream()).thenReturn(Stream.of(task));
                 when(taskRepository.findById(task.getId())).thenReturn(task);
                 when(releaseDetectionService.detectNewAlbumReleases(task.getId())).thenReturn(List.of());
 
                 // WHEN
-                releaseRadarService.addNewReleases();
+                releaseRadarService.executeTasks(List.of(task));
 
                 // THEN
                 verify(releaseDetectionService, times(1)).detectNewAlbumReleases(task.getId());
@@ -149,7 +193,7 @@ public class ReleaseRadarServiceTest {
         }
 
         @Test
-        public void givenMultiplePages_whenAddNewReleases_thenAllTracksAreAdded()
+        public void givenMultiplePages_whenExecuteTasks_thenAllTracksAreAdded()
                         throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
                 // GIVEN
                 Task task = new Task();
@@ -158,22 +202,21 @@ public class ReleaseRadarServiceTest {
                 task.setExecutionIntervalDays(1);
                 task.setLastTimeExecuted(Instant.now().minusSeconds(60 * 60 * 24));
                 task.setPlaylistId("playlistId");
-                when(panacheTaskQuery.stream()).thenReturn(Stream.of(task));
                 when(taskRepository.findById(task.getId())).thenReturn(task);
                 when(releaseDetectionService.detectNewAlbumReleases(task.getId()))
                                 .thenReturn(List.of(createAlbumItem("album1")));
 
-                TrackItem track1 = createTrackItem("track1", "spotify:track:track1");
-                TracksResponse tracksResponse1 = new TracksResponse(null, 20, "nextPage", 0, null, 2, List.of(track1));
-                when(spotifyApi.getAlbumTracks(eq(ACCESS_TOKEN), anyString(), eq(50), eq(0)))
-                                .thenReturn(tracksResponse1);
+                TrackSummary track1 = createTrackItem("track1", "spotify:track:track1");
+                TrackSummariesResponse tracksResponse1 = new TrackSummariesResponse(20, "nextPage", 0, 2, List.of(track1));
+                givenAlbumTracks("album1", tracksResponse1);
 
-                TrackItem track2 = createTrackItem("track2", "spotify:track:track2");
-                TracksResponse tracksResponse2 = new TracksResponse(null, 20, null, 0, null, 2, List.of(track2));
-                when(httpClientService.get(any(), any(), eq(TracksResponse.class))).thenReturn(tracksResponse2);
+                TrackSummary track2 = createTrackItem("track2", "spotify:track:track2");
+                TrackSummariesResponse tracksResponse2 = new TrackSummariesResponse(20, null, 0, 2, List.of(track2));
+                when(httpClientService.getAsync(any(), any(), eq(TrackSummariesResponse.class)))
+                                .thenReturn(CompletableFuture.completedFuture(tracksResponse2));
 
                 // WHEN
-                releaseRadarService.addNewReleases();
+                releaseRadarService.executeTasks(List.of(task));
 
                 // THEN
                 verify(spotifyApi, times(1)).addToPlaylist(
@@ -184,7 +227,255 @@ public class ReleaseRadarServiceTest {
         }
 
         @Test
-        public void givenTaskThrowsException_whenAddNewReleases_thenOtherTasksAreStillProcessed()
+        public void givenAlbumTracksStored_whenExecuteTasks_thenTracksAreNotFetched()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                when(releaseRadarConfig.albumTracksCache().enabled()).thenReturn(true);
+                when(releaseRadarConfig.albumTracksCache().ttl()).thenReturn(Duration.ofDays(30));
+                ReleaseRadarService cachingReleaseRadarService = new ReleaseRadarService(releaseDetectionService,
+                                taskRepository, spotifyTokenService, spotifyApi, addedItemRepository,
+                                httpClientService, artistAlbumCache, createAlbumTracksCache(), createPlaylistWriter(),
+                                taskExecutionJournalRepository, releaseRadarExecutor, taskLeaseManager,
+                                releaseRadarConfig);
+
+                Task task = new Task();
+                task.setId(1L);
+                task.setActive(true);
+                task.setPlaylistId("playlistId");
+                when(taskRepository.findById(task.getId())).thenReturn(task);
+                when(releaseDetectionService.detectNewAlbumReleases(task.getId()))
+                                .thenReturn(List.of(createAlbumItem("album1")));
+
+                AlbumTracks storedTracks = AlbumTracks.of("album1",
+                                List.of(createTrackItem("track1", "spotify:track:track1")), Instant.now())
+                                .orElseThrow();
+                when(albumTracksRepository.findFetchedAfter(eq(List.of("album1")), any()))
+                                .thenReturn(List.of(storedTracks));
+
+                // WHEN
+                cachingReleaseRadarService.executeTasks(List.of(task));
+
+                // THEN
+                verify(spotifyApi, never()).getSeveralAlbumsAsync(any(), any());
+                verify(spotifyApi, never()).getAlbumTracksAsync(any(), any(), anyInt(), anyInt());
+                verify(spotifyApi, times(1)).addToPlaylist(ACCESS_TOKEN, task.getPlaylistId(),
+                                new PlaylistAddItemsRequest(List.of("spotify:track:track1"), null));
+        }
+
+        @Test
+        public void givenManyAlbums_whenExecuteTasks_thenTracksAreFetchedInBatches()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = new Task();
+                task.setId(1L);
+                task.setActive(true);
+                task.setPlaylistId("playlistId");
+                when(taskRepository.findById(task.getId())).thenReturn(task);
+
+                List<AlbumSummary> albums = IntStream.range(0, 25)
+                                .mapToObj(i -> new AlbumSummary("album" + i, null, "2024-12-24", "day", null))
+                                .toList();
+                when(releaseDetectionService.detectNewAlbumReleases(task.getId())).thenReturn(albums);
+
+                List<AlbumTracksSummary> firstBatch = IntStream.range(0, 20)
+                                .mapToObj(i -> new AlbumTracksSummary("album" + i, tracksPage("album" + i)))
+                                .toList();
+                List<AlbumTracksSummary> secondBatch = new ArrayList<>();
+                IntStream.range(20, 24).forEach(i -> secondBatch.add(
+                                new AlbumTracksSummary("album" + i, tracksPage("album" + i))));
+                secondBatch.add(null);
+                when(spotifyApi.getSeveralAlbumsAsync(ACCESS_TOKEN, albumIds(0, 20)))
+                                .thenReturn(CompletableFuture.completedFuture(new SeveralAlbumsResponse(firstBatch)));
+                when(spotifyApi.getSeveralAlbumsAsync(ACCESS_TOKEN, albumIds(20, 25)))
+                                .thenReturn(CompletableFuture.completedFuture(new SeveralAlbumsResponse(secondBatch)));
+                when(spotifyApi.getAlbumTracksAsync(ACCESS_TOKEN, "album24", 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(tracksPage("album24")));
+
+                // WHEN
+                releaseRadarService.executeTasks(List.of(task));
+
+                // THEN
+                verify(spotifyApi, times(2)).getSeveralAlbumsAsync(eq(ACCESS_TOKEN), anyString());
+                verify(spotifyApi, times(1)).getAlbumTracksAsync(any(), any(), anyInt(), anyInt());
+                verify(httpClientService, never()).getAsync(any(), any(), eq(TrackSummariesResponse.class));
+                verify(addedItemRepository, times(1)).persist(argThat((List<AddedItem> addedItems) -> addedItems
+                                .stream().filter(item -> item.getItemType() == AddedItemType.TRACK).count() == 25));
+        }
+
+        @Test
+        public void givenFailingAlbumsRequest_whenExecuteTasks_thenTracksOfEachAlbumAreFetchedOneByOne()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = new Task();
+                task.setId(1L);
+                task.setActive(true);
+                task.setPlaylistId("playlistId");
+                when(taskRepository.findById(task.getId())).thenReturn(task);
+
+                List<AlbumSummary> albums = IntStream.range(0, 3)
+                                .mapToObj(i -> new AlbumSummary("album" + i, null, "2024-12-24", "day", null))
+                                .toList();
+                when(releaseDetectionService.detectNewAlbumReleases(task.getId())).thenReturn(albums);
+                when(spotifyApi.getSeveralAlbumsAsync(ACCESS_TOKEN, albumIds(0, 3))).thenReturn(
+                                CompletableFuture.failedFuture(new WebApplicationException("Test exception", 502)));
+                IntStream.range(0, 3).forEach(i -> when(
+                                spotifyApi.getAlbumTracksAsync(ACCESS_TOKEN, "album" + i, 50, 0))
+                                .thenReturn(CompletableFuture.completedFuture(tracksPage("album" + i))));
+
+                // WHEN
+                releaseRadarService.executeTasks(List.of(task));
+
+                // THEN
+                verify(spotifyApi, times(3)).getAlbumTracksAsync(any(), any(), anyInt(), anyInt());
+                verify(addedItemRepository, times(1)).persist(argThat((List<AddedItem> addedItems) -> addedItems
+                                .stream().filter(item -> item.getItemType() == AddedItemType.TRACK).count() == 3));
+        }
+
+        @Test
+        public void givenPlaylistRejectsSecondChunk_whenExecuteTasks_thenWrittenItemsAreJournaled()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = new Task();
+                task.setId(1L);
+                task.setActive(true);
+                task.setPlaylistId("playlistId");
+                when(taskRepository.findById(task.getId())).thenReturn(task);
+                AlbumSummary album = createAlbumItem("album1");
+                when(releaseDetectionService.detectNewAlbumReleases(task.getId())).thenReturn(List.of(album));
+
+                List<TrackSummary> tracks = IntStream.range(0, 150)
+                                .mapToObj(i -> createTrackItem("track" + i, "spotify:track:track" + i))
+                                .toList();
+                givenAlbumTracks(album.id(), new TrackSummariesResponse(50, null, 0, 150, tracks));
+                doNothing().doThrow(new WebApplicationException(502))
+                                .when(spotifyApi).addToPlaylist(eq(ACCESS_TOKEN), eq("playlistId"), any());
+
+                // WHEN
+                releaseRadarService.executeTasks(List.of(task));
+
+                // THEN
+                verify(spotifyApi, times(2)).addToPlaylist(eq(ACCESS_TOKEN), eq("playlistId"), any());
+                verify(taskExecutionJournalRepository, times(1)).updateWrittenItems(eq(task.getId()), eq(100),
+                                eq(Stage.TRACKS_FETCHED), any());
+                verify(addedItemRepository, never()).persist(anyList());
+                verify(taskExecutionJournalRepository, never()).deleteById(any());
+                verify(taskLeaseManager, times(1)).release(task.getId());
+        }
+
+        @Test
+        public void givenInterruptedExecution_whenExecuteTasks_thenExecutionIsResumed()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = new Task();
+                task.setId(1L);
+                task.setActive(true);
+                task.setPlaylistId("playlistId");
+                when(taskRepository.findById(task.getId())).thenReturn(task);
+
+                AlbumSummary album = createAlbumItem("album1");
+                List<TrackSummary> tracks = IntStream.range(0, 150)
+                                .mapToObj(i -> createTrackItem("track" + i, "spotify:track:track" + i))
+                                .toList();
+                TaskExecutionJournal journal = new TaskExecutionJournal(task.getId(), "playlistId", List.of(album),
+                                Instant.now().minusSeconds(60));
+                journal.recordTracksFetched(tracks, Instant.now());
+                journal.recordWrittenItems(100, Instant.now());
+                when(taskExecutionJournalRepository.findById(task.getId())).thenReturn(journal);
+
+                // WHEN
+                releaseRadarService.executeTasks(List.of(task));
+
+                // THEN
+                verify(releaseDetectionService, never()).detectNewAlbumReleases(any(Long.class));
+                verify(spotifyApi, never()).getSeveralAlbumsAsync(any(), any());
+                verify(spotifyApi, times(1)).addToPlaylist(ACCESS_TOKEN, "playlistId", new PlaylistAddItemsRequest(
+                                tracks.subList(100, 150).stream().map(TrackSummary::uri).toList(), null));
+                verify(addedItemRepository, times(1)).persist(argThat((List<AddedItem> addedItems) -> addedItems
+                                .size() == 151));
+                verify(taskExecutionJournalRepository, times(1)).deleteById(task.getId());
+        }
+
+        @Test
+        public void givenExpiredInterruptedExecution_whenExecuteTasks_thenWrittenTracksAreRecordedAndTaskIsExecuted()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = new Task();
+                task.setId(1L);
+                task.setActive(true);
+                task.setPlaylistId("playlistId");
+                when(taskRepository.findById(task.getId())).thenReturn(task);
+                when(releaseDetectionService.detectNewAlbumReleases(task.getId())).thenReturn(List.of());
+
+                TrackSummary writtenTrack = createTrackItem("track1", "spotify:track:track1");
+                TaskExecutionJournal journal = new TaskExecutionJournal(task.getId(), "playlistId",
+                                List.of(createAlbumItem("album1")), Instant.now().minus(Duration.ofDays(8)));
+                journal.recordTracksFetched(List.of(writtenTrack, createTrackItem("track2", "spotify:track:track2")),
+                                Instant.now());
+                journal.recordWrittenItems(1, Instant.now());
+                when(taskExecutionJournalRepository.findById(task.getId())).thenReturn(journal);
+
+                // WHEN
+                releaseRadarService.executeTasks(List.of(task));
+
+                // THEN
+                verify(addedItemRepository, times(1)).persist(argThat((List<AddedItem> addedItems) -> addedItems
+                                .stream().map(AddedItem::getExternalId).toList().equals(List.of("track1"))));
+                verify(taskExecutionJournalRepository, times(1)).delete(journal);
+                verify(releaseDetectionService, times(1)).detectNewAlbumReleases(task.getId());
+                verify(spotifyApi, never()).addToPlaylist(any(), any(), any());
+        }
+
+        @Test
+        public void givenTracksAddedByFailedRun_whenExecuteTasks_thenOnlyRemainingTracksAreAdded()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                Task task = new Task();
+                task.setId(1L);
+                task.setActive(true);
+                task.setPlaylistId("playlistId");
+                when(taskRepository.findById(task.getId())).thenReturn(task);
+                AlbumSummary album = createAlbumItem("album1");
+                when(releaseDetectionService.detectNewAlbumReleases(task.getId())).thenReturn(List.of(album));
+
+                TrackSummary addedTrack = createTrackItem("track1", "spotify:track:track1");
+                TrackSummary remainingTrack = createTrackItem("track2", "spotify:track:track2");
+                givenAlbumTracks(album.id(),
+                                new TrackSummariesResponse(50, null, 0, 2, List.of(addedTrack, remainingTrack)));
+                when(addedItemRepository.findAddedExternalIds(task.getId(), AddedItemType.TRACK,
+                                List.of("track1", "track2"))).thenReturn(Set.of("track1"));
+
+                // WHEN
+                releaseRadarService.executeTasks(List.of(task));
+
+                // THEN
+                verify(spotifyApi, times(1)).addToPlaylist(ACCESS_TOKEN, "playlistId",
+                                new PlaylistAddItemsRequest(List.of("spotify:track:track2"), null));
+                verify(addedItemRepository, times(1)).persist(argThat((List<AddedItem> addedItems) -> addedItems
+                                .stream().map(AddedItem::getExternalId).toList().equals(List.of("album1", "track2"))));
+        }
+
+        @Test
+        public void givenDuplicateAndRecordedItems_whenUpdateAddedTaskItems_thenOnlyNewItemsArePersisted() {
+                // GIVEN
+                Task task = new Task();
+                task.setId(1L);
+                TrackSummary recordedTrack = createTrackItem("track1", "spotify:track:track1");
+                TrackSummary newTrack = createTrackItem("track2", "spotify:track:track2");
+                when(addedItemRepository.findAddedExternalIds(task.getId(), AddedItemType.TRACK,
+                                List.of("track1", "track2"))).thenReturn(Set.of("track1"));
+
+                // WHEN
+                releaseRadarService.updateAddedTaskItems(task, List.of(createAlbumItem("album1")),
+                                List.of(recordedTrack, newTrack, newTrack));
+
+                // THEN
+                verify(addedItemRepository, times(1)).persist(argThat((List<AddedItem> addedItems) -> addedItems
+                                .stream().map(AddedItem::getExternalId).toList().equals(List.of("album1", "track2"))));
+                verify(taskExecutionJournalRepository, times(1)).deleteById(task.getId());
+        }
+
+        @Test
+        public void givenTaskThrowsException_whenExecuteTasks_thenOtherTasksAreStillProcessed()
                         throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
                 // GIVEN
                 Task task1 = new Task();
@@ -198,66 +489,104 @@ public class ReleaseRadarServiceTest {
                 task2.setActive(true);
                 task2.setExecutionIntervalDays(1);
                 task2.setLastTimeExecuted(Instant.now().minusSeconds(60 * 60 * 24));
-                when(panacheTaskQuery.stream()).thenReturn(Stream.of(task1, task2));
                 when(taskRepository.findById(task1.getId())).thenReturn(task1);
                 when(taskRepository.findById(task2.getId())).thenReturn(task2);
 
                 when(releaseDetectionService.detectNewAlbumReleases(task1.getId()))
                                 .thenThrow(new WebApplicationException("Test exception"));
 
-                AlbumItem album = createAlbumItem("album1");
+                AlbumSummary album = createAlbumItem("album1");
                 when(releaseDetectionService.detectNewAlbumReleases(task2.getId()))
                                 .thenReturn(List.of(album));
-                TrackItem track = createTrackItem("track1", "spotify:track:track1");
-                TracksResponse tracksResponse = new TracksResponse(null, 20, null, 0, null, 1, List.of(track));
-                when(spotifyApi.getAlbumTracks(ACCESS_TOKEN, album.id(), 50, 0)).thenReturn(tracksResponse);
+                TrackSummary track = createTrackItem("track1", "spotify:track:track1");
+                TrackSummariesResponse tracksResponse = new TrackSummariesResponse(20, null, 0, 1, List.of(track));
+                givenAlbumTracks(album.id(), tracksResponse);
 
                 // WHEN
-                releaseRadarService.addNewReleases();
+                releaseRadarService.executeTasks(List.of(task1, task2));
 
                 // THEN
                 verify(spotifyApi, times(1)).addToPlaylist(any(), any(), any());
         }
 
-        TrackItem createTrackItem(String id, String uri) {
-                return new TrackItem(
-                                null,
-                                null,
-                                null,
-                                0,
-                                0,
-                                false,
-                                null,
-                                null,
-                                null,
-                                id,
-                                false,
-                                null,
-                                null,
-                                null,
-                                0,
-                                null,
-                                0,
-                                null,
-                                uri,
-                                false);
+        @Test
+        public void givenArtistDetectionMode_whenExecuteTasks_thenUseArtistDetection()
+                        throws WebApplicationException, IOException, InterruptedException, SpotifyTokenException {
+                // GIVEN
+                when(releaseRadarConfig.detectionMode()).thenReturn(DetectionMode.ARTIST);
+                ReleaseRadarService artistReleaseRadarService = new ReleaseRadarService(releaseDetectionService,
+                                taskRepository, spotifyTokenService, spotifyApi, addedItemRepository,
+                                httpClientService, artistAlbumCache, createAlbumTracksCache(), createPlaylistWriter(),
+                                taskExecutionJournalRepository, releaseRadarExecutor, taskLeaseManager,
+                                releaseRadarConfig);
+
+                Task task1 = new Task();
+                task1.setId(1L);
+                task1.setActive(true);
+                task1.setPlaylistId("playlistId");
+                Task task2 = new Task();
+                task2.setId(2L);
+                task2.setActive(true);
+                when(taskRepository.findById(any())).thenReturn(task1);
+
+                AlbumSummary album = createAlbumItem("album1");
+                when(releaseDetectionService.detectNewAlbumReleasesByArtist(List.of(task1, task2)))
+                                .thenReturn(Map.of(task1.getId(), List.of(album)));
+                when(releaseDetectionService.detectNewAlbumReleases(task2.getId())).thenReturn(List.of());
+
+                TrackSummary track = createTrackItem("track1", "spotify:track:track1");
+                TrackSummariesResponse tracksResponse = new TrackSummariesResponse(20, null, 0, 1, List.of(track));
+                givenAlbumTracks(album.id(), tracksResponse);
+
+                // WHEN
+                artistReleaseRadarService.executeTasks(List.of(task1, task2));
+
+                // THEN
+                verify(releaseDetectionService, times(0)).detectNewAlbumReleases(task1.getId());
+                verify(releaseDetectionService, times(1)).detectNewAlbumReleases(task2.getId());
+                verify(spotifyApi, times(1)).addToPlaylist(eq(ACCESS_TOKEN), eq("playlistId"), any());
+        }
+
+        private ReleaseRadarExecutor createReleaseRadarExecutor() {
+                when(releaseRadarConfig.execution().maxConcurrency()).thenReturn(4);
+                when(releaseRadarConfig.execution().maxConcurrencyPerUser()).thenReturn(2);
+                when(releaseRadarConfig.execution().shutdownTimeout()).thenReturn(Duration.ofSeconds(1));
+                return new ReleaseRadarExecutor(releaseRadarConfig, new SimpleMeterRegistry());
+        }
+
+        private void givenAlbumTracks(String albumId, TrackSummariesResponse tracksResponse) {
+                when(spotifyApi.getSeveralAlbumsAsync(ACCESS_TOKEN, albumId))
+                                .thenReturn(CompletableFuture.completedFuture(new SeveralAlbumsResponse(
+                                                List.of(new AlbumTracksSummary(albumId, tracksResponse)))));
+        }
+
+        private static TrackSummariesResponse tracksPage(String albumId) {
+                TrackSummary track = new TrackSummary(albumId + "track", "spotify:track:" + albumId + "track");
+                return new TrackSummariesResponse(50, null, 0, 1, List.of(track));
+        }
+
+        private static String albumIds(int from, int to) {
+                return IntStream.range(from, to).mapToObj(i -> "album" + i).collect(Collectors.joining(","));
+        }
+
+        private TaskExecutionJournalRepository createJournalRepository() {
+                when(releaseRadarConfig.journal().maxAge()).thenReturn(Duration.ofDays(7));
+                return mock(TaskExecutionJournalRepository.class);
+        }
+
+        private PlaylistWriter createPlaylistWriter() {
+                return new PlaylistWriter(spotifyApi, new SimpleMeterRegistry());
+        }
+
+        private AlbumTracksCache createAlbumTracksCache() {
+                return new AlbumTracksCache(albumTracksRepository, releaseRadarConfig, new SimpleMeterRegistry());
+        }
+
+        TrackSummary createTrackItem(String id, String uri) {
+                return new TrackSummary(id, uri);
         }
 
-        AlbumItem createAlbumItem(String id) {
-                return new AlbumItem(
-                                null,
-                                0,
-                                null,
-                                null,
-                                null,
-                                "album1",
-                                null,
-                                null,
-                                "2024-12-24",
-                                "day",
-                                null,
-                                null,
-                                null,
-                                null, null);
+        AlbumSummary createAlbumItem(String id) {
+                return new AlbumSummary("album1", null, "2024-12-24", "day", null);
         }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.releasedetection.TaskExecutionJournal.Stage;
+import com.windschief.spotify.model.AlbumSummary;
+import com.windschief.spotify.model.TrackSummary;
+import com.windschief.task.Platform;
+import com.windschief.task.Task;
+import com.windschief.task.TaskRepository;
+
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+class TaskExecutionJournalRepositoryTest {
+    private static final List<AlbumSummary> ALBUMS = List.of(
+            new AlbumSummary("album1", "spotify:album:album1", "2024-12-24", "day", "album"),
+            new AlbumSummary("album2", "spotify:album:album2", "2024-12", "month", "single"));
+    private static final List<TrackSummary> TRACKS = List.of(
+            new TrackSummary("track1", "spotify:track:track1"),
+            new TrackSummary("track2", "spotify:track:track2"));
+
+    @Inject
+    TaskExecutionJournalRepository taskExecutionJournalRepository;
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @BeforeEach
+    @TestTransaction
+    void setUp() {
+        taskExecutionJournalRepository.deleteAll();
+    }
+
+    @Test
+    @TestTransaction
+    void givenJournal_whenUpdateWrittenItems_thenJournalIsReadBackWithItsAlbumsAndTracks() {
+        // GIVEN
+        Task task = new Task();
+        task.setUserId("user");
+        task.setPlatform(Platform.SPOTIFY);
+        taskRepository.persist(task);
+
+        Instant startedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        TaskExecutionJournal journal = new TaskExecutionJournal(task.getId(), "playlistId", ALBUMS, startedAt);
+        journal.recordTracksFetched(TRACKS, startedAt);
+        taskExecutionJournalRepository.save(journal);
+
+        // WHEN
+        Instant updatedAt = startedAt.plusSeconds(1);
+        taskExecutionJournalRepository.updateWrittenItems(task.getId(), 2, Stage.CHUNKS_WRITTEN, updatedAt);
+        taskExecutionJournalRepository.getEntityManager().clear();
+        TaskExecutionJournal found = taskExecutionJournalRepository.findById(task.getId());
+
+        // THEN
+        assertEquals("playlistId", found.getPlaylistId());
+        assertEquals(Stage.CHUNKS_WRITTEN, found.getStage());
+        assertEquals(ALBUMS, found.getAlbums());
+        assertEquals(TRACKS, found.getTracks());
+        assertEquals(2, found.getWrittenItems());
+        assertEquals(startedAt, found.getStartedAt());
+        assertEquals(updatedAt, found.getUpdatedAt());
+
+        taskExecutionJournalRepository.deleteById(task.getId());
+        taskExecutionJournalRepository.getEntityManager().flush();
+        taskExecutionJournalRepository.getEntityManager().clear();
+        assertNull(taskExecutionJournalRepository.findById(task.getId()));
+    }
+}
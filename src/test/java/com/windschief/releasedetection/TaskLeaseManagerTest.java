@@ -0,0 +1,99 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.task.Task;
+import com.windschief.task.TaskRepository;
+
+class TaskLeaseManagerTest {
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+    private TaskLeaseManager taskLeaseManager;
+
+    @BeforeEach
+    void setup() {
+        when(releaseRadarConfig.lease().owner()).thenReturn(Optional.of("node-1"));
+        when(releaseRadarConfig.lease().duration()).thenReturn(Duration.ofMinutes(5));
+        taskLeaseManager = new TaskLeaseManager(taskRepository, releaseRadarConfig);
+    }
+
+    @Test
+    void givenAcquiredLease_whenRenew_thenLeaseIsExtended() {
+        // GIVEN
+        when(taskRepository.acquireLease(eq(1L), eq("node-1"), any(Instant.class), any(Instant.class), eq(true)))
+                .thenReturn(true);
+        taskLeaseManager.acquireDue(1L);
+
+        // WHEN
+        taskLeaseManager.renew();
+
+        // THEN
+        verify(taskRepository).renewLeases(eq(List.of(1L)), eq("node-1"), any(Instant.class));
+    }
+
+    @Test
+    void givenReleasedLease_whenRenew_thenNothingIsRenewed() {
+        // GIVEN
+        when(taskRepository.acquireLease(eq(1L), eq("node-1"), any(Instant.class), any(Instant.class), eq(false)))
+                .thenReturn(true);
+        taskLeaseManager.acquire(1L);
+        taskLeaseManager.release(1L);
+
+        // WHEN
+        taskLeaseManager.renew();
+
+        // THEN
+        verify(taskRepository).releaseLease(1L, "node-1");
+        verify(taskRepository, never()).renewLeases(anyList(), anyString(), any(Instant.class));
+    }
+
+    @Test
+    void givenLeaseHeldByOtherNode_whenAcquire_thenTaskIsNotLeasedLocally() {
+        // GIVEN
+        when(taskRepository.acquireLease(any(), anyString(), any(Instant.class), any(Instant.class), anyBoolean()))
+                .thenReturn(false);
+        Task task = new Task();
+        task.setId(1L);
+
+        // WHEN
+        boolean acquired = taskLeaseManager.acquireDue(1L);
+
+        // THEN
+        assertFalse(acquired);
+        assertFalse(taskLeaseManager.isLeased(task));
+    }
+
+    @Test
+    void givenAcquiredLease_whenIsLeased_thenTaskIsLeased() {
+        // GIVEN
+        when(taskRepository.acquireLease(any(), anyString(), any(Instant.class), any(Instant.class), anyBoolean()))
+                .thenReturn(true);
+        Task task = new Task();
+        task.setId(1L);
+
+        // WHEN
+        taskLeaseManager.acquire(1L);
+
+        // THEN
+        assertTrue(taskLeaseManager.isLeased(task));
+    }
+}
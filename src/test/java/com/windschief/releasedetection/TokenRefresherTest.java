@@ -0,0 +1,76 @@
+package com.windschief.releasedetection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.auth.SpotifyTokenException;
+import com.windschief.auth.SpotifyTokenRepository;
+import com.windschief.auth.SpotifyTokenService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenRefresherTest {
+    private final SpotifyTokenRepository tokenRepository = mock(SpotifyTokenRepository.class);
+    private final SpotifyTokenService spotifyTokenService = mock(SpotifyTokenService.class);
+    private final ReleaseRadarConfig releaseRadarConfig = mock(ReleaseRadarConfig.class, RETURNS_DEEP_STUBS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenRefresher tokenRefresher;
+
+    @BeforeEach
+    void setup() {
+        when(releaseRadarConfig.tokenRefresh().lookahead()).thenReturn(Duration.ofMinutes(15));
+        when(releaseRadarConfig.tokenRefresh().maxConcurrency()).thenReturn(2);
+        when(releaseRadarConfig.tokenRefresh().batchSize()).thenReturn(2);
+        tokenRefresher = new TokenRefresher(tokenRepository, spotifyTokenService, releaseRadarConfig, meterRegistry);
+    }
+
+    @Test
+    void givenMultipleBatchesOfExpiringTokens_whenRefreshExpiringTokens_thenAllTokensAreRefreshed()
+            throws SpotifyTokenException {
+        // GIVEN
+        when(tokenRepository.findUserIdsToRefresh(any(Instant.class), any(Instant.class), isNull(), eq(2)))
+                .thenReturn(List.of("user1", "user2"));
+        when(tokenRepository.findUserIdsToRefresh(any(Instant.class), any(Instant.class), eq("user2"), eq(2)))
+                .thenReturn(List.of("user3"));
+
+        // WHEN
+        tokenRefresher.refreshExpiringTokens();
+
+        // THEN
+        for (String userId : List.of("user1", "user2", "user3")) {
+            verify(spotifyTokenService).refreshAccessTokenIfExpiring(eq(userId), any(Instant.class));
+        }
+        assertEquals(3.0, meterRegistry.counter("spotify.token.refresh.background", "result", "refreshed").count());
+    }
+
+    @Test
+    void givenRejectedRefreshToken_whenRefreshExpiringTokens_thenOtherTokensAreStillRefreshed()
+            throws SpotifyTokenException {
+        // GIVEN
+        when(tokenRepository.findUserIdsToRefresh(any(Instant.class), any(Instant.class), isNull(), eq(2)))
+                .thenReturn(List.of("user1"));
+        doThrow(new SpotifyTokenException("Refresh token of user user1 has been rejected"))
+                .when(spotifyTokenService).refreshAccessTokenIfExpiring(eq("user1"), any(Instant.class));
+
+        // WHEN
+        tokenRefresher.refreshExpiringTokens();
+
+        // THEN
+        assertEquals(1.0, meterRegistry.counter("spotify.token.refresh.background", "result", "failed").count());
+        assertEquals(0.0, meterRegistry.counter("spotify.token.refresh.background", "result", "refreshed").count());
+    }
+}
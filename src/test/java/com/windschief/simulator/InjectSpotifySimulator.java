@@ -0,0 +1,15 @@
+package com.windschief.simulator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the test field that {@link SpotifySimulatorResource} injects the
+ * running simulator into.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface InjectSpotifySimulator {
+}
@@ -0,0 +1,172 @@
+package com.windschief.simulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.auth.SpotifyToken;
+import com.windschief.auth.SpotifyTokenRepository;
+import com.windschief.releasedetection.AlbumTracksRepository;
+import com.windschief.releasedetection.ArtistScanStateRepository;
+import com.windschief.releasedetection.ReleaseRadarService;
+import com.windschief.task.Platform;
+import com.windschief.task.Task;
+import com.windschief.task.TaskRepository;
+import com.windschief.task.added_item.AddedItemRepository;
+import com.windschief.task.item.TaskItem;
+import com.windschief.task.item.TaskItemRepository;
+import com.windschief.task.item.TaskItemType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * Executes the release radar for many synthetic tasks against the
+ * {@link SpotifySimulator} and reports throughput, Spotify calls and task
+ * latency. Excluded from the default build, run it with
+ * {@code ./mvnw test -Pload-test}. The size of the run is configured with
+ * {@code load.*} system properties, the simulated Spotify with
+ * {@code spotify-simulator.*} system properties.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = SpotifySimulatorResource.class, restrictToAnnotatedClass = true)
+@Tag("load")
+class ReleaseRadarLoadTest {
+    private static final String USER_PREFIX = "load-user-";
+    private static final int TASKS = Integer.getInteger("load.tasks", 10_000);
+    private static final int USERS = Integer.getInteger("load.users", 2_000);
+    private static final int ARTISTS_PER_TASK = Integer.getInteger("load.artists-per-task", 20);
+    private static final int TICK_SIZE = Integer.getInteger("load.tick-size", 500);
+
+    @Inject
+    ReleaseRadarService releaseRadarService;
+    @Inject
+    TaskRepository taskRepository;
+    @Inject
+    TaskItemRepository taskItemRepository;
+    @Inject
+    AddedItemRepository addedItemRepository;
+    @Inject
+    SpotifyTokenRepository spotifyTokenRepository;
+    @Inject
+    ArtistScanStateRepository artistScanStateRepository;
+    @Inject
+    AlbumTracksRepository albumTracksRepository;
+    @Inject
+    MeterRegistry meterRegistry;
+    @InjectSpotifySimulator
+    SpotifySimulator simulator;
+
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        final int artistCount = simulator.getSettings().artistCount();
+        for (int user = 0; user < USERS; user++) {
+            final String userId = USER_PREFIX + user;
+            QuarkusTransaction.requiringNew().run(() -> spotifyTokenRepository.persist(
+                    new SpotifyToken(userId, "expired", "refresh-" + userId, Instant.now().minusSeconds(60))));
+        }
+
+        for (int first = 0; first < TASKS; first += TICK_SIZE) {
+            final int from = first;
+            QuarkusTransaction.requiringNew().run(() -> {
+                for (int i = from; i < Math.min(from + TICK_SIZE, TASKS); i++) {
+                    final Task task = new Task();
+                    task.setUserId(USER_PREFIX + (i % USERS));
+                    task.setPlatform(Platform.SPOTIFY);
+                    task.setPlaylistId("playlist" + i);
+                    task.setActive(true);
+                    task.setExecutionIntervalDays(1);
+                    task.setCheckFrom(LocalDate.now().minusDays(30));
+                    for (int artist = 0; artist < ARTISTS_PER_TASK; artist++) {
+                        final TaskItem item = new TaskItem();
+                        item.setItemType(TaskItemType.ARTIST);
+                        item.setExternalId("artist" + ((i * ARTISTS_PER_TASK + artist) % artistCount));
+                        task.addTaskItem(item);
+                    }
+                    taskRepository.persist(task);
+                    taskIds.add(task.getId());
+                }
+            });
+        }
+        simulator.resetCounters();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (int user = 0; user < USERS; user++) {
+            final String userId = USER_PREFIX + user;
+            QuarkusTransaction.requiringNew().run(() -> {
+                addedItemRepository.deleteByUserId(userId);
+                taskItemRepository.deleteByUserId(userId);
+                taskRepository.deleteByUserId(userId);
+                spotifyTokenRepository.delete("userId", userId);
+            });
+        }
+        QuarkusTransaction.requiringNew().run(() -> {
+            artistScanStateRepository.deleteAll();
+            albumTracksRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void givenSyntheticTasks_whenExecuteTasks_thenAllTasksAreExecuted() {
+        // GIVEN
+        final Instant start = Instant.now();
+
+        // WHEN
+        for (int first = 0; first < taskIds.size(); first += TICK_SIZE) {
+            final List<Long> tick = taskIds.subList(first, Math.min(first + TICK_SIZE, taskIds.size()));
+            final List<Task> tasks = QuarkusTransaction.requiringNew()
+                    .call(() -> taskRepository.list("id in ?1", tick));
+            releaseRadarService.executeTasks(tasks);
+        }
+        final Duration elapsed = Duration.between(start, Instant.now());
+
+        // THEN
+        report(elapsed);
+        final long executed = QuarkusTransaction.requiringNew().call(() -> taskRepository
+                .count("id in ?1 and lastTimeExecuted is not null", taskIds));
+        assertEquals(taskIds.size(), executed);
+        assertTrue(simulator.getAddedItems() > 0);
+    }
+
+    private void report(Duration elapsed) {
+        final Timer taskDuration = meterRegistry.find("release.radar.task.duration").tag("exception", "none").timer();
+        double p50 = Double.NaN;
+        double p99 = Double.NaN;
+        if (taskDuration != null) {
+            for (ValueAtPercentile percentile : taskDuration.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == 0.5) {
+                    p50 = percentile.value(TimeUnit.MILLISECONDS);
+                } else if (percentile.percentile() == 0.99) {
+                    p99 = percentile.value(TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        Log.info(String.format("Load test executed %d tasks in %d ms: %.1f tasks/s, task latency p50=%.0f ms "
+                + "p99=%.0f ms, Spotify calls %s, throttled %d, added tracks %d",
+                taskIds.size(), elapsed.toMillis(), taskIds.size() * 1000.0 / Math.max(1, elapsed.toMillis()),
+                p50, p99, simulator.getCallCounts(), simulator.getThrottledCalls(), simulator.getAddedItems()));
+    }
+}
@@ -0,0 +1,322 @@
+package com.windschief.simulator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Simulates the parts of {@code api.spotify.com} and
+ * {@code accounts.spotify.com} used by the release radar on a local port.
+ * Artists are named {@code artist0} to {@code artistN}; the first releases of
+ * every artist are released within the last days, all others years ago.
+ * Responses are delayed following a log-normal distribution, and requests
+ * beyond the configured rate are answered with 429 and a Retry-After header.
+ */
+public class SpotifySimulator implements AutoCloseable {
+    private static final Pattern ARTIST_ALBUMS = Pattern.compile("/v1/artists/([^/]+)/albums");
+    private static final Pattern ALBUM_TRACKS = Pattern.compile("/v1/albums/([^/]+)/tracks");
+    private static final Pattern PLAYLIST_TRACKS = Pattern.compile("/v1/playlists/([^/]+)/tracks");
+    private static final Pattern ALBUM_ID = Pattern.compile("(artist\\d+)album(\\d+)");
+    private static final double Z_99 = 2.326;
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LongAdder> callCounts = new ConcurrentHashMap<>();
+    private final LongAdder throttledCalls = new LongAdder();
+    private final LongAdder addedItems = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicLong windowCalls = new AtomicLong();
+
+    /**
+     * @param artistCount          number of artists in the catalogue.
+     * @param releasesPerArtist    number of albums and singles per artist.
+     * @param newReleasesPerArtist number of releases per artist within the last
+     *                             days.
+     * @param tracksPerRelease     number of tracks per release.
+     * @param medianLatencyMillis  median response latency.
+     * @param p99LatencyMillis     99th percentile of the response latency.
+     * @param maxRequestsPerSecond requests beyond this rate are answered with
+     *                             429, or 0 for no limit.
+     * @param retryAfterSeconds    Retry-After sent with 429 responses.
+     * @param tokenLifetimeSeconds lifetime of refreshed access tokens.
+     */
+    public record Settings(int artistCount, int releasesPerArtist, int newReleasesPerArtist, int tracksPerRelease,
+            int medianLatencyMillis, int p99LatencyMillis, int maxRequestsPerSecond, int retryAfterSeconds,
+            int tokenLifetimeSeconds) {
+
+        /**
+         * Reads the settings from {@code spotify-simulator.*} entries of the
+         * given map, falling back to defaults.
+         */
+        public static Settings from(Map<String, String> values) {
+            return new Settings(
+                    intValue(values, "artist-count", 2000),
+                    intValue(values, "releases-per-artist", 60),
+                    intValue(values, "new-releases-per-artist", 1),
+                    intValue(values, "tracks-per-release", 10),
+                    intValue(values, "median-latency-millis", 40),
+                    intValue(values, "p99-latency-millis", 250),
+                    intValue(values, "max-requests-per-second", 0),
+                    intValue(values, "retry-after-seconds", 1),
+                    intValue(values, "token-lifetime-seconds", 3600));
+        }
+
+        private static int intValue(Map<String, String> values, String key, int defaultValue) {
+            final String value = values.get("spotify-simulator." + key);
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        }
+    }
+
+    public SpotifySimulator(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    /**
+     * Base URL of the Web API, e.g. for {@code quarkus.rest-client.spotify-api.url}.
+     */
+    public String getApiUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Base URL of the accounts service, e.g. for
+     * {@code quarkus.rest-client.spotify-accounts-api.url}.
+     */
+    public String getAccountsUrl() {
+        return getApiUrl() + "/api";
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Number of answered calls per endpoint, excluding throttled ones.
+     */
+    public Map<String, Long> getCallCounts() {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        callCounts.forEach((endpoint, count) -> counts.put(endpoint, count.sum()));
+        return counts;
+    }
+
+    public long getThrottledCalls() {
+        return throttledCalls.sum();
+    }
+
+    public long getAddedItems() {
+        return addedItems.sum();
+    }
+
+    public void resetCounters() {
+        callCounts.clear();
+        throttledCalls.reset();
+        addedItems.reset();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            delay();
+            if (isThrottled()) {
+                throttledCalls.increment();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(settings.retryAfterSeconds()));
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+
+            final String path = exchange.getRequestURI().getPath();
+            final Map<String, String> query = parseQuery(exchange.getRequestURI());
+            Matcher matcher;
+            if ((matcher = ARTIST_ALBUMS.matcher(path)).matches()) {
+                count("artist-albums");
+                respond(exchange, 200, artistAlbums(matcher.group(1), query));
+            } else if ((matcher = ALBUM_TRACKS.matcher(path)).matches()) {
+                count("album-tracks");
+                respond(exchange, 200, albumTracks(matcher.group(1), query));
+            } else if (path.equals("/v1/albums")) {
+                count("several-albums");
+                respond(exchange, 200, severalAlbums(query));
+            } else if ((matcher = PLAYLIST_TRACKS.matcher(path)).matches()) {
+                count("playlist-tracks");
+                final Map<?, ?> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+                addedItems.add(((List<?>) request.get("uris")).size());
+                respond(exchange, 201, Map.of("snapshot_id", UUID.randomUUID().toString()));
+            } else if (path.equals("/v1/me")) {
+                count("me");
+                respond(exchange, 200, Map.of("id", "simulated-user", "display_name", "Simulated User"));
+            } else if (path.equals("/api/token")) {
+                count("token");
+                respond(exchange, 200, Map.of("access_token", "simulated-" + UUID.randomUUID(),
+                        "token_type", "Bearer", "expires_in", settings.tokenLifetimeSeconds(), "scope", ""));
+            } else {
+                count("unknown");
+                exchange.sendResponseHeaders(404, -1);
+            }
+        }
+    }
+
+    private Map<String, Object> artistAlbums(String artistId, Map<String, String> query) {
+        final int offset = Integer.parseInt(query.getOrDefault("offset", "0"));
+        final int limit = Integer.parseInt(query.getOrDefault("limit", "20"));
+        final int total = settings.releasesPerArtist();
+        final LocalDate today = LocalDate.now();
+
+        final List<Map<String, Object>> items = new ArrayList<>();
+        for (int release = offset; release < Math.min(offset + limit, total); release++) {
+            final String albumId = artistId + "album" + release;
+            final boolean isNew = release < settings.newReleasesPerArtist();
+            final Map<String, Object> album = new HashMap<>();
+            album.put("id", albumId);
+            album.put("uri", "spotify:album:" + albumId);
+            album.put("name", "Release " + release + " of " + artistId);
+            album.put("release_date",
+                    isNew ? today.minusDays(release).toString() : String.valueOf(2000 + release % 20));
+            album.put("release_date_precision", isNew ? "day" : "year");
+            album.put("album_group", release < total / 2 ? "album" : "single");
+            album.put("album_type", release < total / 2 ? "album" : "single");
+            album.put("total_tracks", settings.tracksPerRelease());
+            items.add(album);
+        }
+        final String next = offset + limit < total
+                ? String.format("%s/v1/artists/%s/albums?offset=%d&limit=%d&include_groups=%s", getApiUrl(),
+                        artistId, offset + limit, limit, query.getOrDefault("include_groups", "album,single"))
+                : null;
+        return page(limit, offset, total, next, items);
+    }
+
+    private Map<String, Object> albumTracks(String albumId, Map<String, String> query) {
+        final int offset = Integer.parseInt(query.getOrDefault("offset", "0"));
+        final int limit = Integer.parseInt(query.getOrDefault("limit", "20"));
+        final int total = ALBUM_ID.matcher(albumId).matches() ? settings.tracksPerRelease() : 0;
+
+        final List<Map<String, Object>> items = new ArrayList<>();
+        for (int track = offset; track < Math.min(offset + limit, total); track++) {
+            final String trackId = albumId + "track" + track;
+            items.add(Map.of("id", trackId, "uri", "spotify:track:" + trackId, "name", "Track " + track,
+                    "track_number", track + 1, "duration_ms", 180000));
+        }
+        final String next = offset + limit < total
+                ? String.format("%s/v1/albums/%s/tracks?offset=%d&limit=%d", getApiUrl(), albumId, offset + limit,
+                        limit)
+                : null;
+        return page(limit, offset, total, next, items);
+    }
+
+    private Map<String, Object> severalAlbums(Map<String, String> query) {
+        final List<Map<String, Object>> albums = new ArrayList<>();
+        for (String albumId : query.getOrDefault("ids", "").split(",")) {
+            if (!ALBUM_ID.matcher(albumId).matches()) {
+                albums.add(null);
+                continue;
+            }
+            final Map<String, Object> album = new HashMap<>();
+            album.put("id", albumId);
+            album.put("uri", "spotify:album:" + albumId);
+            album.put("tracks", albumTracks(albumId, Map.of("limit", "50")));
+            albums.add(album);
+        }
+        final Map<String, Object> response = new HashMap<>();
+        response.put("albums", albums);
+        return response;
+    }
+
+    private static Map<String, Object> page(int limit, int offset, int total, String next,
+            List<Map<String, Object>> items) {
+        final Map<String, Object> page = new HashMap<>();
+        page.put("limit", limit);
+        page.put("offset", offset);
+        page.put("total", total);
+        page.put("next", next);
+        page.put("items", items);
+        return page;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        final byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void count(String endpoint) {
+        callCounts.computeIfAbsent(endpoint, ignored -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts the calls within the current second, answering those beyond the
+     * limit with 429.
+     */
+    private boolean isThrottled() {
+        if (settings.maxRequestsPerSecond() <= 0) {
+            return false;
+        }
+        final long second = System.nanoTime() / 1_000_000_000L;
+        final long start = windowStart.get();
+        if (second != start && windowStart.compareAndSet(start, second)) {
+            windowCalls.set(0);
+        }
+        return windowCalls.incrementAndGet() > settings.maxRequestsPerSecond();
+    }
+
+    private void delay() {
+        if (settings.medianLatencyMillis() <= 0) {
+            return;
+        }
+        final double sigma = Math.log((double) Math.max(settings.p99LatencyMillis(), settings.medianLatencyMillis())
+                / settings.medianLatencyMillis()) / Z_99;
+        final double latency = settings.medianLatencyMillis()
+                * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        try {
+            Thread.sleep((long) latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        final Map<String, String> query = new HashMap<>();
+        if (uri.getQuery() == null) {
+            return query;
+        }
+        for (String parameter : uri.getQuery().split("&")) {
+            final int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                query.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+            }
+        }
+        return query;
+    }
+}
@@ -0,0 +1,52 @@
+package com.windschief.simulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+/**
+ * Starts a {@link SpotifySimulator} and points the Spotify REST clients at it.
+ * The simulator is configured with {@code spotify-simulator.*} init args or
+ * system properties, see {@link SpotifySimulator.Settings}.
+ */
+public class SpotifySimulatorResource implements QuarkusTestResourceLifecycleManager {
+    private final Map<String, String> settings = new HashMap<>();
+    private SpotifySimulator simulator;
+
+    @Override
+    public void init(Map<String, String> initArgs) {
+        settings.putAll(initArgs);
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("spotify-simulator."))
+                .forEach(name -> settings.put(name, System.getProperty(name)));
+    }
+
+    @Override
+    public Map<String, String> start() {
+        try {
+            simulator = new SpotifySimulator(SpotifySimulator.Settings.from(settings));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        simulator.start();
+        return Map.of(
+                "quarkus.rest-client.spotify-api.url", simulator.getApiUrl(),
+                "quarkus.rest-client.spotify-accounts-api.url", simulator.getAccountsUrl());
+    }
+
+    @Override
+    public void inject(TestInjector testInjector) {
+        testInjector.injectIntoFields(simulator,
+                new TestInjector.AnnotatedAndMatchesType(InjectSpotifySimulator.class, SpotifySimulator.class));
+    }
+
+    @Override
+    public void stop() {
+        if (simulator != null) {
+            simulator.close();
+        }
+    }
+}
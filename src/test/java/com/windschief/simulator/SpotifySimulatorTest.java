@@ -0,0 +1,121 @@
+package com.windschief.simulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+import com.windschief.spotify.model.SeveralAlbumsResponse;
+import com.windschief.spotify.model.TokenResponse;
+
+class SpotifySimulatorTest {
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SpotifySimulator simulator;
+
+    @AfterEach
+    void tearDown() {
+        simulator.close();
+    }
+
+    @Test
+    void givenArtistWithManyReleases_whenGetArtistAlbums_thenPagesAreLinkedWithNext() throws Exception {
+        // GIVEN
+        start(Map.of("spotify-simulator.releases-per-artist", "60", "spotify-simulator.new-releases-per-artist", "2"));
+
+        // WHEN
+        AlbumSummariesResponse firstPage = get(simulator.getApiUrl()
+                + "/v1/artists/artist1/albums?offset=0&limit=50&include_groups=album,single",
+                AlbumSummariesResponse.class);
+        AlbumSummariesResponse secondPage = get(firstPage.next(), AlbumSummariesResponse.class);
+
+        // THEN
+        assertEquals(60, firstPage.total());
+        assertEquals(50, firstPage.items().size());
+        assertEquals("day", firstPage.items().get(1).release_date_precision());
+        assertEquals("year", firstPage.items().get(2).release_date_precision());
+        assertEquals(10, secondPage.items().size());
+        assertNull(secondPage.next());
+        assertEquals(2L, simulator.getCallCounts().get("artist-albums"));
+    }
+
+    @Test
+    void givenAlbumIds_whenGetSeveralAlbums_thenAlbumsHoldTheirFirstTracks() throws Exception {
+        // GIVEN
+        start(Map.of("spotify-simulator.tracks-per-release", "60"));
+
+        // WHEN
+        SeveralAlbumsResponse response = get(simulator.getApiUrl() + "/v1/albums?ids=artist1album0,unknown",
+                SeveralAlbumsResponse.class);
+
+        // THEN
+        assertEquals(2, response.albums().size());
+        assertEquals("artist1album0", response.albums().get(0).id());
+        assertEquals(60, response.albums().get(0).tracks().total());
+        assertEquals(50, response.albums().get(0).tracks().items().size());
+        assertNull(response.albums().get(1));
+        assertEquals(1L, simulator.getCallCounts().get("several-albums"));
+    }
+
+    @Test
+    void givenRequestsBeyondRate_whenGetArtistAlbums_thenTooManyRequestsWithRetryAfter() throws Exception {
+        // GIVEN
+        start(Map.of("spotify-simulator.max-requests-per-second", "1", "spotify-simulator.retry-after-seconds", "3"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(simulator.getApiUrl() + "/v1/artists/artist1/albums"))
+                .build();
+
+        // WHEN
+        // at least two of the requests fall into the same second
+        HttpResponse<Void> response = null;
+        for (int i = 0; i < 5 && (response == null || response.statusCode() != 429); i++) {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+
+        // THEN
+        assertEquals(429, response.statusCode());
+        assertEquals("3", response.headers().firstValue("Retry-After").orElseThrow());
+        assertEquals(1L, simulator.getThrottledCalls());
+    }
+
+    @Test
+    void givenRefreshToken_whenRequestToken_thenNewAccessTokenIsIssued() throws Exception {
+        // GIVEN
+        start(Map.of("spotify-simulator.token-lifetime-seconds", "600"));
+
+        // WHEN
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(
+                URI.create(simulator.getAccountsUrl() + "/token"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=refresh_token&refresh_token=refresh"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // THEN
+        TokenResponse token = objectMapper.readValue(response.body(), TokenResponse.class);
+        assertEquals(200, response.statusCode());
+        assertEquals(600, token.expires_in());
+    }
+
+    private void start(Map<String, String> settings) throws IOException {
+        Map<String, String> values = new HashMap<>(settings);
+        values.putIfAbsent("spotify-simulator.median-latency-millis", "0");
+        simulator = new SpotifySimulator(SpotifySimulator.Settings.from(values));
+        simulator.start();
+    }
+
+    private <T> T get(String url, Class<T> type) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readValue(response.body(), type);
+    }
+}
@@ -0,0 +1,130 @@
+package com.windschief.spotify;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.jboss.resteasy.reactive.client.spi.ResteasyReactiveClientRequestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.client.ETagStore;
+import com.windschief.spotify.model.AlbumSummariesResponse;
+
+import jakarta.ws.rs.client.ClientResponseContext;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.ReaderInterceptorContext;
+
+class SpotifyETagFilterTest {
+    private static final String ALBUMS_URL = "https://api.spotify.com/v1/artists/artist1/albums?limit=50&offset=0";
+    private static final AlbumSummariesResponse PAGE = new AlbumSummariesResponse(50, null, 0, 0, List.of());
+    private static final ETagStore.Entry STORED_PAGE = new ETagStore.Entry("\"v1\"", "{}");
+
+    private final ETagStore etagStore = mock(ETagStore.class);
+    private final SpotifyETagFilter filter = new SpotifyETagFilter(etagStore);
+    private final ResteasyReactiveClientRequestContext requestContext = mock(
+            ResteasyReactiveClientRequestContext.class);
+    private final ClientResponseContext responseContext = mock(ClientResponseContext.class);
+    private final ReaderInterceptorContext readerContext = mock(ReaderInterceptorContext.class);
+    private final MultivaluedMap<String, Object> requestHeaders = new MultivaluedHashMap<>();
+    private final MultivaluedMap<String, String> responseHeaders = new MultivaluedHashMap<>();
+    // shared by the request, response and reader contexts like in the client
+    private final Map<String, Object> properties = new HashMap<>();
+
+    @BeforeEach
+    void setup() {
+        when(requestContext.getMethod()).thenReturn("GET");
+        when(requestContext.getUri()).thenReturn(URI.create(ALBUMS_URL));
+        when(requestContext.getHeaders()).thenReturn(requestHeaders);
+        doReturn(new GenericType<>(AlbumSummariesResponse.class)).when(requestContext).getResponseType();
+        when(requestContext.getProperty(any())).thenAnswer(invocation -> properties.get(invocation.getArgument(0)));
+        doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(requestContext).setProperty(any(), any());
+        when(readerContext.getProperty(any())).thenAnswer(invocation -> properties.get(invocation.getArgument(0)));
+        doReturn(AlbumSummariesResponse.class).when(readerContext).getType();
+        when(readerContext.getHeaders()).thenReturn(responseHeaders);
+        when(responseContext.getHeaders()).thenReturn(responseHeaders);
+    }
+
+    @Test
+    void givenStoredPage_whenFilterRequest_thenIfNoneMatchIsSentAfterLookup() {
+        // GIVEN
+        when(etagStore.findAsync(ALBUMS_URL, AlbumSummariesResponse.class))
+                .thenReturn(CompletableFuture.completedFuture(List.of(STORED_PAGE)));
+
+        // WHEN
+        filter.filter(requestContext);
+
+        // THEN
+        verify(requestContext).suspend();
+        verify(requestContext).resume();
+        assertEquals("\"v1\"", requestHeaders.getFirst("If-None-Match"));
+    }
+
+    @Test
+    void givenResponseWithETag_whenRead_thenDecodedPageIsStored() throws IOException {
+        // GIVEN
+        when(etagStore.findAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(List.of()));
+        filter.filter(requestContext);
+        responseHeaders.putSingle("ETag", "\"v2\"");
+        when(readerContext.proceed()).thenReturn(PAGE);
+
+        // WHEN
+        Object page = filter.aroundReadFrom(readerContext);
+
+        // THEN
+        assertSame(PAGE, page);
+        verify(etagStore).put(ALBUMS_URL, "\"v2\"", PAGE);
+    }
+
+    @Test
+    void givenNotModifiedResponse_whenRead_thenStoredPageIsServedWithoutDecodingBody() throws IOException {
+        // GIVEN
+        when(etagStore.findAsync(ALBUMS_URL, AlbumSummariesResponse.class))
+                .thenReturn(CompletableFuture.completedFuture(List.of(STORED_PAGE)));
+        when(etagStore.read(STORED_PAGE, AlbumSummariesResponse.class)).thenReturn(PAGE);
+        when(responseContext.getStatus()).thenReturn(304);
+        filter.filter(requestContext);
+
+        // WHEN
+        filter.filter(requestContext, responseContext);
+        Object page = filter.aroundReadFrom(readerContext);
+
+        // THEN
+        verify(responseContext).setStatus(200);
+        verify(etagStore).recordNotModified();
+        verify(readerContext, never()).proceed();
+        assertSame(PAGE, page);
+    }
+
+    @Test
+    void givenUserSpecificRequest_whenFilter_thenNothingIsLookedUpOrStored() throws IOException {
+        // GIVEN
+        when(requestContext.getUri()).thenReturn(URI.create("https://api.spotify.com/v1/me/following"));
+        responseHeaders.putSingle("ETag", "\"v1\"");
+        when(readerContext.proceed()).thenReturn(PAGE);
+
+        // WHEN
+        filter.filter(requestContext);
+        filter.aroundReadFrom(readerContext);
+
+        // THEN
+        verify(etagStore, never()).findAsync(any(), any());
+        verify(etagStore, never()).put(any(), any(), any());
+    }
+}
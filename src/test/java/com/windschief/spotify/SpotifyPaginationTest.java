@@ -0,0 +1,97 @@
+package com.windschief.spotify;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.windschief.spotify.model.TrackItem;
+import com.windschief.spotify.model.TracksResponse;
+
+import jakarta.ws.rs.WebApplicationException;
+
+class SpotifyPaginationTest {
+    private static final String NEXT_URL = "https://api.spotify.com/v1/albums/albumId/tracks?offset=2&limit=2";
+
+    @Test
+    void givenOffsetNextLink_whenFetchAll_thenRemainingPagesAreRequestedAtOnce() {
+        // GIVEN
+        TracksResponse firstPage = page(0, NEXT_URL, "track0", "track1");
+        Map<String, CompletableFuture<TracksResponse>> requested = new ConcurrentHashMap<>();
+        CompletableFuture<TracksResponse> secondPage = new CompletableFuture<>();
+        CompletableFuture<TracksResponse> thirdPage = new CompletableFuture<>();
+
+        // WHEN
+        CompletableFuture<List<TrackItem>> tracks = SpotifyPagination.fetchAll(firstPage, url -> {
+            CompletableFuture<TracksResponse> response = url.contains("offset=2") ? secondPage : thirdPage;
+            requested.put(url, response);
+            return response;
+        });
+
+        // THEN
+        assertEquals(2, requested.size());
+        assertTrue(requested.containsKey(NEXT_URL.replace("offset=2", "offset=4")));
+
+        thirdPage.complete(page(4, null, "track4"));
+        secondPage.complete(page(2, NEXT_URL.replace("offset=2", "offset=4"), "track2", "track3"));
+        assertEquals(List.of("track0", "track1", "track2", "track3", "track4"), ids(tracks.join()));
+    }
+
+    @Test
+    void givenOpaqueNextLink_whenFetchAll_thenPagesAreFollowedOneByOne() {
+        // GIVEN
+        TracksResponse firstPage = page(0, "nextPage", "track0", "track1");
+
+        // WHEN
+        List<TrackItem> tracks = SpotifyPagination.fetchAll(firstPage,
+                url -> CompletableFuture.completedFuture(page(2, null, "track2"))).join();
+
+        // THEN
+        assertEquals(List.of("track0", "track1", "track2"), ids(tracks));
+    }
+
+    @Test
+    void givenFailingPage_whenFetchAll_thenFailureIsPropagated() {
+        // GIVEN
+        TracksResponse firstPage = page(0, NEXT_URL, "track0", "track1");
+
+        // WHEN
+        CompletableFuture<List<TrackItem>> tracks = SpotifyPagination.fetchAll(firstPage,
+                url -> CompletableFuture.failedFuture(new WebApplicationException("Test exception")));
+
+        // THEN
+        CompletionException exception = assertThrows(CompletionException.class, tracks::join);
+        assertTrue(exception.getCause() instanceof WebApplicationException);
+    }
+
+    @Test
+    void givenOffsetRange_whenPageUrls_thenOnlyPagesHoldingTheRangeAreReturned() {
+        // GIVEN
+        TracksResponse firstPage = page(0, NEXT_URL, "track0", "track1");
+
+        // WHEN
+        List<String> urls = SpotifyPagination.pageUrls(firstPage, 3, 4);
+
+        // THEN
+        assertEquals(List.of(NEXT_URL), urls);
+    }
+
+    private static TracksResponse page(int offset, String next, String... trackIds) {
+        List<TrackItem> items = List.of(trackIds).stream()
+                .map(id -> new TrackItem(null, null, null, 0, 0, false, null, null, null, id, false, null, null,
+                        null, 0, null, 0, null, null, false))
+                .toList();
+        return new TracksResponse(null, 2, next, offset, null, 5, items);
+    }
+
+    private static List<String> ids(List<TrackItem> tracks) {
+        return tracks.stream().map(TrackItem::id).toList();
+    }
+}
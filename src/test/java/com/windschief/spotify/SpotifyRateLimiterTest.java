@@ -0,0 +1,115 @@
+package com.windschief.spotify;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.windschief.auth.SpotifyConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SpotifyRateLimiterTest {
+    private final SpotifyConfig spotifyConfig = mock(SpotifyConfig.class, RETURNS_DEEP_STUBS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanoClock = new AtomicLong();
+    private SpotifyRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup() {
+        when(spotifyConfig.rateLimit().initialRate()).thenReturn(10.0);
+        when(spotifyConfig.rateLimit().minRate()).thenReturn(1.0);
+        when(spotifyConfig.rateLimit().maxRate()).thenReturn(20.0);
+        when(spotifyConfig.rateLimit().increaseStep()).thenReturn(1.0);
+        when(spotifyConfig.rateLimit().decreaseFactor()).thenReturn(0.5);
+        when(spotifyConfig.rateLimit().burst()).thenReturn(2);
+        rateLimiter = new SpotifyRateLimiter(spotifyConfig, meterRegistry, nanoClock::get);
+    }
+
+    @Test
+    void givenStoredPermits_whenReserve_thenBurstIsServedWithoutWaiting() {
+        // WHEN / THEN
+        assertEquals(Duration.ZERO, rateLimiter.reserve());
+        assertEquals(Duration.ZERO, rateLimiter.reserve());
+        assertEquals(Duration.ZERO, rateLimiter.reserve());
+        assertEquals(Duration.ofMillis(100), rateLimiter.reserve());
+    }
+
+    @Test
+    void givenThrottled_whenReserve_thenAllCallersWaitForRetryAfter() {
+        // GIVEN
+        rateLimiter.onThrottled(Duration.ofSeconds(2));
+
+        // WHEN / THEN
+        assertEquals(Duration.ofSeconds(2), rateLimiter.reserve());
+        assertEquals(Duration.ofMillis(2200), rateLimiter.reserve());
+        assertEquals(1.0, meterRegistry.counter("spotify.rate.limiter.throttled").count());
+    }
+
+    @Test
+    void givenConcurrentThrottles_whenOnThrottled_thenRateIsDecreasedOnce() {
+        // WHEN
+        rateLimiter.onThrottled(Duration.ofSeconds(1));
+        rateLimiter.onThrottled(Duration.ofSeconds(1));
+
+        // THEN
+        assertEquals(5.0, rateLimiter.getRate());
+    }
+
+    @Test
+    void givenSuccessfulRequests_whenOnSuccess_thenRateIncreasesUpToMaximum() {
+        // WHEN
+        for (int i = 0; i < 20; i++) {
+            rateLimiter.onSuccess();
+        }
+
+        // THEN
+        assertEquals(20.0, rateLimiter.getRate());
+    }
+
+    @Test
+    void givenIdleTime_whenGetAvailablePermits_thenPermitsAreRefilledUpToBurst() {
+        // GIVEN
+        rateLimiter.reserve();
+        rateLimiter.reserve();
+        rateLimiter.reserve();
+
+        // WHEN
+        nanoClock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // THEN
+        assertEquals(2.0, rateLimiter.getAvailablePermits());
+    }
+
+    @Test
+    void givenHandedOverPermit_whenAcquireUnlessHandedOver_thenOnlyFirstRequestUsesIt() throws Exception {
+        // WHEN
+        List<Boolean> acquired = rateLimiter.sendWithPermit(() -> {
+            try {
+                return List.of(rateLimiter.acquireUnlessHandedOver(), rateLimiter.acquireUnlessHandedOver());
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // THEN
+        assertEquals(List.of(false, true), acquired);
+        assertTrue(rateLimiter.acquireUnlessHandedOver());
+        assertEquals(0.0, rateLimiter.getAvailablePermits());
+    }
+
+    @Test
+    void givenRetryAfterHeader_whenParseRetryAfter_thenReturnSeconds() {
+        assertEquals(Duration.ofSeconds(3), SpotifyRateLimiter.parseRetryAfter("3"));
+        assertEquals(Duration.ofSeconds(5), SpotifyRateLimiter.parseRetryAfter("invalid"));
+        assertEquals(Duration.ofSeconds(5), SpotifyRateLimiter.parseRetryAfter(null));
+    }
+}
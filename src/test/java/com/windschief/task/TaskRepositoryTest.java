@@ -1,5 +1,7 @@
 package com.windschief.task;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -167,4 +169,114 @@ class TaskRepositoryTest {
         assertEquals(0, taskRepository.findByUserId("user").size());
         assertEquals(0, taskItemRepository.listAll().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @TestTransaction
+    void givenInactiveAndNotDueTasks_whenFindDueTasks_thenOnlyActiveDueTasksAreFound() {
+        // GIVEN
+        Task dueTask = createTask(true, Instant.now().minus(2, ChronoUnit.DAYS));
+        Task neverExecutedTask = createTask(true, null);
+        createTask(false, Instant.now().minus(2, ChronoUnit.DAYS));
+        createTask(true, Instant.now());
+
+        // WHEN
+        List<Task> dueTasks = taskRepository.findDueTasks(Instant.now(), null, null, 10);
+
+        // THEN
+        assertEquals(List.of(dueTask.getId(), neverExecutedTask.getId()),
+                dueTasks.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    @TestTransaction
+    void givenMoreDueTasksThanLimit_whenFindDueTasksAfterLastTask_thenNextPageIsFound() {
+        // GIVEN
+        Instant lastTimeExecuted = Instant.now().minus(2, ChronoUnit.DAYS);
+        Task task1 = createTask(true, lastTimeExecuted);
+        Task task2 = createTask(true, lastTimeExecuted);
+        Task task3 = createTask(true, lastTimeExecuted.plusSeconds(1));
+
+        // WHEN
+        Instant now = Instant.now();
+        List<Task> firstPage = taskRepository.findDueTasks(now, null, null, 2);
+        Task last = firstPage.getLast();
+        List<Task> secondPage = taskRepository.findDueTasks(now, last.getNextRunAt(), last.getId(), 2);
+
+        // THEN
+        assertEquals(List.of(task1.getId(), task2.getId()), firstPage.stream().map(Task::getId).toList());
+        assertEquals(List.of(task3.getId()), secondPage.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    @TestTransaction
+    void givenTaskLeasedByOtherOwner_whenAcquireLease_thenLeaseIsNotAcquired() {
+        // GIVEN
+        Task task = createTask(true, Instant.now().minus(2, ChronoUnit.DAYS));
+        Instant now = Instant.now();
+        assertTrue(taskRepository.acquireLease(task.getId(), "node-1", now, now.plusSeconds(60), true));
+
+        // WHEN
+        boolean acquired = taskRepository.acquireLease(task.getId(), "node-2", now, now.plusSeconds(60), true);
+
+        // THEN
+        assertFalse(acquired);
+    }
+
+    @Test
+    @TestTransaction
+    void givenExpiredLease_whenAcquireLease_thenLeaseIsTakenOver() {
+        // GIVEN
+        Task task = createTask(true, Instant.now().minus(2, ChronoUnit.DAYS));
+        Instant now = Instant.now();
+        taskRepository.acquireLease(task.getId(), "node-1", now.minusSeconds(120), now.minusSeconds(60), true);
+
+        // WHEN
+        boolean acquired = taskRepository.acquireLease(task.getId(), "node-2", now, now.plusSeconds(60), true);
+
+        // THEN
+        assertTrue(acquired);
+        taskRepository.getEntityManager().clear();
+        assertEquals("node-2", taskRepository.findById(task.getId()).getLeaseOwner());
+    }
+
+    @Test
+    @TestTransaction
+    void givenTaskNotDue_whenAcquireDueLease_thenLeaseIsOnlyAcquiredForManualRun() {
+        // GIVEN
+        Task task = createTask(true, Instant.now());
+        Instant now = Instant.now();
+
+        // WHEN / THEN
+        assertFalse(taskRepository.acquireLease(task.getId(), "node-1", now, now.plusSeconds(60), true));
+        assertTrue(taskRepository.acquireLease(task.getId(), "node-1", now, now.plusSeconds(60), false));
+    }
+
+    @Test
+    @TestTransaction
+    void givenLeasedTask_whenReleaseLeaseByOtherOwner_thenLeaseIsKept() {
+        // GIVEN
+        Task task = createTask(true, Instant.now().minus(2, ChronoUnit.DAYS));
+        Instant now = Instant.now();
+        taskRepository.acquireLease(task.getId(), "node-1", now, now.plusSeconds(60), true);
+
+        // WHEN
+        taskRepository.releaseLease(task.getId(), "node-2");
+        int renewed = taskRepository.renewLeases(List.of(task.getId()), "node-1", now.plusSeconds(120));
+
+        // THEN
+        assertEquals(1, renewed);
+        taskRepository.getEntityManager().clear();
+        assertTrue(taskRepository.findById(task.getId()).isLeased(now.plusSeconds(90)));
+    }
+
+    private Task createTask(boolean active, Instant lastTimeExecuted) {
+        Task task = new Task();
+        task.setUserId("user");
+        task.setPlatform(Platform.SPOTIFY);
+        task.setActive(active);
+        task.setExecutionIntervalDays(1);
+        task.setLastTimeExecuted(lastTimeExecuted);
+        taskRepository.persist(task);
+        return task;
+    }
+}
@@ -9,7 +9,9 @@ import jakarta.ws.rs.NotAuthorizedException;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.core.Response;
 import io.quarkus.security.identity.SecurityIdentity;
+import jakarta.enterprise.event.Event;
 import org.junit.jupiter.api.BeforeEach;
+import org.mockito.ArgumentCaptor;
 import org.junit.jupiter.api.Test;
 
 import com.windschief.auth.SpotifyTokenService;
@@ -35,8 +37,10 @@ class TaskServiceTest {
     private final SpotifyTokenService spotifyTokenService = mock(SpotifyTokenService.class);
     private final ReleaseRadarService releaseRadarService = mock(ReleaseRadarService.class);
     private final TaskMapper taskMapper = mock(TaskMapper.class);
+    @SuppressWarnings("unchecked")
+    private final Event<TaskChangedEvent> taskChanged = mock(Event.class);
     private final TaskService taskService = new TaskService(taskAccess, taskRepository, addedItemRepository,
-            spotifyTokenService, releaseRadarService, taskMapper);
+            spotifyTokenService, releaseRadarService, taskChanged, taskMapper);
 
     @BeforeEach
     public void setup() {
@@ -113,7 +117,9 @@ class TaskServiceTest {
 
         // THEN
         assertNotNull(result);
-        verify(taskRepository).persist(any(Task.class));
+        ArgumentCaptor<Task> createdTask = ArgumentCaptor.forClass(Task.class);
+        verify(taskRepository).persist(createdTask.capture());
+        verify(taskChanged).fire(new TaskChangedEvent(1L, createdTask.getValue()));
     }
 
     @Test
@@ -136,7 +142,7 @@ class TaskServiceTest {
         Task existingTask = new Task();
         existingTask.setUserId(USER_ID);
         when(taskRepository.findById(taskId)).thenReturn(existingTask);
-        when(releaseRadarService.isTaskProcessing(taskId)).thenReturn(false);
+        when(releaseRadarService.isTaskProcessing(existingTask)).thenReturn(false);
 
         TaskRequestDto taskRequestDto = new TaskRequestDto("test", Platform.SPOTIFY, 7, LocalDate.now(), true, "123");
 
@@ -149,6 +155,7 @@ class TaskServiceTest {
         assertEquals(7, existingTask.getExecutionIntervalDays());
         assertEquals("123", existingTask.getPlaylistId());
         assertTrue(existingTask.isActive());
+        verify(taskChanged).fire(TaskChangedEvent.changed(existingTask));
     }
 
     @Test
@@ -171,7 +178,7 @@ class TaskServiceTest {
         Long taskId = 1L;
         Task task = new Task();
         when(taskRepository.findById(taskId)).thenReturn(task);
-        when(releaseRadarService.isTaskProcessing(taskId)).thenReturn(true);
+        when(releaseRadarService.isTaskProcessing(task)).thenReturn(true);
 
         TaskRequestDto taskRequestDto = new TaskRequestDto("test", Platform.SPOTIFY, 7, LocalDate.now(), true, "123");
 
@@ -186,7 +193,7 @@ class TaskServiceTest {
         Task task = new Task();
         when(taskRepository.findById(taskId)).thenReturn(task);
 
-        when(releaseRadarService.isTaskProcessing(taskId)).thenReturn(false);
+        when(releaseRadarService.isTaskProcessing(task)).thenReturn(false);
 
         // WHEN
         Response response = taskService.deleteTask(taskId);
@@ -194,6 +201,7 @@ class TaskServiceTest {
         // THEN
         verify(taskRepository).delete(task);
         verify(addedItemRepository).deleteByTaskIdAndUserId(taskId, USER_ID);
+        verify(taskChanged).fire(TaskChangedEvent.deleted(taskId));
         assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
     }
 
@@ -203,7 +211,7 @@ class TaskServiceTest {
         Long taskId = 1L;
         Task task = new Task();
         when(taskRepository.findById(taskId)).thenReturn(task);
-        when(releaseRadarService.isTaskProcessing(taskId)).thenReturn(true);
+        when(releaseRadarService.isTaskProcessing(task)).thenReturn(true);
 
         // WHEN / THEN
         assertThrows(IllegalStateException.class, () -> taskService.deleteTask(taskId));
@@ -4,7 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,30 +42,6 @@ class AddedItemRepositoryTest {
         }
     }
 
-    @Test
-    @TestTransaction
-    void givenPersistedAddedItem_whenFindByTaskId_thenItemIsFound() {
-        // GIVEN
-        Task task = new Task();
-        task.setUserId("user");
-        task.setPlatform(Platform.SPOTIFY);
-        taskRepository.persist(task);
-
-        AddedItem addedItem = new AddedItem();
-        addedItem.setTask(task);
-        addedItem.setExternalId("123");
-        addedItem.setItemType(AddedItemType.TRACK);
-        addedItem.setAddedAt(Instant.now());
-        addedItemRepository.persist(addedItem);
-
-        // WHEN
-        List<AddedItem> foundItems = addedItemRepository.findByTaskId(task.getId());
-
-        // THEN
-        assertEquals(1, foundItems.size());
-        assertEquals("123", foundItems.get(0).getExternalId());
-    }
-
     @Test
     @TestTransaction
     void givenPersistedAddedItem_whenDeleteByTaskIdAndUserId_thenItemIsDeleted() {
@@ -82,7 +61,7 @@ class AddedItemRepositoryTest {
 
         // THEN
         assertEquals(1, deletedCount);
-        assertTrue(addedItemRepository.findByTaskId(task.getId()).isEmpty());
+        assertEquals(0, addedItemRepository.count("task.id", task.getId()));
     }
 
     @Test
@@ -154,33 +133,127 @@ class AddedItemRepositoryTest {
 
     @Test
     @TestTransaction
-    void givenAddedItem_whenExistsByExternalReferenceIdAndTaskId_thenReturnsTrue() {
+    void givenAddedItems_whenFindAddedExternalIds_thenOnlyAddedIdsOfTypeAreReturned() {
         // GIVEN
         Task task = new Task();
         task.setUserId("user");
         task.setPlatform(Platform.SPOTIFY);
         taskRepository.persist(task);
 
+        AddedItem addedAlbum = new AddedItem();
+        addedAlbum.setTask(task);
+        addedAlbum.setExternalId("album1");
+        addedAlbum.setItemType(AddedItemType.ALBUM);
+        addedItemRepository.persist(addedAlbum);
+
         AddedItem addedTrack = new AddedItem();
         addedTrack.setTask(task);
-        addedTrack.setExternalId("123");
+        addedTrack.setExternalId("album2");
         addedTrack.setItemType(AddedItemType.TRACK);
         addedItemRepository.persist(addedTrack);
 
-        AddedItem addedAlbum = new AddedItem();
-        addedAlbum.setTask(task);
-        addedAlbum.setExternalId("123");
-        addedAlbum.setItemType(AddedItemType.ALBUM);
-        addedItemRepository.persist(addedAlbum);
+        // WHEN
+        Set<String> addedIds = addedItemRepository.findAddedExternalIds(task.getId(), AddedItemType.ALBUM,
+                List.of("album1", "album2", "album3"));
+
+        // THEN
+        assertEquals(Set.of("album1"), addedIds);
+    }
+
+    @Test
+    @TestTransaction
+    void givenItemsAddedAtOnce_whenFindPages_thenAllItemsAreReturnedNewestFirst() {
+        // GIVEN
+        Task task = new Task();
+        task.setUserId("user");
+        task.setPlatform(Platform.SPOTIFY);
+        taskRepository.persist(task);
+
+        Instant earlier = Instant.parse("2024-01-01T00:00:00Z");
+        Instant later = earlier.plusSeconds(60);
+        AddedItem legacyItem = addItem(task, "legacy", AddedItemType.TRACK, null);
+        AddedItem earlierItem = addItem(task, "earlier", AddedItemType.TRACK, earlier);
+        AddedItem laterAlbum = addItem(task, "laterAlbum", AddedItemType.ALBUM, later);
+        AddedItem laterTrack1 = addItem(task, "laterTrack1", AddedItemType.TRACK, later);
+        AddedItem laterTrack2 = addItem(task, "laterTrack2", AddedItemType.TRACK, later);
+        AddedItemFilter noFilter = new AddedItemFilter(null, null, null);
 
         // WHEN
-        boolean addedTrackExists = addedItemRepository.existsByTaskIdAndExternalIdAndItemType(task.getId(), "123",
-                AddedItemType.TRACK);
-        boolean addedAlbumExists = addedItemRepository.existsByTaskIdAndExternalIdAndItemType(task.getId(), "123",
-                AddedItemType.ALBUM);
+        List<Long> ids = new ArrayList<>();
+        AddedItemCursor cursor = null;
+        List<AddedItemResponseDto> page;
+        do {
+            page = addedItemRepository.findPage(task.getId(), noFilter, cursor, 2);
+            page.forEach(item -> ids.add(item.id()));
+            cursor = page.isEmpty() ? null : AddedItemCursor.of(page.get(page.size() - 1));
+        } while (!page.isEmpty());
 
         // THEN
-        assertEquals(true, addedTrackExists);
-        assertEquals(true, addedAlbumExists);
+        assertEquals(List.of(legacyItem.getId(), laterTrack2.getId(), laterTrack1.getId(), laterAlbum.getId(),
+                earlierItem.getId()), ids);
+    }
+
+    @Test
+    @TestTransaction
+    void givenFilter_whenFindPage_thenOnlyMatchingItemsAreReturned() {
+        // GIVEN
+        Task task = new Task();
+        task.setUserId("user");
+        task.setPlatform(Platform.SPOTIFY);
+        taskRepository.persist(task);
+
+        Instant addedAt = Instant.parse("2024-01-01T00:00:00Z");
+        addItem(task, "before", AddedItemType.TRACK, addedAt.minusSeconds(1));
+        addItem(task, "from", AddedItemType.TRACK, addedAt);
+        addItem(task, "album", AddedItemType.ALBUM, addedAt);
+        addItem(task, "to", AddedItemType.TRACK, addedAt.plusSeconds(60));
+
+        // WHEN
+        List<AddedItemResponseDto> items = addedItemRepository.findPage(task.getId(),
+                new AddedItemFilter(AddedItemType.TRACK, addedAt, addedAt.plusSeconds(60)), null, 10);
+
+        // THEN
+        assertEquals(List.of("from"), items.stream().map(AddedItemResponseDto::externalId).toList());
+    }
+
+    @Test
+    @TestTransaction
+    void givenLookupQueries_whenExplain_thenIndexesAreUsed() {
+        // GIVEN
+        // the tables are tiny here, without this the planner would always pick a sequential scan
+        addedItemRepository.getEntityManager().createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+
+        // WHEN
+        String addedIdsPlan = explain("SELECT external_id FROM added_item "
+                + "WHERE task_id = 1 AND item_type = 0 AND external_id IN ('id1', 'id2')");
+        String lastAddedPlan = explain("SELECT * FROM added_item WHERE task_id = 1 ORDER BY added_at DESC LIMIT 1");
+        String pagePlan = explain("SELECT * FROM added_item WHERE task_id = 1 AND added_at <= now() "
+                + "AND (added_at < now() OR id < 1) ORDER BY added_at DESC, id DESC LIMIT 101");
+        String userTasksPlan = explain("SELECT * FROM task WHERE user_id = 'user'");
+        String taskItemsPlan = explain("SELECT * FROM task_item WHERE task_id = 1");
+
+        // THEN
+        assertTrue(addedIdsPlan.contains("uk_added_item_task_item_type_external_id"), addedIdsPlan);
+        assertTrue(lastAddedPlan.contains("idx_added_item_task_added_at_id"), lastAddedPlan);
+        assertTrue(pagePlan.contains("idx_added_item_task_added_at_id") && !pagePlan.contains("Sort"), pagePlan);
+        assertTrue(userTasksPlan.contains("idx_task_user_id"), userTasksPlan);
+        assertTrue(taskItemsPlan.contains("idx_task_item_task_id"), taskItemsPlan);
+    }
+
+    private AddedItem addItem(Task task, String externalId, AddedItemType itemType, Instant addedAt) {
+        AddedItem addedItem = new AddedItem();
+        addedItem.setTask(task);
+        addedItem.setExternalId(externalId);
+        addedItem.setItemType(itemType);
+        addedItem.setAddedAt(addedAt);
+        addedItemRepository.persist(addedItem);
+        return addedItem;
+    }
+
+    private String explain(String query) {
+        List<?> plan = addedItemRepository.getEntityManager()
+                .createNativeQuery("EXPLAIN " + query)
+                .getResultList();
+        return plan.stream().map(String::valueOf).collect(Collectors.joining("\n"));
     }
-}
\ No newline at end of file
+}
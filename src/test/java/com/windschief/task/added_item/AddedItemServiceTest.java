@@ -1,50 +1,123 @@
 package com.windschief.task.added_item;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
-import com.windschief.task.Task;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.windschief.task.TaskAccess;
-import com.windschief.task.TaskRepository;
 
+import jakarta.persistence.PersistenceException;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 class AddedItemServiceTest {
+    private static final Instant ADDED_AT = Instant.parse("2024-01-01T00:00:00Z");
+
     private final TaskAccess taskAccess = mock(TaskAccess.class);
-    private final TaskRepository taskRepository = mock(TaskRepository.class);
     private final AddedItemRepository addedItemRepository = mock(AddedItemRepository.class);
-    private final AddedItemService addedItemService = new AddedItemService(taskAccess, taskRepository, addedItemRepository);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final AddedItemService addedItemService = new AddedItemService(taskAccess, addedItemRepository,
+            objectMapper);
 
     @Test
-    @SuppressWarnings("unchecked")
-    void givenExistingTask_whenGetAddedItems_thenItemsAreReturned() {
+    void givenExistingTask_whenGetAddedItems_thenItemsAreReturned() throws IOException {
         // GIVEN
         Long taskId = 1L;
-        Task task = new Task();
-        task.setUserId("testUser");
-        AddedItem addedItem = new AddedItem();
-        addedItem.setTask(task);
-        addedItem.setExternalId("spotify:track:123");
-
-        when(taskRepository.findById(taskId)).thenReturn(task);
-        when(addedItemRepository.findByTaskId(taskId)).thenReturn(List.of(addedItem));
+        when(addedItemRepository.findPage(eq(taskId), any(), isNull(), eq(3)))
+                .thenReturn(List.of(item(1L, "spotify:track:123")));
 
         // WHEN
-        Response response = addedItemService.getAddedItems(taskId);
+        Response response = addedItemService.getAddedItems(taskId, null, null, null, null, 2);
 
         // THEN
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
-        List<AddedItem> items = (List<AddedItem>) response.getEntity();
-        assertEquals(1, items.size());
-        assertEquals("spotify:track:123", items.get(0).getExternalId());
+        AddedItemPageDto page = readPage(response);
+        assertEquals(1, page.items().size());
+        assertEquals("spotify:track:123", page.items().get(0).externalId());
+        assertEquals(ADDED_AT, page.items().get(0).addedAt());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void givenMoreItemsThanLimit_whenGetAddedItems_thenCursorOfLastItemIsReturned() throws IOException {
+        // GIVEN
+        Long taskId = 1L;
+        when(addedItemRepository.findPage(eq(taskId), any(), isNull(), eq(3)))
+                .thenReturn(List.of(item(3L, "track3"), item(2L, "track2"), item(1L, "track1")));
+
+        // WHEN
+        AddedItemPageDto page = readPage(addedItemService.getAddedItems(taskId, null, null, null, null, 2));
+
+        // THEN
+        assertEquals(2, page.items().size());
+        assertEquals(new AddedItemCursor(ADDED_AT, 2L), AddedItemCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void givenCursorAndFilter_whenGetAddedItems_thenPageFollowingCursorIsRead() throws IOException {
+        // GIVEN
+        Long taskId = 1L;
+        AddedItemCursor cursor = new AddedItemCursor(ADDED_AT, 2L);
+        AddedItemFilter filter = new AddedItemFilter(AddedItemType.TRACK, ADDED_AT.minusSeconds(60), ADDED_AT);
+        when(addedItemRepository.findPage(taskId, filter, cursor, 101)).thenReturn(List.of(item(1L, "track1")));
+
+        // WHEN
+        AddedItemPageDto page = readPage(addedItemService.getAddedItems(taskId, cursor.encode(), AddedItemType.TRACK,
+                filter.addedFrom(), filter.addedTo(), AddedItemApi.DEFAULT_PAGE_SIZE));
+
+        // THEN
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void givenInvalidCursorOrLimit_whenGetAddedItems_thenBadRequestExceptionIsThrown() {
+        // WHEN / THEN
+        assertThrows(BadRequestException.class,
+                () -> addedItemService.getAddedItems(1L, "not a cursor", null, null, null, 10));
+        assertThrows(BadRequestException.class,
+                () -> addedItemService.getAddedItems(1L, null, null, null, null, AddedItemApi.MAX_PAGE_SIZE + 1));
+        assertThrows(BadRequestException.class, () -> addedItemService.getAddedItems(1L, null, null, null, null, 0));
+    }
+
+    @Test
+    void givenCursorWithoutAddedAt_whenDecode_thenCursorIsRestored() {
+        // GIVEN
+        AddedItemCursor cursor = new AddedItemCursor(null, 42L);
+
+        // WHEN / THEN
+        assertEquals(cursor, AddedItemCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void givenFailingQuery_whenGetAddedItems_thenExceptionIsThrownBeforeResponseIsReturned() {
+        // GIVEN
+        Long taskId = 1L;
+        PersistenceException failure = new PersistenceException("Test exception");
+        when(addedItemRepository.findPage(eq(taskId), any(), isNull(), eq(3))).thenThrow(failure);
+
+        // WHEN / THEN
+        assertThrows(PersistenceException.class, () -> addedItemService.getAddedItems(taskId, null, null, null, null,
+                2));
     }
 
     @Test
@@ -54,6 +127,17 @@ class AddedItemServiceTest {
         doThrow(new NotFoundException()).when(taskAccess).checkAccess(taskId);
 
         // WHEN / THEN
-        assertThrows(NotFoundException.class, () -> addedItemService.getAddedItems(taskId));
+        assertThrows(NotFoundException.class, () -> addedItemService.getAddedItems(taskId, null, null, null, null,
+                AddedItemApi.DEFAULT_PAGE_SIZE));
+    }
+
+    private AddedItemPageDto readPage(Response response) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return objectMapper.readValue(output.toByteArray(), AddedItemPageDto.class);
+    }
+
+    private static AddedItemResponseDto item(Long id, String externalId) {
+        return new AddedItemResponseDto(id, AddedItemType.TRACK, externalId, ADDED_AT);
     }
-}
\ No newline at end of file
+}
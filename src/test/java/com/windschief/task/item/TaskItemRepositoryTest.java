@@ -92,4 +92,35 @@ class TaskItemRepositoryTest {
         // THEN
         assertNotNull(taskItem.getId(), "TaskItem ID should not be null after persisting");
     }
-}
\ No newline at end of file
+
+    @Test
+    @TestTransaction
+    void givenTasksWithItems_whenFindSubscriptionsByTaskIds_thenOnlyItemsOfRequestedTasksAreFound() {
+        // GIVEN
+        Task task1 = new Task();
+        task1.setUserId("user");
+        task1.setPlatform(Platform.SPOTIFY);
+        TaskItem taskItem1 = new TaskItem();
+        taskItem1.setItemType(TaskItemType.ARTIST);
+        taskItem1.setExternalId("artist1");
+        task1.addTaskItem(taskItem1);
+        taskRepository.persist(task1);
+
+        Task task2 = new Task();
+        task2.setUserId("user");
+        task2.setPlatform(Platform.SPOTIFY);
+        TaskItem taskItem2 = new TaskItem();
+        taskItem2.setItemType(TaskItemType.ARTIST);
+        taskItem2.setExternalId("artist2");
+        task2.addTaskItem(taskItem2);
+        taskRepository.persist(task2);
+
+        // WHEN
+        List<TaskItemSubscription> subscriptions = taskItemRepository
+                .findSubscriptionsByTaskIds(List.of(task1.getId()));
+
+        // THEN
+        assertEquals(List.of(new TaskItemSubscription(task1.getId(), TaskItemType.ARTIST, "artist1")),
+                subscriptions);
+    }
+}